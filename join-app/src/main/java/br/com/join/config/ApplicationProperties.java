@@ -1,6 +1,13 @@
 package br.com.join.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Join App.
@@ -10,7 +17,770 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final TokenRefresh tokenRefresh = new TokenRefresh();
+
+    private final Spa spa = new Spa();
+
+    private final StaticResources staticResources = new StaticResources();
+
+    private final Estoque estoque = new Estoque();
+
+    private final Changes changes = new Changes();
+
+    private final Outbox outbox = new Outbox();
+
+    private final ProdutoImport produtoImport = new ProdutoImport();
+
+    private final ProdutoExport produtoExport = new ProdutoExport();
+
+    private final ProdutoDelta produtoDelta = new ProdutoDelta();
+
+    private final Batching batching = new Batching();
+
+    private final ProdutoIdFilter produtoIdFilter = new ProdutoIdFilter();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final ResultCache resultCache = new ResultCache();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
     // jhipster-needle-application-properties-property
+
+    public TokenRefresh getTokenRefresh() {
+        return tokenRefresh;
+    }
+
+    public Spa getSpa() {
+        return spa;
+    }
+
+    public StaticResources getStaticResources() {
+        return staticResources;
+    }
+
+    public Estoque getEstoque() {
+        return estoque;
+    }
+
+    public Changes getChanges() {
+        return changes;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public ProdutoImport getProdutoImport() {
+        return produtoImport;
+    }
+
+    public ProdutoExport getProdutoExport() {
+        return produtoExport;
+    }
+
+    public ProdutoDelta getProdutoDelta() {
+        return produtoDelta;
+    }
+
+    public Batching getBatching() {
+        return batching;
+    }
+
+    public ProdutoIdFilter getProdutoIdFilter() {
+        return produtoIdFilter;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    /**
+     * Controls when {@link br.com.join.web.filter.OAuth2ReactiveRefreshTokensWebFilter} refreshes OAuth2 access tokens.
+     */
+    public static class TokenRefresh {
+
+        /**
+         * Access tokens expiring within this window are refreshed; younger tokens are left alone.
+         */
+        private Duration window = Duration.ofMinutes(1);
+
+        /**
+         * Path patterns for which no refresh is attempted (static assets, health probes...).
+         */
+        private List<String> excludedPaths = new ArrayList<>(
+            Arrays.asList(
+                "/app/**",
+                "/_app/**",
+                "/i18n/**",
+                "/img/**",
+                "/content/**",
+                "/swagger-ui/**",
+                "/v3/api-docs/**",
+                "/*.*",
+                "/management/health",
+                "/management/health/**",
+                "/management/info",
+                "/management/prometheus"
+            )
+        );
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+
+    /**
+     * Controls how {@link br.com.join.web.filter.SpaWebFilter} routes client-side paths to {@code index.html}.
+     */
+    public static class Spa {
+
+        /**
+         * Path prefixes that are never routed to the client application.
+         */
+        private List<String> excludedPrefixes = new ArrayList<>(
+            Arrays.asList("/api", "/management", "/login", "/services", "/v3/api-docs")
+        );
+
+        /**
+         * Serve {@code index.html} from memory instead of re-dispatching through the resource handlers.
+         */
+        private boolean cacheIndexHtml = true;
+
+        public List<String> getExcludedPrefixes() {
+            return excludedPrefixes;
+        }
+
+        public void setExcludedPrefixes(List<String> excludedPrefixes) {
+            this.excludedPrefixes = excludedPrefixes;
+        }
+
+        public boolean isCacheIndexHtml() {
+            return cacheIndexHtml;
+        }
+
+        public void setCacheIndexHtml(boolean cacheIndexHtml) {
+            this.cacheIndexHtml = cacheIndexHtml;
+        }
+    }
+
+    /**
+     * Small, frequently requested static resources served from off-heap buffers by
+     * {@link br.com.join.web.filter.MappedStaticResourceWebFilter}.
+     */
+    public static class StaticResources {
+
+        private boolean enabled = true;
+
+        /**
+         * Path patterns of the resources kept mapped in memory.
+         */
+        private List<String> mappedPaths = new ArrayList<>(Arrays.asList("/i18n/**"));
+
+        /**
+         * Larger files are left to the resource handlers, which use zero-copy file transfer.
+         */
+        private DataSize maxMappedSize = DataSize.ofKilobytes(256);
+
+        /**
+         * Maximum number of resources kept mapped.
+         */
+        private long maxEntries = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getMappedPaths() {
+            return mappedPaths;
+        }
+
+        public void setMappedPaths(List<String> mappedPaths) {
+            this.mappedPaths = mappedPaths;
+        }
+
+        public DataSize getMaxMappedSize() {
+            return maxMappedSize;
+        }
+
+        public void setMaxMappedSize(DataSize maxMappedSize) {
+            this.maxMappedSize = maxMappedSize;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * The stock per categoria kept by {@link br.com.join.service.CategoriaEstoqueAggregate}, and the low-stock
+     * thresholds watched by {@link br.com.join.service.ProdutoEstoqueBaixoWatchlist}.
+     */
+    public static class Estoque {
+
+        /**
+         * How often the incremental totals are reconciled with the database.
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+
+        /**
+         * Produtos whose quantidade is below this threshold are low on stock; none are watched when not set.
+         */
+        private Integer defaultThreshold;
+
+        /**
+         * Thresholds of the produtos of a categoria, by categoria id; they take precedence over the default one.
+         */
+        private Map<Long, Integer> categoriaThresholds = new HashMap<>();
+
+        /**
+         * Thresholds of single produtos, by produto id; they take precedence over those of the categoria.
+         */
+        private Map<Long, Integer> produtoThresholds = new HashMap<>();
+
+        public Duration getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(Duration reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+
+        public Integer getDefaultThreshold() {
+            return defaultThreshold;
+        }
+
+        public void setDefaultThreshold(Integer defaultThreshold) {
+            this.defaultThreshold = defaultThreshold;
+        }
+
+        public Map<Long, Integer> getCategoriaThresholds() {
+            return categoriaThresholds;
+        }
+
+        public void setCategoriaThresholds(Map<Long, Integer> categoriaThresholds) {
+            this.categoriaThresholds = categoriaThresholds;
+        }
+
+        public Map<Long, Integer> getProdutoThresholds() {
+            return produtoThresholds;
+        }
+
+        public void setProdutoThresholds(Map<Long, Integer> produtoThresholds) {
+            this.produtoThresholds = produtoThresholds;
+        }
+    }
+
+    /**
+     * The change feed of {@link br.com.join.service.EntityChangeFeed}.
+     */
+    public static class Changes {
+
+        /**
+         * Number of recent changes kept to resume a feed from a sequence.
+         */
+        private int historySize = 1024;
+
+        /**
+         * Changes buffered for each subscriber which is not keeping up, before the overflow policy applies.
+         */
+        private int subscriberBufferSize = 256;
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public int getSubscriberBufferSize() {
+            return subscriberBufferSize;
+        }
+
+        public void setSubscriberBufferSize(int subscriberBufferSize) {
+            this.subscriberBufferSize = subscriberBufferSize;
+        }
+    }
+
+    /**
+     * The relay of the transactional outbox, {@link br.com.join.service.OutboxRelay}, and its sinks.
+     */
+    public static class Outbox {
+
+        /**
+         * Interval between two polls of the outbox, once it has been drained.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of events claimed and delivered at once.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Time for which a relay claims a batch to deliver it, after which another relay may deliver it again.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Whether the events are published as Spring application events.
+         */
+        private boolean inProcess = true;
+
+        /**
+         * URL to which the batches of events are posted as a JSON array; not posted when not set.
+         */
+        private String webhookUrl;
+
+        /**
+         * Time allowed to the webhook to accept a batch, after which it is retried.
+         */
+        private Duration webhookTimeout = Duration.ofSeconds(10);
+
+        /**
+         * File to which the events are appended as JSON lines; not written when not set.
+         */
+        private String filePath;
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+
+        public boolean isInProcess() {
+            return inProcess;
+        }
+
+        public void setInProcess(boolean inProcess) {
+            this.inProcess = inProcess;
+        }
+
+        public String getWebhookUrl() {
+            return webhookUrl;
+        }
+
+        public void setWebhookUrl(String webhookUrl) {
+            this.webhookUrl = webhookUrl;
+        }
+
+        public Duration getWebhookTimeout() {
+            return webhookTimeout;
+        }
+
+        public void setWebhookTimeout(Duration webhookTimeout) {
+            this.webhookTimeout = webhookTimeout;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public void setFilePath(String filePath) {
+            this.filePath = filePath;
+        }
+    }
+
+    /**
+     * The produto imports of {@link br.com.join.service.ProdutoImportService}.
+     */
+    public static class ProdutoImport {
+
+        /**
+         * Number of rows upserted per statement and transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of rejected rows detailed in the error report of an import; the others are only counted.
+         */
+        private int maxReportedErrors = 100;
+
+        /**
+         * Number of finished imports whose report is kept.
+         */
+        private int retainedJobs = 20;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        public int getRetainedJobs() {
+            return retainedJobs;
+        }
+
+        public void setRetainedJobs(int retainedJobs) {
+            this.retainedJobs = retainedJobs;
+        }
+    }
+
+    /**
+     * The scheduled produto exports of {@link br.com.join.service.ProdutoExportService}.
+     */
+    public static class ProdutoExport {
+
+        /**
+         * Directory of the exported files and of the high-water mark of the last export.
+         */
+        private String directory = "target/export";
+
+        /**
+         * When the full snapshots are exported; {@code -} disables them.
+         */
+        private String fullCron = "0 0 2 * * *";
+
+        /**
+         * When the produtos modified since the last export are exported; {@code -} disables them.
+         */
+        private String incrementalCron = "-";
+
+        /**
+         * Age of the modifications below which the incremental exports leave them to the next one, so that those of
+         * transactions still running when the export starts are not skipped. Full exports include every produto.
+         */
+        private Duration settleTime = Duration.ofMinutes(1);
+
+        /**
+         * Number of rows compressed and written at once, which bounds the memory of an export.
+         */
+        private int chunkSize = 1000;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public String getFullCron() {
+            return fullCron;
+        }
+
+        public void setFullCron(String fullCron) {
+            this.fullCron = fullCron;
+        }
+
+        public String getIncrementalCron() {
+            return incrementalCron;
+        }
+
+        public void setIncrementalCron(String incrementalCron) {
+            this.incrementalCron = incrementalCron;
+        }
+
+        public Duration getSettleTime() {
+            return settleTime;
+        }
+
+        public void setSettleTime(Duration settleTime) {
+            this.settleTime = settleTime;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+    /**
+     * Delta synchronization of the produtos, at {@code /api/produtos/delta}.
+     */
+    public static class ProdutoDelta {
+
+        /**
+         * How far before the token the modifications are sent again, so that those of transactions which were still
+         * running when the token was issued are not missed.
+         */
+        private Duration overlap = Duration.ofSeconds(10);
+
+        /**
+         * How long the ids of the deleted produtos are kept; older tokens get the whole catalog again.
+         */
+        private Duration tombstoneRetention = Duration.ofDays(30);
+
+        /**
+         * When the expired tombstones are purged.
+         */
+        private String purgeCron = "0 30 3 * * *";
+
+        public Duration getOverlap() {
+            return overlap;
+        }
+
+        public void setOverlap(Duration overlap) {
+            this.overlap = overlap;
+        }
+
+        public Duration getTombstoneRetention() {
+            return tombstoneRetention;
+        }
+
+        public void setTombstoneRetention(Duration tombstoneRetention) {
+            this.tombstoneRetention = tombstoneRetention;
+        }
+
+        public String getPurgeCron() {
+            return purgeCron;
+        }
+
+        public void setPurgeCron(String purgeCron) {
+            this.purgeCron = purgeCron;
+        }
+    }
+
+    /**
+     * Coalescing of the concurrent loads of produtos and categorias by id into {@code WHERE id IN} queries.
+     */
+    public static class Batching {
+
+        /**
+         * How long the first load of a batch waits for others; zero only waits for the loads issued until the
+         * batch is dispatched on another thread.
+         */
+        private Duration window = Duration.ZERO;
+
+        /**
+         * Number of ids from which a batch is dispatched without waiting, and of ids per query of the multi-gets.
+         */
+        private int maxSize = 100;
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * The Bloom filter of the existing produto ids kept by {@link br.com.join.service.ProdutoIdFilter}.
+     */
+    public static class ProdutoIdFilter {
+
+        /**
+         * Target rate of the lookups of missing ids which still go to the database.
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * How often the filter is rebuilt from the database, dropping the ids of the deleted produtos.
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+    }
+
+    /**
+     * The identical concurrent GETs answered with a single response by
+     * {@link br.com.join.web.filter.RequestCoalescingWebFilter}.
+     */
+    public static class Coalescing {
+
+        private boolean enabled = true;
+
+        /**
+         * Path patterns of the GETs coalesced; their responses must only depend on the request and the authorities.
+         */
+        private List<String> paths = new ArrayList<>(
+            Arrays.asList("/api/produtos", "/api/produtos/count", "/api/produtos/_search", "/api/categorias", "/api/categorias/count")
+        );
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+    }
+
+    /**
+     * The query results kept by {@link br.com.join.service.QueryResultCache}.
+     */
+    public static class ResultCache {
+
+        /**
+         * How long a result is kept; it is dropped earlier by the writes made through this instance. Zero disables the
+         * cache.
+         */
+        private Duration timeToLive = Duration.ofSeconds(10);
+
+        /**
+         * Maximum size of the cached results, once serialized.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(8);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * The responses kept by {@link br.com.join.web.filter.ResponseCacheWebFilter}.
+     */
+    public static class ResponseCache {
+
+        /**
+         * How long a response is kept; it is dropped earlier by the writes made through this instance. Zero disables
+         * the cache.
+         */
+        private Duration timeToLive = Duration.ofSeconds(10);
+
+        /**
+         * Maximum size of the cached bodies, in direct memory.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+
+        /**
+         * The bodies of at least this size are also kept gzipped.
+         */
+        private DataSize compressionMinSize = DataSize.ofKilobytes(1);
+
+        /**
+         * Path patterns of the GETs cached; their responses must only depend on the request, the authorities and the
+         * entities written through the services.
+         */
+        private List<String> paths = new ArrayList<>(Arrays.asList("/api/produtos", "/api/categorias"));
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getCompressionMinSize() {
+            return compressionMinSize;
+        }
+
+        public void setCompressionMinSize(DataSize compressionMinSize) {
+            this.compressionMinSize = compressionMinSize;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,15 +1,46 @@
 package br.com.join.config;
 
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.web.rest.FieldsProjection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
 import org.zalando.problem.jackson.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Configuration
 public class JacksonConfiguration {
 
+    private static final MimeType[] SMILE_MIME_TYPES = {
+        new MimeType("application", "x-jackson-smile"),
+        new MimeType("application", "*+x-jackson-smile"),
+    };
+
     /**
      * Support for Java date and time API.
      * @return the corresponding Jackson module.
@@ -24,6 +55,15 @@ public class JacksonConfiguration {
         return new Jdk8Module();
     }
 
+    /*
+     * Accesses the properties of the beans, such as the DTOs of the lists, through generated lambdas instead of
+     * reflection.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
     /*
      * Module for serialization/deserialization of RFC7807 Problem.
      */
@@ -39,4 +79,57 @@ public class JacksonConfiguration {
     public ConstraintViolationProblemModule constraintViolationProblemModule() {
         return new ConstraintViolationProblemModule();
     }
+
+    /*
+     * DTOs whose fields can be projected with ?fields=; serialized in full when no filter is given.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsProjectionCustomizer() {
+        return builder ->
+            builder.mixIn(ProdutoDTO.class, FieldsProjection.Mixin.class).filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /*
+     * CBOR (application/cbor) and Smile (application/x-jackson-smile) bodies, negotiated by Accept and Content-Type,
+     * for the integration clients; their mappers get the same modules and mix-ins as the JSON one.
+     */
+    @Bean
+    public CodecCustomizer binaryCodecsCustomizer(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        ObjectMapper cborMapper = builders.getObject().factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = builders.getObject().factory(new SmileFactory()).build();
+        return configurer -> {
+            CodecConfigurer.CustomCodecs codecs = configurer.customCodecs();
+            // Given a mapper, the codecs default to the JSON mime types
+            codecs.register(new CborEncoder(cborMapper));
+            codecs.register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            codecs.register(new Jackson2SmileEncoder(smileMapper, SMILE_MIME_TYPES));
+            codecs.register(new Jackson2SmileDecoder(smileMapper, SMILE_MIME_TYPES));
+        };
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} writing the single values and, as arrays, the streams of the responses, which it only
+     * encodes through {@link #encodeValue}.
+     */
+    static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(
+            Publisher<?> inputStream,
+            DataBufferFactory bufferFactory,
+            ResolvableType elementType,
+            MimeType mimeType,
+            Map<String, Object> hints
+        ) {
+            if (inputStream instanceof Mono) {
+                return Mono.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList().map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints)).flux();
+        }
+    }
 }
@@ -63,6 +63,8 @@ public class SecurityConfiguration {
 
     private final JHipsterProperties jHipsterProperties;
 
+    private final ApplicationProperties applicationProperties;
+
     @Value("${spring.security.oauth2.client.provider.oidc.issuer-uri}")
     private String issuerUri;
 
@@ -83,11 +85,13 @@ public class SecurityConfiguration {
     public SecurityConfiguration(
         ReactiveClientRegistrationRepository clientRegistrationRepository,
         JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
         SecurityProblemSupport problemSupport,
         CorsWebFilter corsWebFilter
     ) {
         this.clientRegistrationRepository = clientRegistrationRepository;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
         this.problemSupport = problemSupport;
         this.corsWebFilter = corsWebFilter;
     }
@@ -106,7 +110,7 @@ public class SecurityConfiguration {
             // See https://github.com/spring-projects/spring-security/issues/5766
             .addFilterAt(new CookieCsrfFilter(), SecurityWebFiltersOrder.REACTOR_CONTEXT)
             .addFilterBefore(corsWebFilter, SecurityWebFiltersOrder.REACTOR_CONTEXT)
-            .addFilterAt(new SpaWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+            .addFilterAt(new SpaWebFilter(applicationProperties.getSpa()), SecurityWebFiltersOrder.AUTHENTICATION)
             .exceptionHandling()
                 .accessDeniedHandler(problemSupport)
                 .authenticationEntryPoint(problemSupport)
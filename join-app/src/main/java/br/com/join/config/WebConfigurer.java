@@ -1,14 +1,23 @@
 package br.com.join.config;
 
+import br.com.join.web.filter.MappedStaticResourceWebFilter;
+import br.com.join.service.QueryResultCache;
+import br.com.join.web.filter.RequestCoalescingWebFilter;
+import br.com.join.web.filter.ResponseCacheWebFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.web.reactive.ResourceHandlerRegistrationCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
 import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
 import org.springframework.util.CollectionUtils;
@@ -16,6 +25,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.resource.EncodedResourceResolver;
 import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
 import org.springframework.web.server.WebExceptionHandler;
 import org.zalando.problem.spring.webflux.advice.ProblemExceptionHandler;
@@ -34,8 +44,11 @@ public class WebConfigurer implements WebFluxConfigurer {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebConfigurer(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebConfigurer(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -71,15 +84,46 @@ public class WebConfigurer implements WebFluxConfigurer {
     }
 
     @Bean
-    ResourceHandlerRegistrationCustomizer registrationCustomizer() {
-        // Disable built-in cache control to use our custom filter instead
-        return registration -> registration.setCacheControl(null);
+    ResourceHandlerRegistrationCustomizer registrationCustomizer(Environment env) {
+        // A single customizer is applied, so the encoded resources are enabled here rather than by a prod-only bean
+        boolean encodedResources = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_PRODUCTION));
+        return registration -> {
+            // Disable built-in cache control to use our custom filter instead
+            registration.setCacheControl(null);
+            if (encodedResources) {
+                // Serve the .br/.gz siblings emitted by the production webpack build when the client accepts them
+                registration.resourceChain(true).addResolver(new EncodedResourceResolver());
+            }
+        };
     }
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_PRODUCTION)
+    @Order(Ordered.LOWEST_PRECEDENCE - 1) // Must set its headers before the mapped resources are written
     public CachingHttpHeadersFilter cachingHttpHeadersFilter() {
         // Use a cache filter that only match selected paths
         return new CachingHttpHeadersFilter(TimeUnit.DAYS.toMillis(jHipsterProperties.getHttp().getCache().getTimeToLiveInDays()));
     }
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @ConditionalOnProperty(prefix = "application.static-resources", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MappedStaticResourceWebFilter mappedStaticResourceWebFilter() {
+        return new MappedStaticResourceWebFilter(applicationProperties.getStaticResources());
+    }
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @ConditionalOnProperty(prefix = "application.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RequestCoalescingWebFilter requestCoalescingWebFilter(MeterRegistry meterRegistry) {
+        // After the security filters, so that each coalesced request is authorized on its own
+        return new RequestCoalescingWebFilter(applicationProperties.getCoalescing(), meterRegistry);
+    }
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    public ResponseCacheWebFilter responseCacheWebFilter(QueryResultCache queryResultCache, MeterRegistry meterRegistry) {
+        // Before the coalescing, which the cached responses do not need
+        return new ResponseCacheWebFilter(applicationProperties.getResponseCache(), queryResultCache, meterRegistry);
+    }
 }
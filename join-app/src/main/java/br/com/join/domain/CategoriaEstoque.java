@@ -0,0 +1,83 @@
+package br.com.join.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The stock of a {@link Categoria}: how many produtos it has and the sum of their quantidade.
+ * Not an entity, it is aggregated from the produto table.
+ */
+public class CategoriaEstoque implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long categoriaId;
+
+    private final long produtos;
+
+    private final long quantidade;
+
+    public CategoriaEstoque(Long categoriaId, long produtos, long quantidade) {
+        this.categoriaId = categoriaId;
+        this.produtos = produtos;
+        this.quantidade = quantidade;
+    }
+
+    /**
+     * @return the contribution of a single produto to the stock of its categoria.
+     */
+    public static CategoriaEstoque of(Produto produto) {
+        return new CategoriaEstoque(produto.getCategoriaId(), 1, produto.getQuantidade() != null ? produto.getQuantidade() : 0);
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public long getProdutos() {
+        return produtos;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public CategoriaEstoque plus(CategoriaEstoque other) {
+        return new CategoriaEstoque(categoriaId, produtos + other.produtos, quantidade + other.quantidade);
+    }
+
+    public CategoriaEstoque negate() {
+        return new CategoriaEstoque(categoriaId, -produtos, -quantidade);
+    }
+
+    public boolean isEmpty() {
+        return produtos == 0 && quantidade == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CategoriaEstoque)) {
+            return false;
+        }
+        CategoriaEstoque that = (CategoriaEstoque) o;
+        return produtos == that.produtos && quantidade == that.quantidade && Objects.equals(categoriaId, that.categoriaId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(categoriaId, produtos, quantidade);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CategoriaEstoque{" +
+            "categoriaId=" + getCategoriaId() +
+            ", produtos=" + getProdutos() +
+            ", quantidade=" + getQuantidade() +
+            "}";
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.join.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A change of an entity waiting in the transactional outbox to be relayed.
+ */
+@Table("outbox_event")
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @Column("aggregate_type")
+    private String aggregateType;
+
+    @Column("aggregate_id")
+    private Long aggregateId;
+
+    @Column("event_type")
+    private String eventType;
+
+    /**
+     * The JSON of the entity DTO after the change, null when it was deleted.
+     */
+    @Column("payload")
+    private String payload;
+
+    @Column("created_date")
+    private Instant createdDate;
+
+    /**
+     * The names of the sinks which already accepted the event, comma-separated, null when none did.
+     */
+    @Column("delivered_to")
+    private String deliveredTo;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public OutboxEvent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return this.aggregateType;
+    }
+
+    public OutboxEvent aggregateType(String aggregateType) {
+        this.setAggregateType(aggregateType);
+        return this;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return this.aggregateId;
+    }
+
+    public OutboxEvent aggregateId(Long aggregateId) {
+        this.setAggregateId(aggregateId);
+        return this;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getEventType() {
+        return this.eventType;
+    }
+
+    public OutboxEvent eventType(String eventType) {
+        this.setEventType(eventType);
+        return this;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public OutboxEvent payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public OutboxEvent createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public String getDeliveredTo() {
+        return this.deliveredTo;
+    }
+
+    public OutboxEvent deliveredTo(String deliveredTo) {
+        this.setDeliveredTo(deliveredTo);
+        return this;
+    }
+
+    public void setDeliveredTo(String deliveredTo) {
+        this.deliveredTo = deliveredTo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((OutboxEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+            "id=" + getId() +
+            ", aggregateType='" + getAggregateType() + "'" +
+            ", aggregateId=" + getAggregateId() +
+            ", eventType='" + getEventType() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", deliveredTo='" + getDeliveredTo() + "'" +
+            "}";
+    }
+}
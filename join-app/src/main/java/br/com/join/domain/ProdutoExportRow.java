@@ -0,0 +1,81 @@
+package br.com.join.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A {@link Produto} joined with the nome of its {@link Categoria}, as exported.
+ * Not an entity, it is read from the produto and categoria tables.
+ */
+public class ProdutoExportRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String nome;
+
+    private final Integer quantidade;
+
+    private final Long categoriaId;
+
+    private final String categoriaNome;
+
+    private final LocalDateTime lastModifiedDate;
+
+    public ProdutoExportRow(
+        Long id,
+        String nome,
+        Integer quantidade,
+        Long categoriaId,
+        String categoriaNome,
+        LocalDateTime lastModifiedDate
+    ) {
+        this.id = id;
+        this.nome = nome;
+        this.quantidade = quantidade;
+        this.categoriaId = categoriaId;
+        this.categoriaNome = categoriaNome;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public String getCategoriaNome() {
+        return categoriaNome;
+    }
+
+    /**
+     * @return the last modification date, in the time zone of the database.
+     */
+    public LocalDateTime getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoExportRow{" +
+            "id=" + getId() +
+            ", nome='" + getNome() + "'" +
+            ", quantidade=" + getQuantidade() +
+            ", categoriaId=" + getCategoriaId() +
+            ", categoriaNome='" + getCategoriaNome() + "'" +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.join.domain.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.join.domain.Categoria} entity. This class is used
+ * in {@link br.com.join.web.rest.CategoriaResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /categorias?id.in=1,2&nome.contains=something}
+ * As Spring is unable to properly convert the types, unless specific {@link tech.jhipster.service.filter.Filter} class
+ * are used, we need to use fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CategoriaCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter nome;
+
+    public CategoriaCriteria() {}
+
+    public CategoriaCriteria(CategoriaCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.nome = other.nome == null ? null : other.nome.copy();
+    }
+
+    @Override
+    public CategoriaCriteria copy() {
+        return new CategoriaCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getNome() {
+        return nome;
+    }
+
+    public StringFilter nome() {
+        if (nome == null) {
+            nome = new StringFilter();
+        }
+        return nome;
+    }
+
+    public void setNome(StringFilter nome) {
+        this.nome = nome;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CategoriaCriteria that = (CategoriaCriteria) o;
+        return Objects.equals(id, that.id) && Objects.equals(nome, that.nome);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, nome);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CategoriaCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (nome != null ? "nome=" + nome + ", " : "") +
+            "}";
+    }
+}
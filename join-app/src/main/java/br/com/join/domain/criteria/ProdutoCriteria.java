@@ -0,0 +1,140 @@
+package br.com.join.domain.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link br.com.join.domain.Produto} entity. This class is used
+ * in {@link br.com.join.web.rest.ProdutoResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /produtos?quantidade.greaterThan=5&nome.contains=something&categoriaId.in=1,2}
+ * As Spring is unable to properly convert the types, unless specific {@link tech.jhipster.service.filter.Filter} class
+ * are used, we need to use fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ProdutoCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter nome;
+
+    private IntegerFilter quantidade;
+
+    private LongFilter categoriaId;
+
+    public ProdutoCriteria() {}
+
+    public ProdutoCriteria(ProdutoCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.nome = other.nome == null ? null : other.nome.copy();
+        this.quantidade = other.quantidade == null ? null : other.quantidade.copy();
+        this.categoriaId = other.categoriaId == null ? null : other.categoriaId.copy();
+    }
+
+    @Override
+    public ProdutoCriteria copy() {
+        return new ProdutoCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getNome() {
+        return nome;
+    }
+
+    public StringFilter nome() {
+        if (nome == null) {
+            nome = new StringFilter();
+        }
+        return nome;
+    }
+
+    public void setNome(StringFilter nome) {
+        this.nome = nome;
+    }
+
+    public IntegerFilter getQuantidade() {
+        return quantidade;
+    }
+
+    public IntegerFilter quantidade() {
+        if (quantidade == null) {
+            quantidade = new IntegerFilter();
+        }
+        return quantidade;
+    }
+
+    public void setQuantidade(IntegerFilter quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public LongFilter getCategoriaId() {
+        return categoriaId;
+    }
+
+    public LongFilter categoriaId() {
+        if (categoriaId == null) {
+            categoriaId = new LongFilter();
+        }
+        return categoriaId;
+    }
+
+    public void setCategoriaId(LongFilter categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ProdutoCriteria that = (ProdutoCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(nome, that.nome) &&
+            Objects.equals(quantidade, that.quantidade) &&
+            Objects.equals(categoriaId, that.categoriaId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, nome, quantidade, categoriaId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (nome != null ? "nome=" + nome + ", " : "") +
+            (quantidade != null ? "quantidade=" + quantidade + ", " : "") +
+            (categoriaId != null ? "categoriaId=" + categoriaId + ", " : "") +
+            "}";
+    }
+}
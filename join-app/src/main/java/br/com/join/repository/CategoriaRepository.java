@@ -1,6 +1,8 @@
 package br.com.join.repository;
 
 import br.com.join.domain.Categoria;
+import br.com.join.domain.criteria.CategoriaCriteria;
+import java.util.Collection;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.relational.core.query.Criteria;
@@ -17,6 +19,9 @@ import reactor.core.publisher.Mono;
 public interface CategoriaRepository extends ReactiveCrudRepository<Categoria, Long>, CategoriaRepositoryInternal {
     Flux<Categoria> findAllBy(Pageable pageable);
 
+    @Query("SELECT * FROM categoria entity WHERE entity.nome IN (:nomes)")
+    Flux<Categoria> findByNomeIn(Collection<String> nomes);
+
     @Override
     <S extends Categoria> Mono<S> save(S entity);
 
@@ -26,8 +31,23 @@ public interface CategoriaRepository extends ReactiveCrudRepository<Categoria, L
     @Override
     Mono<Categoria> findById(Long id);
 
+    @Override
+    Mono<Categoria> findByIdForUpdate(Long id);
+
+    @Override
+    Mono<Integer> update(Categoria categoria);
+
+    @Override
+    Mono<Integer> updateChanges(Categoria categoria, Categoria previous);
+
     @Override
     Mono<Void> deleteById(Long id);
+
+    @Override
+    Flux<Categoria> findByCriteria(CategoriaCriteria criteria, Pageable pageable);
+
+    @Override
+    Mono<Long> countByCriteria(CategoriaCriteria criteria);
 }
 
 interface CategoriaRepositoryInternal {
@@ -38,7 +58,30 @@ interface CategoriaRepositoryInternal {
     Flux<Categoria> findAll();
 
     Mono<Categoria> findById(Long id);
-    // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
-    // Flux<Categoria> findAllBy(Pageable pageable, Criteria criteria);
 
+    /**
+     * Finds the categoria with the given id, locking its row until the end of the transaction.
+     */
+    Mono<Categoria> findByIdForUpdate(Long id);
+
+    /**
+     * Updates every column of an existing categoria, in a single statement.
+     *
+     * @return the number of categorias updated, 0 if there is none with this id.
+     */
+    Mono<Integer> update(Categoria categoria);
+
+    /**
+     * Updates only the columns of the categoria which changed since its previous state, without any statement if none did.
+     *
+     * @return the number of categorias updated, 0 if nothing changed.
+     */
+    Mono<Integer> updateChanges(Categoria categoria, Categoria previous);
+
+    /**
+     * Filters the categorias with the given criteria, all in SQL.
+     */
+    Flux<Categoria> findByCriteria(CategoriaCriteria criteria, Pageable pageable);
+
+    Mono<Long> countByCriteria(CategoriaCriteria criteria);
 }
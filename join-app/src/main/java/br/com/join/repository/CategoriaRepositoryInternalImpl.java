@@ -3,6 +3,7 @@ package br.com.join.repository;
 import static org.springframework.data.relational.core.query.Criteria.where;
 
 import br.com.join.domain.Categoria;
+import br.com.join.domain.criteria.CategoriaCriteria;
 import br.com.join.repository.rowmapper.CategoriaRowMapper;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import org.apache.commons.lang3.StringUtils;
@@ -19,11 +21,14 @@ import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
@@ -47,6 +52,9 @@ class CategoriaRepositoryInternalImpl extends SimpleR2dbcRepository<Categoria, L
 
     private static final Table entityTable = Table.aliased("categoria", EntityManager.ENTITY_ALIAS);
 
+    // Counts the matched rows, even those already holding the values, as the driver uses the found rows
+    private static final String UPDATE = "UPDATE categoria SET nome = :nome WHERE id = :id";
+
     public CategoriaRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -70,12 +78,39 @@ class CategoriaRepositoryInternalImpl extends SimpleR2dbcRepository<Categoria, L
         return createQuery(pageable, null).all();
     }
 
+    @Override
+    public Flux<Categoria> findByCriteria(CategoriaCriteria criteria, Pageable pageable) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        return conditions.bind(db.sql(createSelect(pageable, conditions.build()))).map(this::process).all();
+    }
+
+    @Override
+    public Mono<Long> countByCriteria(CategoriaCriteria criteria) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        return conditions
+            .bind(db.sql(entityManager.createCount(entityTable, conditions.build())))
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    private static ConditionBuilder buildConditions(CategoriaCriteria criteria) {
+        ConditionBuilder conditions = new ConditionBuilder();
+        if (criteria != null) {
+            conditions.filter(criteria.getId(), entityTable.column("id")).filter(criteria.getNome(), entityTable.column("nome"));
+        }
+        return conditions;
+    }
+
     RowsFetchSpec<Categoria> createQuery(Pageable pageable, Condition whereClause) {
+        return db.sql(createSelect(pageable, whereClause)).map(this::process);
+    }
+
+    private String createSelect(Pageable pageable, Condition whereClause) {
         List<Expression> columns = CategoriaSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Categoria.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
+        // Spring Data Criteria are not supported here as of https://github.com/jhipster/generator-jhipster/issues/18269
+        // filters go through the ConditionBuilder instead
+        return entityManager.createSelect(selectFrom, Categoria.class, pageable, whereClause);
     }
 
     @Override
@@ -89,6 +124,28 @@ class CategoriaRepositoryInternalImpl extends SimpleR2dbcRepository<Categoria, L
         return createQuery(null, whereClause).one();
     }
 
+    @Override
+    public Mono<Categoria> findByIdForUpdate(Long id) {
+        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+        return db.sql(createSelect(null, whereClause) + " FOR UPDATE").bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<Integer> update(Categoria categoria) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(UPDATE).bind("id", categoria.getId());
+        spec = categoria.getNome() != null ? spec.bind("nome", categoria.getNome()) : spec.bindNull("nome", String.class);
+        return spec.fetch().rowsUpdated();
+    }
+
+    @Override
+    public Mono<Integer> updateChanges(Categoria categoria, Categoria previous) {
+        if (Objects.equals(categoria.getNome(), previous.getNome())) {
+            return Mono.just(0);
+        }
+        Update changes = Update.update("nome", categoria.getNome());
+        return r2dbcEntityTemplate.update(Query.query(where("id").is(categoria.getId())), changes, Categoria.class);
+    }
+
     private Categoria process(Row row, RowMetadata metadata) {
         Categoria entity = categoriaMapper.apply(row, "e");
         return entity;
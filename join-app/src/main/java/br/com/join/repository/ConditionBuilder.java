@@ -0,0 +1,126 @@
+package br.com.join.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.relational.core.sql.BindMarker;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.data.relational.core.sql.TrueCondition;
+import org.springframework.r2dbc.core.DatabaseClient;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Translates the JHipster {@link Filter}s of a criteria into a where {@link Condition}, keeping every value as a bind
+ * parameter: the rendered SQL only depends on which filters are set, never on their values.
+ * <p>
+ * Build the condition, render it with {@link EntityManager#createSelect}, then {@link #bind} the values to the statement.
+ */
+public class ConditionBuilder {
+
+    private static final String BIND_PREFIX = "filter";
+
+    private final List<Condition> conditions = new ArrayList<>();
+
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+
+    /**
+     * Adds the conditions of the given filter on the column.
+     * @param filter the filter, or null.
+     * @param column the filtered column.
+     * @param <T> the type of the filtered values.
+     * @return this builder.
+     */
+    public <T> ConditionBuilder filter(Filter<T> filter, Column column) {
+        if (filter == null) {
+            return this;
+        }
+        if (filter.getEquals() != null) {
+            conditions.add(column.isEqualTo(bind(filter.getEquals())));
+        }
+        if (filter.getNotEquals() != null) {
+            conditions.add(column.isNotEqualTo(bind(filter.getNotEquals())));
+        }
+        if (filter.getIn() != null) {
+            conditions.add(filter.getIn().isEmpty() ? Conditions.just("1 = 0") : column.in(bind(filter.getIn())));
+        }
+        if (filter.getNotIn() != null && !filter.getNotIn().isEmpty()) {
+            conditions.add(column.notIn(bind(filter.getNotIn())));
+        }
+        if (filter.getSpecified() != null) {
+            conditions.add(Boolean.TRUE.equals(filter.getSpecified()) ? column.isNotNull() : column.isNull());
+        }
+        if (filter instanceof RangeFilter) {
+            addRangeConditions((RangeFilter<?>) filter, column);
+        }
+        if (filter instanceof StringFilter) {
+            addStringConditions((StringFilter) filter, column);
+        }
+        return this;
+    }
+
+    /**
+     * @return the conjunction of the conditions added so far, or a condition that renders no where clause.
+     */
+    public Condition build() {
+        Condition condition = TrueCondition.INSTANCE;
+        for (Condition each : conditions) {
+            condition = condition.and(each);
+        }
+        return condition;
+    }
+
+    /**
+     * Binds the values of the conditions built so far.
+     * @param spec the statement rendered from the {@link #build() built} condition.
+     * @return the statement, with the values bound.
+     */
+    public DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private void addRangeConditions(RangeFilter<?> filter, Column column) {
+        if (filter.getGreaterThan() != null) {
+            conditions.add(column.isGreater(bind(filter.getGreaterThan())));
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            conditions.add(column.isGreaterOrEqualTo(bind(filter.getGreaterThanOrEqual())));
+        }
+        if (filter.getLessThan() != null) {
+            conditions.add(column.isLess(bind(filter.getLessThan())));
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            conditions.add(column.isLessOrEqualTo(bind(filter.getLessThanOrEqual())));
+        }
+    }
+
+    private void addStringConditions(StringFilter filter, Column column) {
+        if (filter.getContains() != null) {
+            conditions.add(column.like(bind(containing(filter.getContains()))));
+        }
+        if (filter.getDoesNotContain() != null) {
+            conditions.add(column.notLike(bind(containing(filter.getDoesNotContain()))));
+        }
+    }
+
+    private BindMarker bind(Object value) {
+        String name = BIND_PREFIX + bindings.size();
+        bindings.put(name, value);
+        return SQL.bindMarker(":" + name);
+    }
+
+    /**
+     * @return a LIKE pattern matching any value containing the given text, with the LIKE wildcards escaped.
+     */
+    static String containing(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -17,6 +17,8 @@ import org.springframework.data.relational.core.mapping.RelationalPersistentEnti
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Functions;
 import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
@@ -142,6 +144,17 @@ public class EntityManager {
         return sqlRenderer.render(select);
     }
 
+    /**
+     * Creates an SQL statement counting the rows of the given table which match the condition.
+     * @param table the table to count the rows of.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql count statement
+     */
+    public String createCount(Table table, Condition where) {
+        SelectFromAndJoin selectFrom = Select.builder().select(Functions.count(Expressions.asterisk())).from(table);
+        return createSelect(where != null ? selectFrom.where(where).build() : selectFrom.build());
+    }
+
     /**
      * Delete all the entity with the given type, and return the number of deletions.
      * @param entityType the entity type which holds the table name.
@@ -0,0 +1,50 @@
+package br.com.join.repository;
+
+import br.com.join.domain.OutboxEvent;
+import java.util.Collection;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the {@link OutboxEvent} entity.
+ */
+@Repository
+public interface OutboxEventRepository extends R2dbcRepository<OutboxEvent, Long> {
+    /**
+     * Locks the oldest events which are neither locked nor claimed by another relay, until the end of the current
+     * transaction.
+     */
+    @Query(
+        "SELECT * FROM outbox_event WHERE claimed_until IS NULL OR claimed_until < CURRENT_TIMESTAMP(6)" +
+        " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED"
+    )
+    Flux<OutboxEvent> findUnclaimedForUpdate(int limit);
+
+    /**
+     * Claims the events for a relay, until the database time plus the given duration.
+     */
+    @Modifying
+    @Query(
+        "UPDATE outbox_event SET claimed_by = :relay," +
+        " claimed_until = DATE_ADD(CURRENT_TIMESTAMP(6), INTERVAL :claimMillis * 1000 MICROSECOND) WHERE id IN (:ids)"
+    )
+    Mono<Integer> claim(Collection<Long> ids, String relay, long claimMillis);
+
+    /**
+     * Releases the events still claimed by a relay, for the next poll to pick them again, recording the sinks which
+     * accepted them.
+     */
+    @Modifying
+    @Query(
+        "UPDATE outbox_event SET claimed_by = NULL, claimed_until = NULL, delivered_to = :deliveredTo" +
+        " WHERE id IN (:ids) AND claimed_by = :relay"
+    )
+    Mono<Integer> release(Collection<Long> ids, String relay, String deliveredTo);
+
+    @Query("DELETE FROM outbox_event WHERE id IN (:ids)")
+    Mono<Void> deleteAllByIdIn(Collection<Long> ids);
+}
@@ -1,7 +1,14 @@
 package br.com.join.repository;
 
+import br.com.join.domain.CategoriaEstoque;
 import br.com.join.domain.Produto;
+import br.com.join.domain.ProdutoExportRow;
+import br.com.join.domain.criteria.ProdutoCriteria;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -32,6 +39,31 @@ public interface ProdutoRepository extends ReactiveCrudRepository<Produto, Long>
     @Query("SELECT * FROM produto entity WHERE entity.categoria_id IS NULL")
     Flux<Produto> findAllWhereCategoriaIsNull();
 
+    /**
+     * Records the deletion of a produto, for the delta synchronization.
+     */
+    @Query("INSERT INTO produto_tombstone (produto_id) VALUES (:id) ON DUPLICATE KEY UPDATE deleted_date = CURRENT_TIMESTAMP(6)")
+    Mono<Void> insertTombstone(Long id);
+
+    /**
+     * Finds the produtos deleted after the given date, leaving out those which were created again since.
+     */
+    @Query(
+        "SELECT t.produto_id FROM produto_tombstone t LEFT OUTER JOIN produto p ON p.id = t.produto_id" +
+        " WHERE t.deleted_date > :since AND p.id IS NULL"
+    )
+    Flux<Long> findDeletedIdsAfter(LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM produto_tombstone WHERE deleted_date < :before")
+    Mono<Integer> deleteTombstonesBefore(LocalDateTime before);
+
+    /**
+     * Streams the ids of every produto, straight from the primary key.
+     */
+    @Query("SELECT id FROM produto")
+    Flux<Long> findAllIds();
+
     @Override
     <S extends Produto> Mono<S> save(S entity);
 
@@ -41,8 +73,53 @@ public interface ProdutoRepository extends ReactiveCrudRepository<Produto, Long>
     @Override
     Mono<Produto> findById(Long id);
 
+    @Override
+    Flux<Produto> findAllById(Iterable<Long> ids);
+
+    @Override
+    Mono<Produto> findByIdForUpdate(Long id);
+
+    @Override
+    Mono<Integer> update(Produto produto);
+
+    @Override
+    Mono<Integer> updateChanges(Produto produto, Produto previous);
+
     @Override
     Mono<Void> deleteById(Long id);
+
+    @Override
+    Flux<Produto> search(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade, Pageable pageable);
+
+    @Override
+    Mono<Long> countSearch(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade);
+
+    @Override
+    Flux<Produto> findAllNomes();
+
+    @Override
+    Flux<CategoriaEstoque> sumEstoqueByCategoria();
+
+    @Override
+    Flux<Produto> upsertAll(List<Produto> produtos);
+
+    @Override
+    Flux<ProdutoExportRow> findAllForExport(LocalDateTime since, LocalDateTime until);
+
+    @Override
+    Mono<LocalDateTime> currentTimestamp();
+
+    @Override
+    Flux<Produto> findAllModifiedAfter(LocalDateTime since);
+
+    @Override
+    Flux<Produto> findByCriteria(ProdutoCriteria criteria, Pageable pageable);
+
+    @Override
+    Flux<Produto> findByCriteria(ProdutoCriteria criteria, Pageable pageable, Set<String> fields);
+
+    @Override
+    Mono<Long> countByCriteria(ProdutoCriteria criteria);
 }
 
 interface ProdutoRepositoryInternal {
@@ -53,8 +130,43 @@ interface ProdutoRepositoryInternal {
     Flux<Produto> findAll();
 
     Mono<Produto> findById(Long id);
-    // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
-    // Flux<Produto> findAllBy(Pageable pageable, Criteria criteria);
+
+    /**
+     * Finds the produtos with the given ids, with their categoria, in a single {@code WHERE id IN} query.
+     */
+    Flux<Produto> findAllById(Iterable<Long> ids);
+
+    /**
+     * Finds the produto with the given id, with its categoria, locking its row until the end of the transaction.
+     */
+    Mono<Produto> findByIdForUpdate(Long id);
+
+    /**
+     * Updates every column of an existing produto, in a single statement.
+     *
+     * @return the number of produtos updated, 0 if there is none with this id.
+     */
+    Mono<Integer> update(Produto produto);
+
+    /**
+     * Updates only the columns of the produto which changed since its previous state, without any statement if none did.
+     *
+     * @return the number of produtos updated, 0 if nothing changed.
+     */
+    Mono<Integer> updateChanges(Produto produto, Produto previous);
+
+    /**
+     * Filters the produtos with the given criteria, all in SQL.
+     */
+    Flux<Produto> findByCriteria(ProdutoCriteria criteria, Pageable pageable);
+
+    /**
+     * Filters the produtos with the given criteria, selecting only the given fields and the id (plus the sorted ones).
+     * The categoria is only joined when requested.
+     */
+    Flux<Produto> findByCriteria(ProdutoCriteria criteria, Pageable pageable, Set<String> fields);
+
+    Mono<Long> countByCriteria(ProdutoCriteria criteria);
 
     Mono<Produto> findOneWithEagerRelationships(Long id);
 
@@ -63,4 +175,47 @@ interface ProdutoRepositoryInternal {
     Flux<Produto> findAllWithEagerRelationships(Pageable page);
 
     Mono<Void> deleteById(Long id);
+
+    /**
+     * Full-text search on {@code nome} (prefix match on every term), combined with optional filters.
+     * Results are ordered by relevance unless the pageable carries a sort.
+     */
+    Flux<Produto> search(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade, Pageable pageable);
+
+    Mono<Long> countSearch(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade);
+
+    /**
+     * Streams the id and nome of every produto, without the categoria join.
+     */
+    Flux<Produto> findAllNomes();
+
+    /**
+     * Aggregates the produtos of each categoria with a {@code GROUP BY}; produtos without a categoria are left out.
+     */
+    Flux<CategoriaEstoque> sumEstoqueByCategoria();
+
+    /**
+     * Inserts the produtos without an id and updates (or inserts) those with one, with a single batched statement.
+     * The generated ids are set on the given produtos, which are emitted in order.
+     */
+    Flux<Produto> upsertAll(List<Produto> produtos);
+
+    /**
+     * Streams the produtos joined with the nome of their categoria, ordered by id. A row is modified when its produto or
+     * its categoria is, so that a renamed categoria exports its produtos again.
+     *
+     * @param since the exclusive lower bound of the last modification date, or null for no lower bound.
+     * @param until the inclusive upper bound of the last modification date, or null for no upper bound.
+     */
+    Flux<ProdutoExportRow> findAllForExport(LocalDateTime since, LocalDateTime until);
+
+    /**
+     * @return the current time of the database, to which the last modification dates are compared.
+     */
+    Mono<LocalDateTime> currentTimestamp();
+
+    /**
+     * Finds the produtos modified after the given date, or whose categoria was.
+     */
+    Flux<Produto> findAllModifiedAfter(LocalDateTime since);
 }
@@ -2,16 +2,26 @@ package br.com.join.repository;
 
 import static org.springframework.data.relational.core.query.Criteria.where;
 
+import br.com.join.domain.CategoriaEstoque;
 import br.com.join.domain.Produto;
+import br.com.join.domain.ProdutoExportRow;
+import br.com.join.domain.criteria.ProdutoCriteria;
 import br.com.join.repository.rowmapper.CategoriaRowMapper;
 import br.com.join.repository.rowmapper.ProdutoRowMapper;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Pageable;
@@ -20,14 +30,24 @@ import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Functions;
+import org.springframework.data.relational.core.sql.OrderByField;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.TrueCondition;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.RowsFetchSpec;
@@ -50,6 +70,27 @@ class ProdutoRepositoryInternalImpl extends SimpleR2dbcRepository<Produto, Long>
     private static final Table entityTable = Table.aliased("produto", EntityManager.ENTITY_ALIAS);
     private static final Table categoriaTable = Table.aliased("categoria", "categoria");
 
+    // Backed by the ft_produto__nome FULLTEXT index
+    private static final String FULLTEXT_MATCH = "MATCH(" + EntityManager.ENTITY_ALIAS + ".nome) AGAINST(:query IN BOOLEAN MODE)";
+
+    // The sum is cast as MySQL sums integers into a DECIMAL
+    private static final String ESTOQUE_BY_CATEGORIA =
+        "SELECT categoria_id, COUNT(*) AS produtos, CAST(COALESCE(SUM(quantidade), 0) AS SIGNED) AS quantidade" +
+        " FROM produto WHERE categoria_id IS NOT NULL GROUP BY categoria_id";
+
+    private static final String EXPORT_SELECT =
+        "SELECT e.id, e.nome, e.quantidade, e.categoria_id, categoria.nome AS categoria_nome, e.last_modified_date" +
+        " FROM produto e LEFT OUTER JOIN categoria categoria ON e.categoria_id = categoria.id";
+
+    // A null id inserts a new row, an existing one updates it
+    private static final String UPSERT =
+        "INSERT INTO produto (id, nome, quantidade, categoria_id) VALUES (?, ?, ?, ?)" +
+        " ON DUPLICATE KEY UPDATE nome = VALUES(nome), quantidade = VALUES(quantidade), categoria_id = VALUES(categoria_id)";
+
+    // Counts the matched rows, even those already holding the values, as the driver uses the found rows
+    private static final String UPDATE =
+        "UPDATE produto SET nome = :nome, quantidade = :quantidade, categoria_id = :categoriaId WHERE id = :id";
+
     public ProdutoRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -75,7 +116,187 @@ class ProdutoRepositoryInternalImpl extends SimpleR2dbcRepository<Produto, Long>
         return createQuery(pageable, null).all();
     }
 
+    @Override
+    public Flux<Produto> findByCriteria(ProdutoCriteria criteria, Pageable pageable) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        return conditions.bind(db.sql(createSelect(pageable, conditions.build()))).map(this::process).all();
+    }
+
+    @Override
+    public Flux<Produto> findByCriteria(ProdutoCriteria criteria, Pageable pageable, Set<String> fields) {
+        // Sorted columns are ordered on by their select alias, so they must be selected too
+        Set<String> selected = new HashSet<>(fields);
+        if (pageable != null) {
+            pageable.getSort().forEach(order -> selected.add(order.getProperty()));
+        }
+        boolean withCategoria = selected.contains("categoria");
+        List<Expression> columns = ProdutoSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS, selected);
+        if (withCategoria) {
+            columns.addAll(CategoriaSqlHelper.getColumns(categoriaTable, "categoria"));
+        }
+        ConditionBuilder conditions = buildConditions(criteria);
+        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
+        String select = withCategoria
+            ? entityManager.createSelect(
+                selectFrom
+                    .leftOuterJoin(categoriaTable)
+                    .on(Column.create("categoria_id", entityTable))
+                    .equals(Column.create("id", categoriaTable)),
+                Produto.class,
+                pageable,
+                conditions.build()
+            )
+            : entityManager.createSelect(selectFrom, Produto.class, pageable, conditions.build());
+        return conditions
+            .bind(db.sql(select))
+            .map((row, metadata) -> {
+                Produto entity = produtoMapper.apply(row, EntityManager.ENTITY_ALIAS, selected);
+                if (withCategoria) {
+                    entity.setCategoria(categoriaMapper.apply(row, "categoria"));
+                }
+                return entity;
+            })
+            .all();
+    }
+
+    @Override
+    public Mono<Long> countByCriteria(ProdutoCriteria criteria) {
+        ConditionBuilder conditions = buildConditions(criteria);
+        return conditions
+            .bind(db.sql(entityManager.createCount(entityTable, conditions.build())))
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    @Override
+    public Flux<CategoriaEstoque> sumEstoqueByCategoria() {
+        return db
+            .sql(ESTOQUE_BY_CATEGORIA)
+            .map(row ->
+                new CategoriaEstoque(
+                    row.get("categoria_id", Long.class),
+                    row.get("produtos", Long.class),
+                    row.get("quantidade", Long.class)
+                )
+            )
+            .all();
+    }
+
+    @Override
+    public Flux<ProdutoExportRow> findAllForExport(LocalDateTime since, LocalDateTime until) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(EXPORT_SELECT + exportWhere(since != null, until != null) + " ORDER BY e.id");
+        if (since != null) {
+            spec = spec.bind("since", since);
+        }
+        if (until != null) {
+            spec = spec.bind("until", until);
+        }
+        return spec
+            .map(row ->
+                new ProdutoExportRow(
+                    row.get("id", Long.class),
+                    row.get("nome", String.class),
+                    row.get("quantidade", Integer.class),
+                    row.get("categoria_id", Long.class),
+                    row.get("categoria_nome", String.class),
+                    row.get("last_modified_date", LocalDateTime.class)
+                )
+            )
+            .all();
+    }
+
+    // A row is modified with its produto or with its categoria, whose nome it carries
+    static String exportWhere(boolean since, boolean until) {
+        List<String> conditions = new ArrayList<>();
+        if (since) {
+            conditions.add("(e.last_modified_date > :since OR categoria.last_modified_date > :since)");
+        }
+        if (until) {
+            conditions.add("e.last_modified_date <= :until");
+            conditions.add("(categoria.last_modified_date IS NULL OR categoria.last_modified_date <= :until)");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    @Override
+    public Mono<LocalDateTime> currentTimestamp() {
+        return db.sql("SELECT CURRENT_TIMESTAMP(6)").map(row -> row.get(0, LocalDateTime.class)).one();
+    }
+
+    @Override
+    public Flux<Produto> findAllModifiedAfter(LocalDateTime since) {
+        Condition whereClause = entityTable
+            .column("last_modified_date")
+            .isGreater(SQL.bindMarker(":since"))
+            .or(categoriaTable.column("last_modified_date").isGreater(SQL.bindMarker(":since")));
+        return db.sql(createSelect(null, whereClause)).bind("since", since).map(this::process).all();
+    }
+
+    @Override
+    public Flux<Produto> upsertAll(List<Produto> produtos) {
+        if (produtos.isEmpty()) {
+            return Flux.empty();
+        }
+        return db
+            .inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(UPSERT).returnGeneratedValues("id");
+                for (int i = 0; i < produtos.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    Produto produto = produtos.get(i);
+                    bindNullable(statement, 0, produto.getId(), Long.class);
+                    bindNullable(statement, 1, produto.getNome(), String.class);
+                    bindNullable(statement, 2, produto.getQuantidade(), Integer.class);
+                    bindNullable(statement, 3, produto.getCategoriaId(), Long.class);
+                }
+                // One result per binding, in order
+                return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)));
+            })
+            .index()
+            .map(generated -> {
+                Produto produto = produtos.get(generated.getT1().intValue());
+                if (produto.getId() == null) {
+                    produto.setId(generated.getT2());
+                }
+                return produto;
+            });
+    }
+
+    private static void bindNullable(Statement statement, int index, Object value, Class<?> type) {
+        if (value != null) {
+            statement.bind(index, value);
+        } else {
+            statement.bindNull(index, type);
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(
+        DatabaseClient.GenericExecuteSpec spec,
+        String name,
+        Object value,
+        Class<?> type
+    ) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private static ConditionBuilder buildConditions(ProdutoCriteria criteria) {
+        ConditionBuilder conditions = new ConditionBuilder();
+        if (criteria != null) {
+            conditions
+                .filter(criteria.getId(), entityTable.column("id"))
+                .filter(criteria.getNome(), entityTable.column("nome"))
+                .filter(criteria.getQuantidade(), entityTable.column("quantidade"))
+                .filter(criteria.getCategoriaId(), entityTable.column("categoria_id"));
+        }
+        return conditions;
+    }
+
     RowsFetchSpec<Produto> createQuery(Pageable pageable, Condition whereClause) {
+        return db.sql(createSelect(pageable, whereClause)).map(this::process);
+    }
+
+    private String createSelect(Pageable pageable, Condition whereClause) {
         List<Expression> columns = ProdutoSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(CategoriaSqlHelper.getColumns(categoriaTable, "categoria"));
         SelectFromAndJoinCondition selectFrom = Select
@@ -85,9 +306,9 @@ class ProdutoRepositoryInternalImpl extends SimpleR2dbcRepository<Produto, Long>
             .leftOuterJoin(categoriaTable)
             .on(Column.create("categoria_id", entityTable))
             .equals(Column.create("id", categoriaTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Produto.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
+        // Spring Data Criteria are not supported here as of https://github.com/jhipster/generator-jhipster/issues/18269
+        // filters go through the ConditionBuilder instead
+        return entityManager.createSelect(selectFrom, Produto.class, pageable, whereClause);
     }
 
     @Override
@@ -101,6 +322,60 @@ class ProdutoRepositoryInternalImpl extends SimpleR2dbcRepository<Produto, Long>
         return createQuery(null, whereClause).one();
     }
 
+    @Override
+    public Mono<Produto> findByIdForUpdate(Long id) {
+        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+        // Only the produto row is locked, not its categoria
+        String select = createSelect(null, whereClause) + " FOR UPDATE OF " + EntityManager.ENTITY_ALIAS;
+        return db.sql(select).bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<Integer> update(Produto produto) {
+        DatabaseClient.GenericExecuteSpec spec = db.sql(UPDATE).bind("id", produto.getId());
+        spec = bindNullable(spec, "nome", produto.getNome(), String.class);
+        spec = bindNullable(spec, "quantidade", produto.getQuantidade(), Integer.class);
+        spec = bindNullable(spec, "categoriaId", produto.getCategoriaId(), Long.class);
+        return spec.fetch().rowsUpdated();
+    }
+
+    @Override
+    public Mono<Integer> updateChanges(Produto produto, Produto previous) {
+        Update changes = changes(produto, previous);
+        if (changes.getAssignments().isEmpty()) {
+            return Mono.just(0);
+        }
+        return r2dbcEntityTemplate.update(Query.query(where("id").is(produto.getId())), changes, Produto.class);
+    }
+
+    /**
+     * @return the assignments of the columns whose values differ between the two states of the produto.
+     */
+    static Update changes(Produto produto, Produto previous) {
+        Map<SqlIdentifier, Object> assignments = new LinkedHashMap<>();
+        if (!Objects.equals(produto.getNome(), previous.getNome())) {
+            assignments.put(SqlIdentifier.unquoted("nome"), produto.getNome());
+        }
+        if (!Objects.equals(produto.getQuantidade(), previous.getQuantidade())) {
+            assignments.put(SqlIdentifier.unquoted("quantidade"), produto.getQuantidade());
+        }
+        if (!Objects.equals(produto.getCategoriaId(), previous.getCategoriaId())) {
+            assignments.put(SqlIdentifier.unquoted("categoriaId"), produto.getCategoriaId());
+        }
+        return Update.from(assignments);
+    }
+
+    @Override
+    public Flux<Produto> findAllById(Iterable<Long> ids) {
+        List<Long> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        if (idList.isEmpty()) {
+            return Flux.empty();
+        }
+        Condition whereClause = entityTable.column("id").in(SQL.bindMarker(":ids"));
+        return db.sql(createSelect(null, whereClause)).bind("ids", idList).map(this::process).all();
+    }
+
     @Override
     public Mono<Produto> findOneWithEagerRelationships(Long id) {
         return findById(id);
@@ -116,6 +391,114 @@ class ProdutoRepositoryInternalImpl extends SimpleR2dbcRepository<Produto, Long>
         return findAllBy(page);
     }
 
+    @Override
+    public Flux<Produto> search(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade, Pageable pageable) {
+        Map<String, Object> bindings = new HashMap<>();
+        Condition whereClause = searchCondition(query, categoriaId, minQuantidade, maxQuantidade, bindings);
+        List<Expression> columns = ProdutoSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        columns.addAll(CategoriaSqlHelper.getColumns(categoriaTable, "categoria"));
+        boolean rankByRelevance = bindings.containsKey("query") && (pageable == null || pageable.getSort().isUnsorted());
+        if (rankByRelevance) {
+            columns.add(Expressions.just(FULLTEXT_MATCH + " AS " + EntityManager.ALIAS_PREFIX + "relevance"));
+        }
+        SelectFromAndJoinCondition selectFrom = Select
+            .builder()
+            .select(columns)
+            .from(entityTable)
+            .leftOuterJoin(categoriaTable)
+            .on(Column.create("categoria_id", entityTable))
+            .equals(Column.create("id", categoriaTable));
+        String select;
+        if (rankByRelevance) {
+            SelectOrdered ordered = pageable != null && pageable.isPaged()
+                ? selectFrom.limitOffset(pageable.getPageSize(), pageable.getOffset()).where(whereClause)
+                : selectFrom.where(whereClause);
+            select =
+                entityManager.createSelect(
+                    ordered
+                        .orderBy(
+                            OrderByField.from(Column.aliased("relevance", entityTable, EntityManager.ALIAS_PREFIX + "relevance")).desc(),
+                            OrderByField.from(entityTable.column("id")).asc()
+                        )
+                        .build()
+                );
+        } else {
+            select = entityManager.createSelect(selectFrom, Produto.class, pageable, whereClause);
+        }
+        return bind(db.sql(select), bindings).map(this::process).all();
+    }
+
+    @Override
+    public Mono<Long> countSearch(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade) {
+        Map<String, Object> bindings = new HashMap<>();
+        Condition whereClause = searchCondition(query, categoriaId, minQuantidade, maxQuantidade, bindings);
+        Select select = Select.builder().select(Functions.count(entityTable.column("id"))).from(entityTable).where(whereClause).build();
+        return bind(db.sql(entityManager.createSelect(select)), bindings).map(row -> row.get(0, Long.class)).one();
+    }
+
+    @Override
+    public Flux<Produto> findAllNomes() {
+        Select select = Select.builder().select(entityTable.column("id"), entityTable.column("nome")).from(entityTable).build();
+        return db
+            .sql(entityManager.createSelect(select))
+            .map(row -> new Produto().id(row.get("id", Long.class)).nome(row.get("nome", String.class)))
+            .all();
+    }
+
+    private static Condition searchCondition(
+        String query,
+        Long categoriaId,
+        Integer minQuantidade,
+        Integer maxQuantidade,
+        Map<String, Object> bindings
+    ) {
+        Condition condition = TrueCondition.INSTANCE;
+        String booleanQuery = toBooleanModeQuery(query);
+        if (booleanQuery != null) {
+            bindings.put("query", booleanQuery);
+            condition = condition.and(Conditions.just(FULLTEXT_MATCH));
+        }
+        if (categoriaId != null) {
+            bindings.put("categoriaId", categoriaId);
+            condition = condition.and(entityTable.column("categoria_id").isEqualTo(SQL.bindMarker(":categoriaId")));
+        }
+        if (minQuantidade != null) {
+            bindings.put("minQuantidade", minQuantidade);
+            condition = condition.and(entityTable.column("quantidade").isGreaterOrEqualTo(SQL.bindMarker(":minQuantidade")));
+        }
+        if (maxQuantidade != null) {
+            bindings.put("maxQuantidade", maxQuantidade);
+            condition = condition.and(entityTable.column("quantidade").isLessOrEqualTo(SQL.bindMarker(":maxQuantidade")));
+        }
+        return condition;
+    }
+
+    /**
+     * Turns free text into a MySQL/MariaDB boolean-mode query where every term is required and prefix-matched,
+     * after stripping the boolean-mode operators from the user input.
+     * @return the boolean-mode query, or {@code null} if the input has no searchable term.
+     */
+    static String toBooleanModeQuery(String query) {
+        if (StringUtils.isBlank(query)) {
+            return null;
+        }
+        StringBuilder booleanQuery = new StringBuilder();
+        for (String term : StringUtils.split(query)) {
+            String sanitized = term.replaceAll("[+\\-<>()~*\"@]", "");
+            if (!sanitized.isEmpty()) {
+                booleanQuery.append(booleanQuery.length() == 0 ? "" : " ").append('+').append(sanitized).append('*');
+            }
+        }
+        return booleanQuery.length() == 0 ? null : booleanQuery.toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> bindings) {
+        for (Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
     private Produto process(Row row, RowMetadata metadata) {
         Produto entity = produtoMapper.apply(row, "e");
         entity.setCategoria(categoriaMapper.apply(row, "categoria"));
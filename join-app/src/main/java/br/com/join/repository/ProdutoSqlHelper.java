@@ -2,6 +2,7 @@ package br.com.join.repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.Table;
@@ -17,4 +18,23 @@ public class ProdutoSqlHelper {
         columns.add(Column.aliased("categoria_id", table, columnPrefix + "_categoria_id"));
         return columns;
     }
+
+    /**
+     * Columns of the given fields only; the id is always selected.
+     * @param fields the names of the {@link br.com.join.domain.Produto} fields, {@code categoria} selecting its id.
+     */
+    public static List<Expression> getColumns(Table table, String columnPrefix, Set<String> fields) {
+        List<Expression> columns = new ArrayList<>();
+        columns.add(Column.aliased("id", table, columnPrefix + "_id"));
+        if (fields.contains("nome")) {
+            columns.add(Column.aliased("nome", table, columnPrefix + "_nome"));
+        }
+        if (fields.contains("quantidade")) {
+            columns.add(Column.aliased("quantidade", table, columnPrefix + "_quantidade"));
+        }
+        if (fields.contains("categoria")) {
+            columns.add(Column.aliased("categoria_id", table, columnPrefix + "_categoria_id"));
+        }
+        return columns;
+    }
 }
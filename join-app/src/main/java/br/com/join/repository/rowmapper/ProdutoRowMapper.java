@@ -2,6 +2,7 @@ package br.com.join.repository.rowmapper;
 
 import br.com.join.domain.Produto;
 import io.r2dbc.spi.Row;
+import java.util.Set;
 import java.util.function.BiFunction;
 import org.springframework.stereotype.Service;
 
@@ -30,4 +31,23 @@ public class ProdutoRowMapper implements BiFunction<Row, String, Produto> {
         entity.setCategoriaId(converter.fromRow(row, prefix + "_categoria_id", Long.class));
         return entity;
     }
+
+    /**
+     * Take a {@link Row}, a column prefix and the selected fields, and extract only those fields and the id.
+     * @return the {@link Produto} stored in the database, the fields which were not selected being left null.
+     */
+    public Produto apply(Row row, String prefix, Set<String> fields) {
+        Produto entity = new Produto();
+        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
+        if (fields.contains("nome")) {
+            entity.setNome(converter.fromRow(row, prefix + "_nome", String.class));
+        }
+        if (fields.contains("quantidade")) {
+            entity.setQuantidade(converter.fromRow(row, prefix + "_quantidade", Integer.class));
+        }
+        if (fields.contains("categoria")) {
+            entity.setCategoriaId(converter.fromRow(row, prefix + "_categoria_id", Long.class));
+        }
+        return entity;
+    }
 }
@@ -0,0 +1,32 @@
+package br.com.join.service;
+
+import br.com.join.service.dto.OutboxEventDTO;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link OutboxSink} publishing each event as a Spring application event, for the in-process listeners.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox", name = "in-process", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return "in-process";
+    }
+
+    @Override
+    public Mono<Void> deliver(List<OutboxEventDTO> events) {
+        return Mono.fromRunnable(() -> events.forEach(applicationEventPublisher::publishEvent));
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Coalesces the loads by key issued concurrently into batch loads, in the spirit of DataLoader.
+ * <p>
+ * The first load of a batch schedules its dispatch after the window, on another thread: the loads issued until then
+ * join the batch, which is dispatched at once when it reaches its maximum size, cancelling its scheduled dispatch. Each
+ * load then gets the value of its key, or completes empty if the batch load has none; a load cancelled before then
+ * leaves the batch. The batch loads run outside of the transactions of the callers.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+class BatchLoader<K, V> {
+
+    private final Function<Collection<K>, Flux<V>> batchLoad;
+
+    private final Function<V, K> keyOf;
+
+    private final Duration window;
+
+    private final int maxSize;
+
+    private final DistributionSummary batchSizes;
+
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    // Guarded by this
+    private Map<K, List<MonoSink<V>>> pending = new LinkedHashMap<>();
+
+    // Number of the pending batch, bumped once it is taken so that its scheduled dispatch is skipped; guarded by this
+    private long batchNumber;
+
+    // The dispatch scheduled for the pending batch, null if none is; guarded by this
+    private Disposable scheduledDispatch;
+
+    BatchLoader(
+        String name,
+        Function<Collection<K>, Flux<V>> batchLoad,
+        Function<V, K> keyOf,
+        ApplicationProperties.Batching properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.batchLoad = batchLoad;
+        this.keyOf = keyOf;
+        this.window = properties.getWindow();
+        this.maxSize = properties.getMaxSize();
+        this.batchSizes =
+            DistributionSummary
+                .builder("batch.loader.size")
+                .description("Number of keys loaded per batch")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key the key to load.
+     * @return the value of the key, once loaded with those of the other pending loads.
+     */
+    Mono<V> load(K key) {
+        return Mono.create(sink -> {
+            Map<K, List<MonoSink<V>>> full = null;
+            synchronized (this) {
+                pending.computeIfAbsent(key, k -> new ArrayList<>(1)).add(sink);
+                if (pending.size() >= maxSize) {
+                    full = takePending();
+                } else if (scheduledDispatch == null) {
+                    long number = batchNumber;
+                    scheduledDispatch = scheduler.schedule(() -> dispatchPending(number), window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+            if (full != null) {
+                dispatch(full);
+            }
+            sink.onCancel(() -> cancel(key, sink));
+        });
+    }
+
+    private void dispatchPending(long number) {
+        Map<K, List<MonoSink<V>>> batch;
+        synchronized (this) {
+            // A batch taken before its window, whose dispatch could not be cancelled in time
+            if (number != batchNumber) {
+                return;
+            }
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private synchronized void cancel(K key, MonoSink<V> sink) {
+        List<MonoSink<V>> sinks = pending.get(key);
+        if (sinks == null || !sinks.remove(sink)) {
+            return;
+        }
+        if (sinks.isEmpty()) {
+            pending.remove(key);
+        }
+        if (pending.isEmpty()) {
+            takePending();
+        }
+    }
+
+    private Map<K, List<MonoSink<V>>> takePending() {
+        Map<K, List<MonoSink<V>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        batchNumber++;
+        if (scheduledDispatch != null) {
+            scheduledDispatch.dispose();
+            scheduledDispatch = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, List<MonoSink<V>>> batch) {
+        batchSizes.record(batch.size());
+        batchLoad
+            .apply(List.copyOf(batch.keySet()))
+            .collectMap(keyOf)
+            .subscribe(
+                values ->
+                    batch.forEach((key, sinks) -> {
+                        V value = values.get(key);
+                        sinks.forEach(sink -> {
+                            if (value != null) {
+                                sink.success(value);
+                            } else {
+                                sink.success();
+                            }
+                        });
+                    }),
+                e -> batch.values().forEach(sinks -> sinks.forEach(sink -> sink.error(e)))
+            );
+    }
+}
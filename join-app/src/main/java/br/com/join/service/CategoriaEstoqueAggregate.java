@@ -0,0 +1,263 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.CategoriaEstoque;
+import br.com.join.domain.Produto;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.CategoriaEstoqueDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory stock per categoria: the number of produtos of each categoria and the sum of their quantidade.
+ * <p>
+ * The totals are updated with the delta of every {@link ProdutoService} write once it commits, and periodically
+ * reconciled with a {@code GROUP BY} on the produto table, which also catches the writes made elsewhere. Each categoria
+ * is exposed as the {@code categoria.estoque.produtos} and
+ * {@code categoria.estoque.quantidade} gauges.
+ */
+@Service
+public class CategoriaEstoqueAggregate {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoriaEstoqueAggregate.class);
+
+    private final ProdutoRepository produtoRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration reconcileInterval;
+
+    private final Timer reconcileTimer;
+
+    private final Counter driftCounter;
+
+    // Guarded by this
+    private Map<Long, CategoriaEstoque> totals = new HashMap<>();
+
+    // Categorias written while a reconciliation is scanning, whose totals it keeps; null when not reconciling
+    private Set<Long> writtenWhileReconciling;
+
+    private final Set<Long> gaugedCategorias = new HashSet<>();
+
+    private Disposable reconciliation;
+
+    public CategoriaEstoqueAggregate(
+        ProdutoRepository produtoRepository,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        this.produtoRepository = produtoRepository;
+        this.meterRegistry = meterRegistry;
+        this.reconcileInterval = applicationProperties.getEstoque().getReconcileInterval();
+        this.reconcileTimer =
+            Timer
+                .builder("categoria.estoque.reconcile")
+                .description("Time taken to reconcile the stock per categoria with the database")
+                .register(meterRegistry);
+        this.driftCounter =
+            Counter
+                .builder("categoria.estoque.reconcile.drift")
+                .description("Categorias whose incremental stock differed from the database when reconciled")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconciliation =
+            Flux
+                .interval(Duration.ZERO, reconcileInterval)
+                .onBackpressureDrop()
+                .concatMap(tick ->
+                    reconcile().onErrorResume(e -> {
+                        log.error("Could not reconcile the stock per categoria", e);
+                        return Mono.empty();
+                    })
+                )
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (reconciliation != null) {
+            reconciliation.dispose();
+        }
+    }
+
+    /**
+     * Counts a new produto once the current transaction, if any, commits.
+     *
+     * @return a Mono completing once the delta is registered, or applied.
+     */
+    public Mono<Void> addOnCommit(Produto produto) {
+        CategoriaEstoque delta = CategoriaEstoque.of(produto);
+        return TransactionCallbacks.afterCommit(() -> apply(delta));
+    }
+
+    /**
+     * Moves the contribution of an updated produto once the current transaction, if any, commits.
+     *
+     * @param before the stock of the produto before the update.
+     * @param after the updated produto.
+     * @return a Mono completing once the deltas are registered, or applied.
+     */
+    public Mono<Void> replaceOnCommit(CategoriaEstoque before, Produto after) {
+        CategoriaEstoque delta = CategoriaEstoque.of(after);
+        return TransactionCallbacks.afterCommit(() -> replace(before, delta));
+    }
+
+    /**
+     * Discounts a deleted produto once the current transaction, if any, commits.
+     *
+     * @param before the stock of the produto before the deletion.
+     * @return a Mono completing once the delta is registered, or applied.
+     */
+    public Mono<Void> removeOnCommit(CategoriaEstoque before) {
+        return TransactionCallbacks.afterCommit(() -> apply(before.negate()));
+    }
+
+    void add(Produto produto) {
+        apply(CategoriaEstoque.of(produto));
+    }
+
+    synchronized void replace(CategoriaEstoque before, CategoriaEstoque after) {
+        apply(before.negate());
+        apply(after);
+    }
+
+    void remove(CategoriaEstoque before) {
+        apply(before.negate());
+    }
+
+    /**
+     * @return the stock of the categoria, zero when it has no produto.
+     */
+    public synchronized CategoriaEstoqueDTO get(Long categoriaId) {
+        CategoriaEstoque estoque = totals.get(categoriaId);
+        return estoque != null ? toDto(estoque) : new CategoriaEstoqueDTO(categoriaId, 0, 0);
+    }
+
+    /**
+     * @return the stock of every categoria having produtos, ordered by categoria.
+     */
+    public synchronized List<CategoriaEstoqueDTO> getAll() {
+        return totals
+            .values()
+            .stream()
+            .sorted((a, b) -> Long.compare(a.getCategoriaId(), b.getCategoriaId()))
+            .map(CategoriaEstoqueAggregate::toDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces the totals with those of the database. The totals in use keep being updated until the scan completes.
+     * A delta applied meanwhile may or may not be seen by the scan, so the categorias written during the scan keep
+     * their incremental totals, and are left out of the drift, until the next reconciliation.
+     *
+     * @return a Mono completing once the reconciled totals are in use.
+     */
+    public Mono<Void> reconcile() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (writtenWhileReconciling != null) {
+                    log.debug("Stock per categoria reconciliation already in progress");
+                    return Mono.empty();
+                }
+                writtenWhileReconciling = new HashSet<>();
+            }
+            long start = System.nanoTime();
+            return produtoRepository
+                .sumEstoqueByCategoria()
+                .collectMap(CategoriaEstoque::getCategoriaId)
+                .doOnNext(reconciled -> {
+                    int drifted;
+                    synchronized (this) {
+                        for (Long categoriaId : writtenWhileReconciling) {
+                            reconciled.remove(categoriaId);
+                            CategoriaEstoque estoque = totals.get(categoriaId);
+                            if (estoque != null) {
+                                reconciled.put(categoriaId, estoque);
+                            }
+                        }
+                        writtenWhileReconciling = null;
+                        drifted = countDrifted(totals, reconciled);
+                        totals = new HashMap<>(reconciled);
+                        reconciled.keySet().forEach(this::registerGauges);
+                    }
+                    driftCounter.increment(drifted);
+                    reconcileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    log.debug("Reconciled the stock of {} categorias, {} had drifted", reconciled.size(), drifted);
+                })
+                .doOnError(e -> {
+                    synchronized (this) {
+                        writtenWhileReconciling = null;
+                    }
+                })
+                .then();
+        });
+    }
+
+    private synchronized void apply(CategoriaEstoque delta) {
+        if (delta.getCategoriaId() == null || delta.isEmpty()) {
+            return;
+        }
+        merge(totals, delta);
+        if (writtenWhileReconciling != null) {
+            writtenWhileReconciling.add(delta.getCategoriaId());
+        }
+        registerGauges(delta.getCategoriaId());
+    }
+
+    private static void merge(Map<Long, CategoriaEstoque> totals, CategoriaEstoque delta) {
+        CategoriaEstoque merged = totals.merge(delta.getCategoriaId(), delta, CategoriaEstoque::plus);
+        if (merged.getProdutos() <= 0) {
+            totals.remove(delta.getCategoriaId());
+        }
+    }
+
+    private static int countDrifted(Map<Long, CategoriaEstoque> totals, Map<Long, CategoriaEstoque> reconciled) {
+        Set<Long> categorias = new HashSet<>(totals.keySet());
+        categorias.addAll(reconciled.keySet());
+        return (int) categorias.stream().filter(id -> !Objects.equals(totals.get(id), reconciled.get(id))).count();
+    }
+
+    private void registerGauges(Long categoriaId) {
+        if (!gaugedCategorias.add(categoriaId)) {
+            return;
+        }
+        String categoria = categoriaId.toString();
+        Gauge
+            .builder("categoria.estoque.produtos", this, aggregate -> aggregate.get(categoriaId).getProdutos())
+            .description("Number of produtos of the categoria")
+            .tag("categoria", categoria)
+            .register(meterRegistry);
+        Gauge
+            .builder("categoria.estoque.quantidade", this, aggregate -> aggregate.get(categoriaId).getQuantidade())
+            .description("Total quantidade in stock of the categoria")
+            .tag("categoria", categoria)
+            .register(meterRegistry);
+    }
+
+    private static CategoriaEstoqueDTO toDto(CategoriaEstoque estoque) {
+        return new CategoriaEstoqueDTO(estoque.getCategoriaId(), estoque.getProdutos(), estoque.getQuantidade());
+    }
+}
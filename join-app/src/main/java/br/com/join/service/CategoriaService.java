@@ -1,13 +1,21 @@
 package br.com.join.service;
 
+import br.com.join.config.ApplicationProperties;
 import br.com.join.domain.Categoria;
+import br.com.join.domain.criteria.CategoriaCriteria;
 import br.com.join.repository.CategoriaRepository;
 import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.EntityChangeDTO;
 import br.com.join.service.mapper.CategoriaMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -21,13 +29,45 @@ public class CategoriaService {
 
     private final Logger log = LoggerFactory.getLogger(CategoriaService.class);
 
+    static final String ENTITY_NAME = "categoria";
+
     private final CategoriaRepository categoriaRepository;
 
     private final CategoriaMapper categoriaMapper;
 
-    public CategoriaService(CategoriaRepository categoriaRepository, CategoriaMapper categoriaMapper) {
+    private final EntityChangeFeed entityChangeFeed;
+
+    private final OutboxService outboxService;
+
+    private final QueryResultCache queryResultCache;
+
+    private final BatchLoader<Long, Categoria> categoriaLoader;
+
+    private final int batchMaxSize;
+
+    public CategoriaService(
+        CategoriaRepository categoriaRepository,
+        CategoriaMapper categoriaMapper,
+        EntityChangeFeed entityChangeFeed,
+        OutboxService outboxService,
+        QueryResultCache queryResultCache,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.categoriaRepository = categoriaRepository;
         this.categoriaMapper = categoriaMapper;
+        this.entityChangeFeed = entityChangeFeed;
+        this.outboxService = outboxService;
+        this.queryResultCache = queryResultCache;
+        this.categoriaLoader =
+            new BatchLoader<>(
+                ENTITY_NAME,
+                categoriaRepository::findAllById,
+                Categoria::getId,
+                applicationProperties.getBatching(),
+                meterRegistry
+            );
+        this.batchMaxSize = applicationProperties.getBatching().getMaxSize();
     }
 
     /**
@@ -38,38 +78,51 @@ public class CategoriaService {
      */
     public Mono<CategoriaDTO> save(CategoriaDTO categoriaDTO) {
         log.debug("Request to save Categoria : {}", categoriaDTO);
-        return categoriaRepository.save(categoriaMapper.toEntity(categoriaDTO)).map(categoriaMapper::toDto);
+        return categoriaRepository
+            .save(categoriaMapper.toEntity(categoriaDTO))
+            .map(categoriaMapper::toDto)
+            .flatMap(result -> publish(EntityChangeDTO.Operation.CREATED, result));
     }
 
     /**
      * Update a categoria.
      *
      * @param categoriaDTO the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if there is none with this id.
      */
     public Mono<CategoriaDTO> update(CategoriaDTO categoriaDTO) {
         log.debug("Request to update Categoria : {}", categoriaDTO);
-        return categoriaRepository.save(categoriaMapper.toEntity(categoriaDTO)).map(categoriaMapper::toDto);
+        Categoria categoria = categoriaMapper.toEntity(categoriaDTO);
+        return categoriaRepository
+            .update(categoria)
+            .filter(updated -> updated > 0)
+            .map(updated -> categoriaMapper.toDto(categoria))
+            .flatMap(result -> publish(EntityChangeDTO.Operation.UPDATED, result));
     }
 
     /**
      * Partially update a categoria.
      *
      * @param categoriaDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if there is none with this id.
      */
     public Mono<CategoriaDTO> partialUpdate(CategoriaDTO categoriaDTO) {
         log.debug("Request to partially update Categoria : {}", categoriaDTO);
 
         return categoriaRepository
-            .findById(categoriaDTO.getId())
-            .map(existingCategoria -> {
+            .findByIdForUpdate(categoriaDTO.getId())
+            .flatMap(existingCategoria -> {
+                Categoria previous = new Categoria().id(existingCategoria.getId()).nome(existingCategoria.getNome());
                 categoriaMapper.partialUpdate(existingCategoria, categoriaDTO);
+                CategoriaDTO result = categoriaMapper.toDto(existingCategoria);
 
-                return existingCategoria;
-            })
-            .flatMap(categoriaRepository::save)
-            .map(categoriaMapper::toDto);
+                // A patch which changes nothing is neither written nor published
+                return categoriaRepository
+                    .updateChanges(existingCategoria, previous)
+                    .filter(updated -> updated > 0)
+                    .flatMap(updated -> publish(EntityChangeDTO.Operation.UPDATED, result))
+                    .defaultIfEmpty(result);
+            });
     }
 
     /**
@@ -84,6 +137,30 @@ public class CategoriaService {
         return categoriaRepository.findAllBy(pageable).map(categoriaMapper::toDto);
     }
 
+    /**
+     * Find categorias by criteria.
+     *
+     * @param criteria the filtering criteria.
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<CategoriaDTO> findByCriteria(CategoriaCriteria criteria, Pageable pageable) {
+        log.debug("Request to get all Categorias by Criteria : {}", criteria);
+        return categoriaRepository.findByCriteria(criteria, pageable).map(categoriaMapper::toDto);
+    }
+
+    /**
+     * Returns the number of categorias matching the criteria.
+     *
+     * @param criteria the filtering criteria.
+     * @return the number of matching entities in the database.
+     */
+    @Transactional(readOnly = true)
+    public Mono<Long> countByCriteria(CategoriaCriteria criteria) {
+        return categoriaRepository.countByCriteria(criteria);
+    }
+
     /**
      * Returns the number of categorias available.
      * @return the number of entities in the database.
@@ -99,10 +176,30 @@ public class CategoriaService {
      * @param id the id of the entity.
      * @return the entity.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Mono<CategoriaDTO> findOne(Long id) {
         log.debug("Request to get Categoria : {}", id);
-        return categoriaRepository.findById(id).map(categoriaMapper::toDto);
+        // Coalesced with the concurrent loads into one query, so no transaction holding a connection of its own
+        return categoriaLoader.load(id).map(categoriaMapper::toDto);
+    }
+
+    /**
+     * Get the categorias with the given ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities found, in the order of their ids.
+     */
+    @Transactional(readOnly = true)
+    public Flux<CategoriaDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Categorias : {}", ids);
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        return Flux
+            .fromIterable(distinctIds)
+            .buffer(batchMaxSize)
+            .concatMap(categoriaRepository::findAllById)
+            .collectMap(Categoria::getId)
+            .flatMapIterable(found -> distinctIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList()))
+            .map(categoriaMapper::toDto);
     }
 
     /**
@@ -113,6 +210,20 @@ public class CategoriaService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete Categoria : {}", id);
-        return categoriaRepository.deleteById(id);
+        return categoriaRepository
+            .deleteById(id)
+            .then(publish(EntityChangeDTO.Operation.DELETED, id, null));
+    }
+
+    private Mono<CategoriaDTO> publish(EntityChangeDTO.Operation operation, CategoriaDTO categoriaDTO) {
+        return publish(operation, categoriaDTO.getId(), categoriaDTO).thenReturn(categoriaDTO);
+    }
+
+    private Mono<Void> publish(EntityChangeDTO.Operation operation, Long id, CategoriaDTO categoriaDTO) {
+        // Written to the outbox in the transaction of the change, while the feed only gets it once committed
+        return outboxService
+            .append(ENTITY_NAME, operation, id, categoriaDTO)
+            .then(entityChangeFeed.publishOnCommit(ENTITY_NAME, operation, id, categoriaDTO))
+            .then(queryResultCache.invalidateOnCommit(ENTITY_NAME));
     }
 }
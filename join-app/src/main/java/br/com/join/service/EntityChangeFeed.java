@@ -0,0 +1,152 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.dto.EntityChangeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-process feed of the entity changes made through the services, numbered by a sequence.
+ * <p>
+ * Changes are published once their transaction commits, to a multicast sink. Each subscriber reads them through its
+ * own bounded buffer with an {@link Overflow} policy, so that a slow subscriber loses changes (and sees a gap in the
+ * sequence) rather than slowing down the writes. The most recent changes are kept in a ring buffer, from which a
+ * subscriber can resume after its last sequence.
+ * <p>
+ * Sequences restart with the application: the feed is meant for cache invalidation and live views, not as a durable
+ * log.
+ */
+@Service
+public class EntityChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityChangeFeed.class);
+
+    /**
+     * What happens to the changes received by a subscriber which is not keeping up, once its buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * The oldest buffered changes are dropped.
+         */
+        DROP_OLDEST,
+        /**
+         * Only the latest change is kept.
+         */
+        LATEST,
+    }
+
+    private final Sinks.Many<EntityChangeDTO> changes = Sinks.many().multicast().directBestEffort();
+
+    private final int subscriberBufferSize;
+
+    private final Counter droppedCounter;
+
+    // Guarded by this, as the emissions to the sink
+    private final EntityChangeDTO[] history;
+
+    private long nextSequence = 1;
+
+    public EntityChangeFeed(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Changes properties = applicationProperties.getChanges();
+        this.history = new EntityChangeDTO[properties.getHistorySize()];
+        this.subscriberBufferSize = properties.getSubscriberBufferSize();
+        this.droppedCounter =
+            Counter
+                .builder("changes.dropped")
+                .description("Changes dropped for subscribers which were not keeping up")
+                .register(meterRegistry);
+        Gauge
+            .builder("changes.subscribers", changes, Sinks.Many::currentSubscriberCount)
+            .description("Number of subscribers of the change feed")
+            .register(meterRegistry);
+        Gauge
+            .builder("changes.sequence", this, EntityChangeFeed::lastSequence)
+            .description("Sequence of the last published change")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publishes a change once the current transaction, if any, commits; nothing is published if it rolls back.
+     *
+     * @param entity the name of the entity.
+     * @param operation the change.
+     * @param id the id of the entity.
+     * @param state the DTO of the entity after the change, null when deleted.
+     * @return a Mono completing once the publication is registered.
+     */
+    public Mono<Void> publishOnCommit(String entity, EntityChangeDTO.Operation operation, Long id, Object state) {
+        return TransactionCallbacks.afterCommit(() -> publish(entity, operation, id, state));
+    }
+
+    synchronized void publish(String entity, EntityChangeDTO.Operation operation, Long id, Object state) {
+        EntityChangeDTO change = new EntityChangeDTO(nextSequence, entity, operation, id, state, Instant.now());
+        history[(int) (nextSequence % history.length)] = change;
+        nextSequence++;
+        log.debug("Publishing {}", change);
+        changes.tryEmitNext(change);
+    }
+
+    /**
+     * @return the sequence of the last published change, 0 if none.
+     */
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * @param sequence the last sequence received by a subscriber.
+     * @return whether every change after it is still in the history, so that the subscriber can resume from it.
+     */
+    public synchronized boolean canResumeAfter(long sequence) {
+        return sequence <= lastSequence() && sequence >= oldestSequence() - 1;
+    }
+
+    /**
+     * Streams the changes to come, preceded by those after the given sequence which are still in the history.
+     *
+     * @param after the last sequence received, or null to only stream the changes to come.
+     * @param overflow the policy applied when the subscriber is not keeping up.
+     * @return the changes, never completing.
+     */
+    public Flux<EntityChangeDTO> stream(Long after, Overflow overflow) {
+        return Flux.defer(() -> {
+            synchronized (this) {
+                List<EntityChangeDTO> replayed = new ArrayList<>();
+                if (after != null) {
+                    for (long sequence = Math.max(after + 1, oldestSequence()); sequence < nextSequence; sequence++) {
+                        replayed.add(history[(int) (sequence % history.length)]);
+                    }
+                }
+                // Subscribed to the changes before releasing the lock, so that none is missed after the replay
+                AtomicReference<Disposable> connection = new AtomicReference<>();
+                Flux<EntityChangeDTO> live = changes
+                    .asFlux()
+                    .onBackpressureBuffer(
+                        overflow == Overflow.LATEST ? 1 : subscriberBufferSize,
+                        dropped -> droppedCounter.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST
+                    )
+                    .publish(1)
+                    .autoConnect(0, connection::set);
+                return Flux.fromIterable(replayed).concatWith(live).doFinally(signal -> connection.get().dispose());
+            }
+        });
+    }
+
+    private long oldestSequence() {
+        return Math.max(1, nextSequence - history.length);
+    }
+}
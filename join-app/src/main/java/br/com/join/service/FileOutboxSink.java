@@ -0,0 +1,57 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.dto.OutboxEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link OutboxSink} appending the events to {@code application.outbox.file-path}, one JSON object per line.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox", name = "file-path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.path = Paths.get(applicationProperties.getOutbox().getFilePath());
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public Mono<Void> deliver(List<OutboxEventDTO> events) {
+        return Mono
+            .fromCallable(() -> {
+                ByteArrayOutputStream lines = new ByteArrayOutputStream();
+                for (OutboxEventDTO event : events) {
+                    lines.write(objectMapper.writeValueAsBytes(event));
+                    lines.write('\n');
+                }
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                // One write per batch rather than one per event
+                Files.write(path, lines.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                return events.size();
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .then();
+    }
+}
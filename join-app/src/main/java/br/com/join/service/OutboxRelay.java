@@ -0,0 +1,248 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.OutboxEvent;
+import br.com.join.repository.OutboxEventRepository;
+import br.com.join.service.mapper.OutboxEventMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Background relay of the transactional outbox to the {@link OutboxSink}s.
+ * <p>
+ * Every {@code application.outbox.poll-interval}, the relay drains the outbox batch by batch. Each batch is claimed
+ * in a short transaction, picked with {@code SELECT ... FOR UPDATE SKIP LOCKED} and marked as claimed by this relay
+ * for {@code claim-timeout}, so that several instances relay distinct batches. It is then delivered to every sink in
+ * turn outside of any transaction, holding neither lock nor connection while the sinks work, and deleted with a single
+ * statement. When a sink fails, the following ones are still tried, and the batch is released with the sinks which
+ * accepted each event: the next poll only delivers them to the others. A batch whose relay stopped is delivered again
+ * to every sink which had not accepted it before, once its claim expires.
+ * <p>
+ * The throughput is exposed as the {@code outbox.relayed} counter and the time from the write of each event to its
+ * delivery as the {@code outbox.lag} timer.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxEventMapper outboxEventMapper;
+
+    private final List<OutboxSink> sinks;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final Duration pollInterval;
+
+    private final int batchSize;
+
+    private final Duration claimTimeout;
+
+    // Identifies the claims of this relay
+    private final String relayId = UUID.randomUUID().toString();
+
+    private final Counter relayedCounter;
+
+    private final Map<OutboxSink, Counter> failureCounters = new LinkedHashMap<>();
+
+    private final Timer lagTimer;
+
+    private final Timer batchTimer;
+
+    private Disposable polling;
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        OutboxEventMapper outboxEventMapper,
+        List<OutboxSink> sinks,
+        TransactionalOperator transactionalOperator,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventMapper = outboxEventMapper;
+        this.sinks = sinks;
+        this.transactionalOperator = transactionalOperator;
+        this.pollInterval = applicationProperties.getOutbox().getPollInterval();
+        this.batchSize = applicationProperties.getOutbox().getBatchSize();
+        this.claimTimeout = applicationProperties.getOutbox().getClaimTimeout();
+        this.relayedCounter =
+            Counter.builder("outbox.relayed").description("Events relayed from the outbox to the sinks").register(meterRegistry);
+        this.lagTimer =
+            Timer
+                .builder("outbox.lag")
+                .description("Time from the write of an event to the outbox to its delivery to the sinks")
+                .register(meterRegistry);
+        this.batchTimer =
+            Timer
+                .builder("outbox.relay.batch")
+                .description("Time taken to claim, deliver and delete a batch of outbox events")
+                .register(meterRegistry);
+        sinks.forEach(sink ->
+            failureCounters.put(
+                sink,
+                Counter
+                    .builder("outbox.relay.failures")
+                    .description("Batches of outbox events which a sink failed to accept")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry)
+            )
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        log.info("Relaying the outbox to the sinks: {}", sinks.stream().map(OutboxSink::getName).collect(Collectors.toList()));
+        polling =
+            Flux
+                .interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick ->
+                    drain()
+                        .onErrorResume(e -> {
+                            log.warn("Could not relay the outbox, retrying in {}: {}", pollInterval, e.toString());
+                            return Mono.empty();
+                        })
+                )
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * Relays batches until the outbox holds less than a full batch.
+     *
+     * @return the number of events relayed.
+     */
+    public Mono<Long> drain() {
+        return relayBatch().expand(relayed -> relayed == batchSize ? relayBatch() : Mono.empty()).reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> relayBatch() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return claimBatch()
+                .flatMap(events -> events.isEmpty() ? Mono.just(0L) : deliverAndDelete(events))
+                .doOnNext(relayed -> {
+                    if (relayed > 0) {
+                        batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                        relayedCounter.increment(relayed);
+                    }
+                });
+        });
+    }
+
+    private Mono<List<OutboxEvent>> claimBatch() {
+        return outboxEventRepository
+            .findUnclaimedForUpdate(batchSize)
+            .collectList()
+            .flatMap(events ->
+                events.isEmpty()
+                    ? Mono.just(events)
+                    : outboxEventRepository.claim(ids(events), relayId, claimTimeout.toMillis()).thenReturn(events)
+            )
+            // Emitted once committed, so that the batch is delivered without its locks
+            .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Long> deliverAndDelete(List<OutboxEvent> events) {
+        List<Long> ids = ids(events);
+        Set<String> accepted = ConcurrentHashMap.newKeySet();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        return Flux
+            .fromIterable(sinks)
+            .concatMap(sink ->
+                deliver(sink, events)
+                    .doOnSuccess(done -> accepted.add(sink.getName()))
+                    .onErrorResume(e -> {
+                        failureCounters.get(sink).increment();
+                        failures.add(e);
+                        return Mono.empty();
+                    })
+            )
+            .then(
+                Mono.defer(() -> {
+                    if (failures.isEmpty()) {
+                        return outboxEventRepository.deleteAllByIdIn(ids);
+                    }
+                    Throwable failure = failures.get(0);
+                    failures.subList(1, failures.size()).forEach(failure::addSuppressed);
+                    return release(events, accepted).then(Mono.error(failure));
+                })
+            )
+            .then(
+                Mono.fromSupplier(() -> {
+                    Instant now = Instant.now();
+                    events.forEach(event -> lagTimer.record(Duration.between(event.getCreatedDate(), now)));
+                    log.debug("Relayed {} outbox events", events.size());
+                    return (long) events.size();
+                })
+            );
+    }
+
+    private Mono<Void> deliver(OutboxSink sink, List<OutboxEvent> events) {
+        List<OutboxEvent> pending = events
+            .stream()
+            .filter(event -> !deliveredTo(event).contains(sink.getName()))
+            .collect(Collectors.toList());
+        return pending.isEmpty() ? Mono.empty() : sink.deliver(outboxEventMapper.toDto(pending));
+    }
+
+    // One statement per distinct set of sinks having accepted the events, usually a single one
+    private Mono<Void> release(List<OutboxEvent> events, Set<String> accepted) {
+        Map<String, List<Long>> idsByDeliveredTo = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            Set<String> deliveredTo = new TreeSet<>(deliveredTo(event));
+            deliveredTo.addAll(accepted);
+            idsByDeliveredTo.computeIfAbsent(String.join(",", deliveredTo), key -> new ArrayList<>()).add(event.getId());
+        }
+        return Flux
+            .fromIterable(idsByDeliveredTo.entrySet())
+            .concatMap(entry ->
+                outboxEventRepository.release(entry.getValue(), relayId, entry.getKey().isEmpty() ? null : entry.getKey())
+            )
+            .then()
+            .onErrorResume(e -> {
+                log.warn("Could not release {} outbox events, delivered again once their claim expires", events.size());
+                return Mono.empty();
+            });
+    }
+
+    private static Set<String> deliveredTo(OutboxEvent event) {
+        return event.getDeliveredTo() == null ? Collections.emptySet() : Set.of(event.getDeliveredTo().split(","));
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.join.service;
+
+import br.com.join.domain.OutboxEvent;
+import br.com.join.repository.OutboxEventRepository;
+import br.com.join.service.dto.EntityChangeDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service writing the entity changes to the transactional outbox, from which the {@link OutboxRelay} delivers them.
+ * <p>
+ * The events are written in the transaction of the caller, so that they are relayed if and only if the change
+ * commits.
+ */
+@Service
+public class OutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends a change to the outbox.
+     *
+     * @param aggregateType the name of the entity.
+     * @param operation the change.
+     * @param aggregateId the id of the entity.
+     * @param state the DTO of the entity after the change, null when deleted.
+     * @return a Mono completing once the event is written.
+     */
+    public Mono<Void> append(String aggregateType, EntityChangeDTO.Operation operation, Long aggregateId, Object state) {
+        return Mono
+            .fromCallable(() ->
+                new OutboxEvent()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(operation.name())
+                    .payload(state != null ? serialize(state) : null)
+                    .createdDate(Instant.now())
+            )
+            .flatMap(outboxEventRepository::save)
+            .doOnNext(event -> log.debug("Appended to the outbox: {}", event))
+            .then();
+    }
+
+    private String serialize(Object state) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(state);
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.join.service;
+
+import br.com.join.service.dto.OutboxEventDTO;
+import java.util.List;
+import reactor.core.publisher.Mono;
+
+/**
+ * A destination of the events relayed from the transactional outbox by the {@link OutboxRelay}.
+ * <p>
+ * Delivery is at least once: the events a sink did not accept are delivered to it again, and so are those of a relay
+ * which stopped before recording the delivery, so sinks should skip the events whose id they have already processed.
+ */
+public interface OutboxSink {
+    /**
+     * @return the name of the sink, used to tag its metrics and recorded against the events it accepted; stable and
+     * without commas.
+     */
+    String getName();
+
+    /**
+     * Delivers a batch of events.
+     *
+     * @param events the events, in the order of their ids.
+     * @return a Mono completing once the events are delivered, or failing to have them delivered again.
+     */
+    Mono<Void> deliver(List<OutboxEventDTO> events);
+}
@@ -0,0 +1,112 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoDeltaDTO;
+import br.com.join.service.mapper.ProdutoMapper;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service computing the changes of the produtos since a delta token, for the clients keeping the catalog offline.
+ * <p>
+ * A token is the database time at which the previous delta was computed. The produtos modified since (or whose
+ * categoria was) are sent again, with the ids of the produtos deleted since, read from their tombstones. The
+ * modifications slightly older than the token are sent again too, as those of the transactions still running when it
+ * was issued would be missed otherwise: applying a delta is idempotent. Tokens older than the retention of the
+ * tombstones get the whole catalog, flagged as a reset.
+ */
+@Service
+public class ProdutoDeltaService {
+
+    private final Logger log = LoggerFactory.getLogger(ProdutoDeltaService.class);
+
+    private final ProdutoRepository produtoRepository;
+
+    private final ProdutoMapper produtoMapper;
+
+    private final ApplicationProperties.ProdutoDelta properties;
+
+    public ProdutoDeltaService(
+        ProdutoRepository produtoRepository,
+        ProdutoMapper produtoMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.produtoRepository = produtoRepository;
+        this.produtoMapper = produtoMapper;
+        this.properties = applicationProperties.getProdutoDelta();
+    }
+
+    /**
+     * Get the changes of the produtos since a token.
+     *
+     * @param token the token of the previous delta, or null to get the whole catalog.
+     * @return the changes, or an {@link IllegalArgumentException} if the token is not a valid one.
+     */
+    @Transactional(readOnly = true)
+    public Mono<ProdutoDeltaDTO> findChangesSince(String token) {
+        return Mono.defer(() -> {
+            LocalDateTime since = token != null ? decodeToken(token) : null;
+            return produtoRepository
+                .currentTimestamp()
+                .flatMap(now -> {
+                    boolean reset = since == null || since.isBefore(now.minus(properties.getTombstoneRetention()));
+                    LocalDateTime from = reset ? null : since.minus(properties.getOverlap());
+                    Mono<List<Long>> deletedIds = reset
+                        ? Mono.just(List.of())
+                        : produtoRepository.findDeletedIdsAfter(from).collectList();
+                    return (reset ? produtoRepository.findAll() : produtoRepository.findAllModifiedAfter(from))
+                        .map(produtoMapper::toDto)
+                        .collectList()
+                        .zipWith(deletedIds)
+                        .map(changes -> {
+                            ProdutoDeltaDTO delta = new ProdutoDeltaDTO();
+                            delta.setToken(encodeToken(now));
+                            delta.setReset(reset);
+                            delta.setProdutos(changes.getT1());
+                            delta.setDeletedIds(changes.getT2());
+                            return delta;
+                        });
+                });
+        });
+    }
+
+    /**
+     * Purges the tombstones older than their retention.
+     */
+    @Scheduled(cron = "${application.produto-delta.purge-cron:0 30 3 * * *}")
+    public void purgeExpiredTombstones() {
+        produtoRepository
+            .currentTimestamp()
+            .flatMap(now -> produtoRepository.deleteTombstonesBefore(now.minus(properties.getTombstoneRetention())))
+            .subscribe(
+                purged -> log.debug("Purged {} produto tombstones", purged),
+                e -> log.error("Could not purge the produto tombstones", e)
+            );
+    }
+
+    // The database time in microseconds, its precision; opaque to the clients
+    static String encodeToken(LocalDateTime timestamp) {
+        return Long.toString(timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000);
+    }
+
+    static LocalDateTime decodeToken(String token) {
+        long micros;
+        try {
+            micros = Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid delta token: " + token, e);
+        }
+        if (micros < 0) {
+            throw new IllegalArgumentException("Invalid delta token: " + token);
+        }
+        return LocalDateTime.ofEpochSecond(micros / 1_000_000, (int) (micros % 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
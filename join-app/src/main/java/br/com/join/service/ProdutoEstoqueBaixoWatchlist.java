@@ -0,0 +1,228 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.Produto;
+import br.com.join.domain.criteria.ProdutoCriteria;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoEstoqueBaixoEventDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * The produtos whose quantidade is below their low-stock threshold, and the stream of their transitions.
+ * <p>
+ * The threshold of a produto is the first one configured among its own, its categoria's and the default one (see
+ * {@link ApplicationProperties.Estoque}). The set is loaded once the application is ready, with a query on the
+ * quantidade index, then kept up to date by the {@link ProdutoService} writes once they commit.
+ * <p>
+ * Subscribers of the {@link #stream()} each get a bounded buffer: a subscriber which falls behind misses the
+ * transitions emitted meanwhile rather than slowing down the writes.
+ */
+@Service
+public class ProdutoEstoqueBaixoWatchlist {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoEstoqueBaixoWatchlist.class);
+
+    private static final Set<String> LOADED_FIELDS = Set.of("nome", "quantidade", "categoria");
+
+    private final ProdutoRepository produtoRepository;
+
+    private final ApplicationProperties.Estoque properties;
+
+    // Guarded by this, as the emissions to the sink
+    private final Map<Long, ProdutoEstoqueBaixoEventDTO> lowStock = new LinkedHashMap<>();
+
+    private final Sinks.Many<ProdutoEstoqueBaixoEventDTO> transitions = Sinks.many().multicast().directBestEffort();
+
+    // Produtos written while the set is loading, whose loaded state is stale; null when not loading
+    private Set<Long> writtenWhileLoading;
+
+    public ProdutoEstoqueBaixoWatchlist(
+        ProdutoRepository produtoRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.produtoRepository = produtoRepository;
+        this.properties = applicationProperties.getEstoque();
+        Gauge
+            .builder("produto.estoque.baixo.size", this, ProdutoEstoqueBaixoWatchlist::size)
+            .description("Number of produtos below their low-stock threshold")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load().subscribe(null, e -> log.error("Could not load the low-stock watchlist", e));
+    }
+
+    /**
+     * Loads the produtos below their threshold from the database.
+     *
+     * @return a Mono completing once they are in the set.
+     */
+    public Mono<Void> load() {
+        Integer maxThreshold = Stream
+            .concat(
+                Stream.of(properties.getDefaultThreshold()),
+                Stream.concat(properties.getCategoriaThresholds().values().stream(), properties.getProdutoThresholds().values().stream())
+            )
+            .filter(threshold -> threshold != null)
+            .max(Integer::compare)
+            .orElse(null);
+        if (maxThreshold == null) {
+            log.debug("No low-stock threshold configured");
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            synchronized (this) {
+                writtenWhileLoading = new HashSet<>();
+            }
+            ProdutoCriteria criteria = new ProdutoCriteria();
+            criteria.quantidade().setLessThan(maxThreshold);
+            return produtoRepository
+                .findByCriteria(criteria, null, LOADED_FIELDS)
+                .collectList()
+                .doOnNext(produtos -> {
+                    synchronized (this) {
+                        produtos.stream().filter(produto -> !writtenWhileLoading.contains(produto.getId())).forEach(this::evaluate);
+                        writtenWhileLoading = null;
+                    }
+                    log.info("Loaded the low-stock watchlist: {} produtos", size());
+                })
+                .doOnError(e -> {
+                    synchronized (this) {
+                        writtenWhileLoading = null;
+                    }
+                })
+                .then();
+        });
+    }
+
+    /**
+     * Follows a created or updated produto once the current transaction, if any, commits.
+     *
+     * @return a Mono completing once the change is registered, or applied.
+     */
+    public Mono<Void> updateOnCommit(Produto produto) {
+        Produto written = new Produto().id(produto.getId()).nome(produto.getNome()).quantidade(produto.getQuantidade());
+        written.setCategoriaId(produto.getCategoriaId());
+        return TransactionCallbacks.afterCommit(() -> update(written));
+    }
+
+    /**
+     * Follows a deleted produto once the current transaction, if any, commits.
+     *
+     * @return a Mono completing once the change is registered, or applied.
+     */
+    public Mono<Void> removeOnCommit(Long id) {
+        return TransactionCallbacks.afterCommit(() -> remove(id));
+    }
+
+    synchronized void update(Produto produto) {
+        if (writtenWhileLoading != null) {
+            writtenWhileLoading.add(produto.getId());
+        }
+        evaluate(produto);
+    }
+
+    synchronized void remove(Long id) {
+        if (writtenWhileLoading != null) {
+            writtenWhileLoading.add(id);
+        }
+        ProdutoEstoqueBaixoEventDTO previous = lowStock.remove(id);
+        if (previous != null) {
+            emit(withType(previous, ProdutoEstoqueBaixoEventDTO.Type.LEFT));
+        }
+    }
+
+    /**
+     * @return the produtos currently below their threshold, as {@link ProdutoEstoqueBaixoEventDTO.Type#ENTERED}
+     * events, followed by the transitions to come.
+     */
+    public Flux<ProdutoEstoqueBaixoEventDTO> stream() {
+        return Flux.defer(() -> {
+            synchronized (this) {
+                // Subscribed to the transitions before releasing the lock, so that none is missed after the snapshot
+                AtomicReference<Disposable> connection = new AtomicReference<>();
+                Flux<ProdutoEstoqueBaixoEventDTO> live = transitions.asFlux().publish().autoConnect(0, connection::set);
+                return Flux
+                    .fromIterable(new ArrayList<>(lowStock.values()))
+                    .concatWith(live)
+                    .doFinally(signal -> connection.get().dispose());
+            }
+        });
+    }
+
+    synchronized int size() {
+        return lowStock.size();
+    }
+
+    Integer threshold(Long produtoId, Long categoriaId) {
+        Integer threshold = properties.getProdutoThresholds().get(produtoId);
+        if (threshold == null && categoriaId != null) {
+            threshold = properties.getCategoriaThresholds().get(categoriaId);
+        }
+        return threshold != null ? threshold : properties.getDefaultThreshold();
+    }
+
+    private void evaluate(Produto produto) {
+        Integer threshold = threshold(produto.getId(), produto.getCategoriaId());
+        boolean low = threshold != null && produto.getQuantidade() != null && produto.getQuantidade() < threshold;
+        if (low) {
+            ProdutoEstoqueBaixoEventDTO entry = new ProdutoEstoqueBaixoEventDTO(
+                ProdutoEstoqueBaixoEventDTO.Type.ENTERED,
+                produto.getId(),
+                produto.getNome(),
+                produto.getQuantidade(),
+                produto.getCategoriaId(),
+                threshold
+            );
+            if (lowStock.put(produto.getId(), entry) == null) {
+                emit(entry);
+            }
+        } else if (lowStock.remove(produto.getId()) != null) {
+            emit(
+                new ProdutoEstoqueBaixoEventDTO(
+                    ProdutoEstoqueBaixoEventDTO.Type.LEFT,
+                    produto.getId(),
+                    produto.getNome(),
+                    produto.getQuantidade(),
+                    produto.getCategoriaId(),
+                    threshold
+                )
+            );
+        }
+    }
+
+    private void emit(ProdutoEstoqueBaixoEventDTO event) {
+        log.debug("Low-stock transition: {}", event);
+        transitions.tryEmitNext(event);
+    }
+
+    private static ProdutoEstoqueBaixoEventDTO withType(ProdutoEstoqueBaixoEventDTO event, ProdutoEstoqueBaixoEventDTO.Type type) {
+        return new ProdutoEstoqueBaixoEventDTO(
+            type,
+            event.getId(),
+            event.getNome(),
+            event.getQuantidade(),
+            event.getCategoriaId(),
+            event.getEstoqueMinimo()
+        );
+    }
+}
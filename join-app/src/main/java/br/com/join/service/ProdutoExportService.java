@@ -0,0 +1,337 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.ProdutoExportRow;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoExportReportDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service exporting the produtos joined with their categoria to gzipped CSV files, for finance.
+ * <p>
+ * Full snapshots are exported on {@code application.produto-export.full-cron}, and the produtos modified since the
+ * previous export on {@code application.produto-export.incremental-cron}, including those whose categoria was renamed.
+ * The rows are streamed from the database, compressed {@code chunk-size} rows at a time and written with an
+ * {@link AsynchronousFileChannel} to a {@code .part} file, renamed once complete: readers only ever see whole files.
+ * Deleted produtos are not exported.
+ * <p>
+ * Every export records a high-water mark, the database time minus {@code settle-time}, stored next to the files: the
+ * next incremental export starts from it. An incremental export stops at that mark, so that the modifications of
+ * transactions still running are left to the next one, while a full export has no upper bound: the produtos modified
+ * after the mark are in the snapshot, and again in the next incremental export. Each export is reported in the log and through the
+ * {@code produto.export.rows}, {@code produto.export.bytes} and {@code produto.export} meters.
+ */
+@Service
+public class ProdutoExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoExportService.class);
+
+    static final String HIGH_WATER_MARK_FILE = "produto-export.hwm";
+
+    private static final String HEADER = "id;nome;quantidade;categoria_id;categoria;last_modified_date\n";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final ProdutoRepository produtoRepository;
+
+    private final ApplicationProperties.ProdutoExport properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ProdutoExportService(
+        ProdutoRepository produtoRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.produtoRepository = produtoRepository;
+        this.properties = applicationProperties.getProdutoExport();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${application.produto-export.full-cron:0 0 2 * * *}")
+    public void exportFullSnapshot() {
+        export(ProdutoExportReportDTO.Type.FULL).subscribe(null, e -> log.error("Could not export the produtos", e));
+    }
+
+    @Scheduled(cron = "${application.produto-export.incremental-cron:-}")
+    public void exportModifiedSinceLastExport() {
+        export(ProdutoExportReportDTO.Type.INCREMENTAL).subscribe(null, e -> log.error("Could not export the modified produtos", e));
+    }
+
+    /**
+     * Exports the produtos to a new file.
+     *
+     * @param type whether all the produtos are exported, or only those modified since the previous export.
+     * @return the report of the export, once the file is complete; an error if another export is running.
+     */
+    public Mono<ProdutoExportReportDTO> export(ProdutoExportReportDTO.Type type) {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return Mono.error(new IllegalStateException("A produto export is already running"));
+            }
+            Path directory = Paths.get(properties.getDirectory());
+            return Mono
+                .fromCallable(() -> readHighWaterMark(directory))
+                .subscribeOn(Schedulers.boundedElastic())
+                .zipWith(produtoRepository.currentTimestamp())
+                .flatMap(marks -> {
+                    LocalDateTime since = type == ProdutoExportReportDTO.Type.INCREMENTAL ? marks.getT1().orElse(null) : null;
+                    LocalDateTime until = marks.getT2().minus(properties.getSettleTime());
+                    return export(type, directory, since, until);
+                })
+                // Released before the result is signalled, so that the caller can start the next export at once
+                .doOnTerminate(() -> running.set(false))
+                .doOnCancel(() -> running.set(false));
+        });
+    }
+
+    private Mono<ProdutoExportReportDTO> export(
+        ProdutoExportReportDTO.Type type,
+        Path directory,
+        LocalDateTime since,
+        LocalDateTime until
+    ) {
+        String name = "produtos-" + type.name().toLowerCase(Locale.ROOT) + "-" + FILE_TIMESTAMP.format(until) + ".csv.gz";
+        LocalDateTime upperBound = type == ProdutoExportReportDTO.Type.INCREMENTAL ? until : null;
+        Path file = directory.resolve(name);
+        Path part = directory.resolve(name + ".part");
+        AtomicLong rows = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+        Flux<String> lines = Flux.concat(
+            Flux.just(HEADER),
+            produtoRepository.findAllForExport(since, upperBound).doOnNext(row -> rows.incrementAndGet()).map(ProdutoExportService::toCsv)
+        );
+        Flux<DataBuffer> content = compress(lines, properties.getChunkSize())
+            .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()));
+        return Mono
+            .using(
+                () -> {
+                    Files.createDirectories(directory);
+                    return AsynchronousFileChannel.open(
+                        part,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE
+                    );
+                },
+                channel ->
+                    DataBufferUtils
+                        .write(content, channel)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(
+                            Mono.fromCallable(() -> {
+                                channel.force(true);
+                                return part;
+                            })
+                        ),
+                ProdutoExportService::close
+            )
+            .subscribeOn(Schedulers.boundedElastic())
+            .publishOn(Schedulers.boundedElastic())
+            .map(written -> {
+                move(written, file);
+                writeHighWaterMark(directory, until);
+                return report(type, file, since, until, rows.get(), bytes.get(), Duration.ofNanos(System.nanoTime() - start));
+            })
+            .doOnError(e -> deleteQuietly(part));
+    }
+
+    private ProdutoExportReportDTO report(
+        ProdutoExportReportDTO.Type type,
+        Path file,
+        LocalDateTime since,
+        LocalDateTime until,
+        long rows,
+        long bytes,
+        Duration duration
+    ) {
+        ProdutoExportReportDTO report = new ProdutoExportReportDTO();
+        report.setType(type);
+        report.setFile(file.toString());
+        report.setSince(since);
+        report.setUntil(until);
+        report.setRows(rows);
+        report.setBytes(bytes);
+        report.setRowsPerSecond(duration.isZero() ? 0 : rows * 1e9 / duration.toNanos());
+        String tag = type.name().toLowerCase(Locale.ROOT);
+        Counter.builder("produto.export.rows").description("Rows exported").tag("type", tag).register(meterRegistry).increment(rows);
+        Counter
+            .builder("produto.export.bytes")
+            .description("Compressed bytes written by the exports")
+            .tag("type", tag)
+            .register(meterRegistry)
+            .increment(bytes);
+        Timer
+            .builder("produto.export")
+            .description("Time taken to export the produtos")
+            .tag("type", tag)
+            .register(meterRegistry)
+            .record(duration);
+        log.info("Exported the produtos: {}", report);
+        return report;
+    }
+
+    /**
+     * Compresses the lines into gzip buffers of about {@code chunkSize} lines each; only the deflater state is kept
+     * between two chunks.
+     */
+    static Flux<DataBuffer> compress(Flux<String> lines, int chunkSize) {
+        return Flux.using(
+            GzipChunker::new,
+            chunker ->
+                lines
+                    .buffer(chunkSize)
+                    .map(chunker::compress)
+                    .concatWith(Mono.fromCallable(chunker::finish))
+                    .filter(compressed -> compressed.length > 0)
+                    .map(DefaultDataBufferFactory.sharedInstance::wrap),
+            GzipChunker::close
+        );
+    }
+
+    static String toCsv(ProdutoExportRow row) {
+        return (
+            String.join(
+                ";",
+                row.getId().toString(),
+                csvField(row.getNome()),
+                String.valueOf(row.getQuantidade()),
+                row.getCategoriaId() != null ? row.getCategoriaId().toString() : "",
+                csvField(row.getCategoriaNome()),
+                row.getLastModifiedDate() != null ? row.getLastModifiedDate().toString() : ""
+            ) +
+            "\n"
+        );
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static Optional<LocalDateTime> readHighWaterMark(Path directory) throws IOException {
+        Path path = directory.resolve(HIGH_WATER_MARK_FILE);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(LocalDateTime.parse(Files.readString(path, StandardCharsets.UTF_8).trim()));
+    }
+
+    private static void writeHighWaterMark(Path directory, LocalDateTime highWaterMark) {
+        Path path = directory.resolve(HIGH_WATER_MARK_FILE);
+        Path part = directory.resolve(HIGH_WATER_MARK_FILE + ".part");
+        try {
+            Files.writeString(part, highWaterMark.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        move(part, path);
+    }
+
+    private static void move(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close the export file: {}", e.toString());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete the incomplete export {}: {}", path, e.toString());
+        }
+    }
+
+    /**
+     * A gzip stream whose output is taken after each chunk of lines.
+     */
+    private static final class GzipChunker {
+
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        private final GZIPOutputStream gzip;
+
+        private GzipChunker() throws IOException {
+            this.gzip = new GZIPOutputStream(output, 64 * 1024);
+        }
+
+        private byte[] compress(List<String> lines) {
+            try {
+                for (String line : lines) {
+                    gzip.write(line.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return drain();
+        }
+
+        private byte[] finish() throws IOException {
+            gzip.finish();
+            return drain();
+        }
+
+        private byte[] drain() {
+            byte[] compressed = output.toByteArray();
+            output.reset();
+            return compressed;
+        }
+
+        private void close() {
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.repository.ProdutoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bloom filter of the ids of the existing produtos, so that the lookups of ids which never existed, or were deleted,
+ * are answered without a database round-trip.
+ * <p>
+ * The filter is built with an id-only scan once the application is ready. It is rebuilt periodically because the ids
+ * of deleted produtos cannot be removed from a Bloom filter. The ids created in the meantime are added once their
+ * transaction commits. The filter grows by slices of doubling capacity and halving false positive rate, so that the
+ * compound rate stays below the target however many produtos are created between two rebuilds.
+ * <p>
+ * Only ids up to the highest one of the previous scan are ruled out. Newer ids may belong to transactions of other
+ * instances which had not committed yet when the last scan ran, so they are always looked up.
+ */
+@Service
+public class ProdutoIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoIdFilter.class);
+
+    private final ProdutoRepository produtoRepository;
+
+    private final double falsePositiveRate;
+
+    private final Duration rebuildInterval;
+
+    private final Timer rebuildTimer;
+
+    private final Counter rejectedCounter;
+
+    private final Counter passedCounter;
+
+    private final Counter uncheckedCounter;
+
+    private final Counter falsePositiveCounter;
+
+    // Guarded by this; null until first built
+    private Filter filter;
+
+    // Ids added while a rebuild is scanning, replayed on the rebuilt filter; null when not rebuilding
+    private List<Long> pendingIds;
+
+    private Disposable rebuilds;
+
+    public ProdutoIdFilter(ProdutoRepository produtoRepository, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.produtoRepository = produtoRepository;
+        this.falsePositiveRate = applicationProperties.getProdutoIdFilter().getFalsePositiveRate();
+        this.rebuildInterval = applicationProperties.getProdutoIdFilter().getRebuildInterval();
+        this.rebuildTimer =
+            Timer.builder("produto.id.filter.rebuild").description("Time taken to rebuild the produto id filter").register(meterRegistry);
+        this.rejectedCounter = lookupCounter("rejected", meterRegistry);
+        this.passedCounter = lookupCounter("passed", meterRegistry);
+        this.uncheckedCounter = lookupCounter("unchecked", meterRegistry);
+        this.falsePositiveCounter =
+            Counter
+                .builder("produto.id.filter.false.positives")
+                .description("Lookups passed by the produto id filter which found no produto, deleted since the last rebuild or not")
+                .register(meterRegistry);
+        Gauge
+            .builder("produto.id.filter.size", this, ProdutoIdFilter::size)
+            .description("Number of ids in the produto id filter, less those taken for false positives when added")
+            .register(meterRegistry);
+        Gauge
+            .builder("produto.id.filter.memory", this, ProdutoIdFilter::memory)
+            .description("Heap used by the bits of the produto id filter")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge
+            .builder("produto.id.filter.expected.false.positive.rate", this, ProdutoIdFilter::expectedFalsePositiveRate)
+            .description("False positive rate of the produto id filter expected from the bits it has set")
+            .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(String result, MeterRegistry meterRegistry) {
+        return Counter
+            .builder("produto.id.filter.lookups")
+            .description("Lookups of produto ids by result: ruled out, passed, or not covered by the filter")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuilds =
+            Flux
+                .interval(Duration.ZERO, rebuildInterval)
+                .onBackpressureDrop()
+                .concatMap(tick ->
+                    rebuild()
+                        .onErrorResume(e -> {
+                            log.error("Could not rebuild the produto id filter", e);
+                            return Mono.empty();
+                        })
+                )
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (rebuilds != null) {
+            rebuilds.dispose();
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the database. Lookups are checked against the previous filter until the scan completes.
+     *
+     * @return a Mono completing once the rebuilt filter is in use.
+     */
+    public Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            Filter rebuilt;
+            synchronized (this) {
+                if (pendingIds != null) {
+                    log.debug("Produto id filter rebuild already in progress");
+                    return Mono.empty();
+                }
+                pendingIds = new ArrayList<>();
+                // Sized for the produtos of the previous scan, covering its ids once this one completes
+                rebuilt =
+                    filter != null
+                        ? new Filter(filter.size, falsePositiveRate, filter.highestScannedId)
+                        : new Filter(0, falsePositiveRate, 0);
+            }
+            long start = System.nanoTime();
+            return produtoRepository
+                .findAllIds()
+                .doOnNext(rebuilt::scanned)
+                .then(
+                    Mono.fromRunnable(() -> {
+                        synchronized (this) {
+                            pendingIds.forEach(rebuilt::add);
+                            pendingIds = null;
+                            filter = rebuilt;
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                        log.debug("Built the produto id filter: {} ids in {} ms", rebuilt.size, elapsed / 1_000_000);
+                    })
+                )
+                .doOnError(e -> {
+                    synchronized (this) {
+                        pendingIds = null;
+                    }
+                })
+                .then();
+        });
+    }
+
+    /**
+     * Adds the id of a created produto once the current transaction, if any, commits.
+     *
+     * @param id the id of the produto.
+     * @return a Mono completing once the addition is registered.
+     */
+    public Mono<Void> addOnCommit(Long id) {
+        return TransactionCallbacks.afterCommit(() -> add(id));
+    }
+
+    synchronized void add(Long id) {
+        if (filter != null) {
+            filter.add(id);
+        }
+        if (pendingIds != null) {
+            pendingIds.add(id);
+        }
+    }
+
+    /**
+     * @param id the id of a produto.
+     * @return false if there is certainly no produto with this id, true if there may be one.
+     */
+    public boolean mightExist(Long id) {
+        boolean covered;
+        boolean contained;
+        synchronized (this) {
+            covered = isCovered(id);
+            contained = !covered || filter.mightContain(id);
+        }
+        if (!covered) {
+            uncheckedCounter.increment();
+        } else if (contained) {
+            passedCounter.increment();
+        } else {
+            rejectedCounter.increment();
+        }
+        return contained;
+    }
+
+    /**
+     * Records that a lookup which {@link #mightExist(Long)} let through found no produto.
+     *
+     * @param id the id of the produto.
+     */
+    public void recordMiss(Long id) {
+        boolean covered;
+        synchronized (this) {
+            covered = isCovered(id);
+        }
+        if (covered) {
+            falsePositiveCounter.increment();
+        }
+    }
+
+    private boolean isCovered(long id) {
+        return filter != null && id <= filter.coveredId;
+    }
+
+    synchronized int size() {
+        return filter != null ? filter.size : 0;
+    }
+
+    synchronized long memory() {
+        return filter != null ? filter.memory() : 0;
+    }
+
+    synchronized double expectedFalsePositiveRate() {
+        return filter != null ? filter.expectedFalsePositiveRate() : 0;
+    }
+
+    /**
+     * A scalable Bloom filter: a list of slices, a new one being added once the last is full. Not thread-safe.
+     */
+    static final class Filter {
+
+        // Capacity of the first slice when nothing is known of the number of ids
+        private static final int MIN_CAPACITY = 1024;
+
+        // Each slice has half the false positive rate of the previous one, so that the sum of their rates converges
+        private static final double TIGHTENING_RATIO = 0.5;
+
+        private final List<Slice> slices = new ArrayList<>();
+
+        // Highest id ruled out by the filter, and the highest id scanned to build it
+        final long coveredId;
+        long highestScannedId;
+
+        int size;
+
+        Filter(int expectedSize, double falsePositiveRate, long coveredId) {
+            this.coveredId = coveredId;
+            this.highestScannedId = coveredId;
+            slices.add(new Slice(Math.max(expectedSize, MIN_CAPACITY), falsePositiveRate * (1 - TIGHTENING_RATIO)));
+        }
+
+        void scanned(long id) {
+            add(id);
+            highestScannedId = Math.max(highestScannedId, id);
+        }
+
+        void add(long id) {
+            // Also skips the ids taken for false positives, which would only fill the slice
+            if (mightContain(id)) {
+                return;
+            }
+            Slice last = slices.get(slices.size() - 1);
+            if (last.size >= last.capacity) {
+                last = new Slice(last.capacity * 2, last.falsePositiveRate * TIGHTENING_RATIO);
+                slices.add(last);
+            }
+            last.add(id);
+            size++;
+        }
+
+        boolean mightContain(long id) {
+            for (Slice slice : slices) {
+                if (slice.mightContain(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long memory() {
+            return slices.stream().mapToLong(slice -> slice.bits.length * (long) Long.BYTES).sum();
+        }
+
+        double expectedFalsePositiveRate() {
+            double trueNegativeRate = 1;
+            for (Slice slice : slices) {
+                trueNegativeRate *= 1 - Math.pow((double) slice.bitCount / slice.bitSize, slice.hashes);
+            }
+            return 1 - trueNegativeRate;
+        }
+    }
+
+    /**
+     * A plain Bloom filter sized for a capacity and a false positive rate, with double hashing of the ids.
+     */
+    private static final class Slice {
+
+        private final long[] bits;
+
+        private final long bitSize;
+
+        private final int hashes;
+
+        private final int capacity;
+
+        private final double falsePositiveRate;
+
+        private int size;
+
+        private long bitCount;
+
+        private Slice(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new long[(int) ((optimalBits + Long.SIZE - 1) / Long.SIZE)];
+            this.bitSize = (long) bits.length * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        }
+
+        private void add(long id) {
+            long hash = mix(id);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, bitSize);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits[word] & mask) == 0) {
+                    bits[word] |= mask;
+                    bitCount++;
+                }
+            }
+            size++;
+        }
+
+        private boolean mightContain(long id) {
+            long hash = mix(id);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, bitSize);
+                if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // The SplitMix64 finalizer, spreading the sequential ids over all the bits
+        private static long mix(long x) {
+            x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+            x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+            return x ^ (x >>> 31);
+        }
+    }
+}
@@ -0,0 +1,666 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.Categoria;
+import br.com.join.repository.CategoriaRepository;
+import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.dto.ProdutoImportErrorDTO;
+import br.com.join.service.dto.ProdutoImportJobDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service importing produtos from CSV or NDJSON files.
+ * <p>
+ * The file is decoded line by line as its buffers arrive, so that it is never held in memory. Each row is validated,
+ * its categoria resolved from its name (or id) through a cache of the job, and the valid rows are upserted by
+ * {@link ProdutoService#upsertAll(List)} in chunks of {@code application.produto-import.chunk-size}, one transaction
+ * each. Rejected rows and chunks do not stop the import: they are counted and reported in the
+ * {@link ProdutoImportJobDTO}, which can be followed while the import runs. A file which cannot be imported at all, such
+ * as a CSV file with an invalid header, fails its job with an {@link InvalidFileException}.
+ * <p>
+ * A CSV file starts with a header naming its columns among {@code id}, {@code nome}, {@code quantidade},
+ * {@code categoria} (the name) and {@code categoria_id}, separated by {@code ;} (as the Liquibase fake data) or
+ * {@code ,}; {@code nome}, {@code quantidade} and one of the categoria columns are required. A NDJSON file holds one
+ * produto per line, as returned by the API, its {@code categoria} being an object or a name.
+ */
+@Service
+public class ProdutoImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoImportService.class);
+
+    private static final int MAX_NOME_LENGTH = 255;
+
+    private static final StringDecoder LINE_DECODER = StringDecoder.allMimeTypes();
+
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    /**
+     * The supported file formats.
+     */
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+        /**
+         * Detects the format of a file from its content type or else from its extension.
+         *
+         * @param contentType the content type, if any.
+         * @param filename the name of the file, if any.
+         * @return the format, or empty if it is not supported.
+         */
+        public static Optional<Format> of(MediaType contentType, String filename) {
+            if (contentType != null && TEXT_CSV.isCompatibleWith(contentType)) {
+                return Optional.of(CSV);
+            }
+            if (contentType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+                return Optional.of(NDJSON);
+            }
+            String extension = filename != null ? filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "";
+            switch (extension) {
+                case "csv":
+                    return Optional.of(CSV);
+                case "ndjson":
+                case "jsonl":
+                    return Optional.of(NDJSON);
+                default:
+                    return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Thrown when a file cannot be imported at all, as opposed to the rows rejected one by one.
+     */
+    public static final class InvalidFileException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        private InvalidFileException(String message) {
+            super(message);
+        }
+    }
+
+    private final ProdutoService produtoService;
+
+    private final CategoriaRepository categoriaRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.ProdutoImport properties;
+
+    private final Counter importedCounter;
+
+    private final Counter rejectedCounter;
+
+    private final Timer importTimer;
+
+    // Guarded by this, in start order
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public ProdutoImportService(
+        ProdutoService produtoService,
+        CategoriaRepository categoriaRepository,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.produtoService = produtoService;
+        this.categoriaRepository = categoriaRepository;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getProdutoImport();
+        this.importedCounter =
+            Counter
+                .builder("produto.import.rows")
+                .description("Rows of the produto imports")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.rejectedCounter =
+            Counter
+                .builder("produto.import.rows")
+                .description("Rows of the produto imports")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.importTimer = Timer.builder("produto.import").description("Time taken to import a produto file").register(meterRegistry);
+    }
+
+    /**
+     * Imports the produtos of a file.
+     *
+     * @param content the content of the file.
+     * @param format the format of the file.
+     * @return the report of the import, once the whole file is processed, or an {@link InvalidFileException} error if the
+     * file cannot be imported.
+     */
+    public Mono<ProdutoImportJobDTO> importProdutos(Flux<DataBuffer> content, Format format) {
+        return Mono.defer(() -> {
+            Job job = start(format);
+            RowParser parser = format == Format.CSV ? new CsvRowParser() : new NdjsonRowParser();
+            CategoriaCache categorias = new CategoriaCache();
+            return LINE_DECODER
+                .decode(content, STRING_TYPE, null, Collections.emptyMap())
+                .index()
+                .<Row>handle((line, sink) -> {
+                    long number = line.getT1() + 1;
+                    String text = number == 1 ? stripByteOrderMark(line.getT2()) : line.getT2();
+                    if (text.isBlank()) {
+                        return;
+                    }
+                    try {
+                        Row row = parser.parse(number, text);
+                        if (row != null) {
+                            job.read();
+                            sink.next(row);
+                        }
+                    } catch (RejectedRowException e) {
+                        job.read();
+                        reject(job, number, e.getMessage());
+                    } catch (InvalidFileException e) {
+                        sink.error(e);
+                    }
+                })
+                .buffer(properties.getChunkSize())
+                .concatMap(chunk -> upsert(chunk, categorias, job))
+                .then(Mono.fromSupplier(() -> finish(job, null)))
+                .onErrorResume(e -> {
+                    ProdutoImportJobDTO report = finish(job, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    return e instanceof InvalidFileException ? Mono.error(e) : Mono.just(report);
+                })
+                .doOnCancel(() -> finish(job, "Cancelled"));
+        });
+    }
+
+    /**
+     * @param id the id of the import.
+     * @return the progress of the import, if it is running or among the last finished ones.
+     */
+    public synchronized Optional<ProdutoImportJobDTO> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDto);
+    }
+
+    /**
+     * @return the running and last finished imports, most recent first.
+     */
+    public synchronized List<ProdutoImportJobDTO> getJobs() {
+        List<ProdutoImportJobDTO> dtos = jobs.values().stream().map(Job::toDto).collect(Collectors.toList());
+        Collections.reverse(dtos);
+        return dtos;
+    }
+
+    private synchronized Job start(Format format) {
+        Job job = new Job(UUID.randomUUID().toString(), format, properties.getMaxReportedErrors());
+        jobs.put(job.id, job);
+        log.info("Started the produto import {} ({})", job.id, format);
+        return job;
+    }
+
+    private ProdutoImportJobDTO finish(Job job, String failure) {
+        if (!job.finish(failure)) {
+            return job.toDto();
+        }
+        ProdutoImportJobDTO report = job.toDto();
+        importTimer.record(Duration.between(report.getStartedAt(), report.getFinishedAt()));
+        log.info("Finished the produto import {}", report);
+        synchronized (this) {
+            long finished = jobs.values().stream().filter(Job::isFinished).count();
+            for (Iterator<Job> it = jobs.values().iterator(); it.hasNext() && finished > properties.getRetainedJobs();) {
+                if (it.next().isFinished()) {
+                    it.remove();
+                    finished--;
+                }
+            }
+        }
+        return report;
+    }
+
+    private Mono<Void> upsert(List<Row> chunk, CategoriaCache categorias, Job job) {
+        return categorias
+            .load(chunk)
+            .then(
+                Mono.defer(() -> {
+                    List<Row> resolved = new ArrayList<>();
+                    List<ProdutoDTO> produtoDTOs = new ArrayList<>();
+                    for (Row row : chunk) {
+                        Long categoriaId = categorias.resolve(row);
+                        if (categoriaId == null) {
+                            Object categoria = row.categoriaNome != null ? row.categoriaNome : row.categoriaId;
+                            reject(job, row.line, "Unknown categoria: " + categoria);
+                        } else {
+                            resolved.add(row);
+                            produtoDTOs.add(row.toDto(categoriaId));
+                        }
+                    }
+                    if (produtoDTOs.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    return produtoService
+                        .upsertAll(produtoDTOs)
+                        .count()
+                        .doOnNext(imported -> {
+                            job.imported(imported);
+                            importedCounter.increment(imported);
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Could not upsert a chunk of the produto import {}: {}", job.id, e.toString());
+                            String message = "Not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                            resolved.forEach(row -> reject(job, row.line, message));
+                            return Mono.empty();
+                        })
+                        .then();
+                })
+            );
+    }
+
+    private void reject(Job job, long line, String message) {
+        job.reject(line, message);
+        rejectedCounter.increment();
+    }
+
+    // The nome column compares case-insensitively
+    private static String categoriaKey(String nome) {
+        return nome.toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripByteOrderMark(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    /**
+     * A parsed row, not yet validated against the database.
+     */
+    private static final class Row {
+
+        private final long line;
+
+        private Long id;
+
+        private String nome;
+
+        private Integer quantidade;
+
+        private String categoriaNome;
+
+        private Long categoriaId;
+
+        private Row(long line) {
+            this.line = line;
+        }
+
+        private Row validate() throws RejectedRowException {
+            if (nome == null || nome.isBlank()) {
+                throw new RejectedRowException("nome is required");
+            }
+            if (nome.length() > MAX_NOME_LENGTH) {
+                throw new RejectedRowException("nome is longer than " + MAX_NOME_LENGTH + " characters");
+            }
+            if (quantidade == null) {
+                throw new RejectedRowException("quantidade is required");
+            }
+            if (categoriaNome == null && categoriaId == null) {
+                throw new RejectedRowException("categoria is required");
+            }
+            return this;
+        }
+
+        private ProdutoDTO toDto(Long resolvedCategoriaId) {
+            ProdutoDTO produtoDTO = new ProdutoDTO();
+            produtoDTO.setId(id);
+            produtoDTO.setNome(nome);
+            produtoDTO.setQuantidade(quantidade);
+            CategoriaDTO categoriaDTO = new CategoriaDTO();
+            categoriaDTO.setId(resolvedCategoriaId);
+            produtoDTO.setCategoria(categoriaDTO);
+            return produtoDTO;
+        }
+    }
+
+    private static final class RejectedRowException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private RejectedRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private interface RowParser {
+        /**
+         * @return the row, or null if the line is not a row (a header).
+         * @throws RejectedRowException if the row is invalid.
+         * @throws InvalidFileException if the file cannot be imported.
+         */
+        Row parse(long line, String text) throws RejectedRowException;
+    }
+
+    /**
+     * Parses the CSV rows after the header, with RFC 4180 quoting within a line.
+     */
+    static final class CsvRowParser implements RowParser {
+
+        private static final Set<String> COLUMNS = Set.of("id", "nome", "quantidade", "categoria", "categoria_id");
+
+        private char separator;
+
+        private Map<String, Integer> columns;
+
+        @Override
+        public Row parse(long line, String text) throws RejectedRowException {
+            if (columns == null) {
+                separator = text.indexOf(';') >= 0 ? ';' : ',';
+                columns = new HashMap<>();
+                List<String> header = split(text, separator);
+                for (int i = 0; i < header.size(); i++) {
+                    String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                    if (!COLUMNS.contains(column)) {
+                        throw new InvalidFileException("Unknown column in the CSV header: " + header.get(i));
+                    }
+                    columns.put(column, i);
+                }
+                if (!columns.containsKey("nome") || !columns.containsKey("quantidade")) {
+                    throw new InvalidFileException("The CSV header must name the nome and quantidade columns");
+                }
+                if (!columns.containsKey("categoria") && !columns.containsKey("categoria_id")) {
+                    throw new InvalidFileException("The CSV header must name the categoria or categoria_id column");
+                }
+                return null;
+            }
+            List<String> fields = split(text, separator);
+            Row row = new Row(line);
+            row.id = parseLong(field(fields, "id"), "id");
+            row.nome = field(fields, "nome");
+            String quantidade = field(fields, "quantidade");
+            try {
+                row.quantidade = quantidade != null ? Integer.valueOf(quantidade) : null;
+            } catch (NumberFormatException e) {
+                throw new RejectedRowException("quantidade is not an integer: " + quantidade);
+            }
+            row.categoriaNome = field(fields, "categoria");
+            row.categoriaId = parseLong(field(fields, "categoria_id"), "categoria_id");
+            return row.validate();
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static Long parseLong(String value, String column) throws RejectedRowException {
+            try {
+                return value != null ? Long.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw new RejectedRowException(column + " is not an integer: " + value);
+            }
+        }
+
+        static List<String> split(String text, char separator) throws RejectedRowException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new RejectedRowException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * Parses one JSON object per line.
+     */
+    final class NdjsonRowParser implements RowParser {
+
+        @Override
+        public Row parse(long line, String text) throws RejectedRowException {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                throw new RejectedRowException("Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new RejectedRowException("Not a JSON object");
+            }
+            Row row = new Row(line);
+            row.id = longValue(node.get("id"), "id");
+            JsonNode nome = node.get("nome");
+            row.nome = nome != null && nome.isTextual() ? nome.textValue() : null;
+            JsonNode quantidade = node.get("quantidade");
+            if (quantidade != null && !quantidade.isNull() && !quantidade.isInt()) {
+                throw new RejectedRowException("quantidade is not an integer: " + quantidade);
+            }
+            row.quantidade = quantidade != null && quantidade.isInt() ? quantidade.intValue() : null;
+            JsonNode categoria = node.get("categoria");
+            if (categoria != null && categoria.isTextual()) {
+                row.categoriaNome = categoria.textValue();
+            } else if (categoria != null && categoria.isObject()) {
+                row.categoriaId = longValue(categoria.get("id"), "categoria.id");
+                if (row.categoriaId == null && categoria.path("nome").isTextual()) {
+                    row.categoriaNome = categoria.get("nome").textValue();
+                }
+            }
+            if (row.categoriaId == null && row.categoriaNome == null) {
+                row.categoriaId = longValue(node.get("categoriaId"), "categoriaId");
+            }
+            return row.validate();
+        }
+
+        private Long longValue(JsonNode node, String field) throws RejectedRowException {
+            if (node == null || node.isNull()) {
+                return null;
+            }
+            if (!node.canConvertToLong() || !node.isIntegralNumber()) {
+                throw new RejectedRowException(field + " is not an integer: " + node);
+            }
+            return node.longValue();
+        }
+    }
+
+    /**
+     * The categorias of a job, by lower-cased name and by id, loaded once per chunk for the rows not seen yet.
+     */
+    private final class CategoriaCache {
+
+        private final Map<String, Long> idsByNome = new HashMap<>();
+
+        private final Set<String> unknownNomes = new HashSet<>();
+
+        private final Set<Long> knownIds = new HashSet<>();
+
+        private final Set<Long> unknownIds = new HashSet<>();
+
+        private Mono<Void> load(List<Row> rows) {
+            Set<String> nomes = new HashSet<>();
+            Set<Long> ids = new HashSet<>();
+            for (Row row : rows) {
+                if (row.categoriaId != null) {
+                    if (!knownIds.contains(row.categoriaId) && !unknownIds.contains(row.categoriaId)) {
+                        ids.add(row.categoriaId);
+                    }
+                } else {
+                    String key = categoriaKey(row.categoriaNome);
+                    if (!idsByNome.containsKey(key) && !unknownNomes.contains(key)) {
+                        nomes.add(row.categoriaNome);
+                    }
+                }
+            }
+            Mono<Void> byNome = nomes.isEmpty()
+                ? Mono.empty()
+                : categoriaRepository
+                    .findByNomeIn(nomes)
+                    .doOnNext(this::put)
+                    .then(
+                        Mono.fromRunnable(() ->
+                            nomes
+                                .stream()
+                                .map(ProdutoImportService::categoriaKey)
+                                .filter(key -> !idsByNome.containsKey(key))
+                                .forEach(unknownNomes::add)
+                        )
+                    );
+            Mono<Void> byId = ids.isEmpty()
+                ? Mono.empty()
+                : categoriaRepository
+                    .findAllById(ids)
+                    .doOnNext(this::put)
+                    .then(Mono.fromRunnable(() -> ids.stream().filter(id -> !knownIds.contains(id)).forEach(unknownIds::add)));
+            return byNome.then(byId);
+        }
+
+        private Long resolve(Row row) {
+            if (row.categoriaId != null) {
+                return knownIds.contains(row.categoriaId) ? row.categoriaId : null;
+            }
+            return idsByNome.get(categoriaKey(row.categoriaNome));
+        }
+
+        private void put(Categoria categoria) {
+            idsByNome.put(categoriaKey(categoria.getNome()), categoria.getId());
+            knownIds.add(categoria.getId());
+        }
+    }
+
+    /**
+     * The mutable state of an import, snapshotted into a {@link ProdutoImportJobDTO}.
+     */
+    private static final class Job {
+
+        private final String id;
+
+        private final Format format;
+
+        private final int maxReportedErrors;
+
+        private final Instant startedAt = Instant.now();
+
+        private final long startNanos = System.nanoTime();
+
+        private final List<ProdutoImportErrorDTO> errors = new ArrayList<>();
+
+        private long rowsRead;
+
+        private long rowsImported;
+
+        private long rowsRejected;
+
+        private Instant finishedAt;
+
+        private long finishNanos;
+
+        private String failure;
+
+        private Job(String id, Format format, int maxReportedErrors) {
+            this.id = id;
+            this.format = format;
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private synchronized void read() {
+            rowsRead++;
+        }
+
+        private synchronized void imported(long rows) {
+            rowsImported += rows;
+        }
+
+        private synchronized void reject(long line, String message) {
+            rowsRejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProdutoImportErrorDTO(line, message));
+            }
+        }
+
+        /**
+         * @return false if the job was already finished.
+         */
+        private synchronized boolean finish(String failure) {
+            if (finishedAt != null) {
+                return false;
+            }
+            this.finishedAt = Instant.now();
+            this.finishNanos = System.nanoTime();
+            this.failure = failure;
+            return true;
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private synchronized ProdutoImportJobDTO toDto() {
+            ProdutoImportJobDTO dto = new ProdutoImportJobDTO();
+            dto.setId(id);
+            dto.setFormat(format.name());
+            if (finishedAt == null) {
+                dto.setStatus(ProdutoImportJobDTO.Status.RUNNING);
+            } else {
+                dto.setStatus(failure == null ? ProdutoImportJobDTO.Status.COMPLETED : ProdutoImportJobDTO.Status.FAILED);
+            }
+            dto.setRowsRead(rowsRead);
+            dto.setRowsImported(rowsImported);
+            dto.setRowsRejected(rowsRejected);
+            long elapsedNanos = (finishedAt != null ? finishNanos : System.nanoTime()) - startNanos;
+            dto.setRowsPerSecond(elapsedNanos > 0 ? rowsRead * 1e9 / elapsedNanos : 0);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setFailure(failure);
+            dto.setErrors(new ArrayList<>(errors));
+            return dto;
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package br.com.join.service;
 
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.CategoriaEstoque;
 import br.com.join.domain.Produto;
+import br.com.join.domain.criteria.ProdutoCriteria;
 import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.EntityChangeDTO;
 import br.com.join.service.dto.ProdutoDTO;
 import br.com.join.service.mapper.ProdutoMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -21,13 +33,64 @@ public class ProdutoService {
 
     private final Logger log = LoggerFactory.getLogger(ProdutoService.class);
 
+    static final String ENTITY_NAME = "produto";
+
+    // The cached results are read from the produtos joined with their categoria
+    private static final List<String> CACHED_ENTITIES = List.of(ENTITY_NAME, CategoriaService.ENTITY_NAME);
+
     private final ProdutoRepository produtoRepository;
 
     private final ProdutoMapper produtoMapper;
 
-    public ProdutoService(ProdutoRepository produtoRepository, ProdutoMapper produtoMapper) {
+    private final ProdutoSuggestionIndex produtoSuggestionIndex;
+
+    private final CategoriaEstoqueAggregate categoriaEstoqueAggregate;
+
+    private final ProdutoEstoqueBaixoWatchlist produtoEstoqueBaixoWatchlist;
+
+    private final EntityChangeFeed entityChangeFeed;
+
+    private final OutboxService outboxService;
+
+    private final QueryResultCache queryResultCache;
+
+    private final ProdutoIdFilter produtoIdFilter;
+
+    private final BatchLoader<Long, Produto> produtoLoader;
+
+    private final int batchMaxSize;
+
+    public ProdutoService(
+        ProdutoRepository produtoRepository,
+        ProdutoMapper produtoMapper,
+        ProdutoSuggestionIndex produtoSuggestionIndex,
+        CategoriaEstoqueAggregate categoriaEstoqueAggregate,
+        ProdutoEstoqueBaixoWatchlist produtoEstoqueBaixoWatchlist,
+        EntityChangeFeed entityChangeFeed,
+        OutboxService outboxService,
+        QueryResultCache queryResultCache,
+        ProdutoIdFilter produtoIdFilter,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.produtoRepository = produtoRepository;
         this.produtoMapper = produtoMapper;
+        this.produtoSuggestionIndex = produtoSuggestionIndex;
+        this.categoriaEstoqueAggregate = categoriaEstoqueAggregate;
+        this.produtoEstoqueBaixoWatchlist = produtoEstoqueBaixoWatchlist;
+        this.entityChangeFeed = entityChangeFeed;
+        this.outboxService = outboxService;
+        this.queryResultCache = queryResultCache;
+        this.produtoIdFilter = produtoIdFilter;
+        this.produtoLoader =
+            new BatchLoader<>(
+                ENTITY_NAME,
+                produtoRepository::findAllById,
+                Produto::getId,
+                applicationProperties.getBatching(),
+                meterRegistry
+            );
+        this.batchMaxSize = applicationProperties.getBatching().getMaxSize();
     }
 
     /**
@@ -38,38 +101,113 @@ public class ProdutoService {
      */
     public Mono<ProdutoDTO> save(ProdutoDTO produtoDTO) {
         log.debug("Request to save Produto : {}", produtoDTO);
-        return produtoRepository.save(produtoMapper.toEntity(produtoDTO)).map(produtoMapper::toDto);
+        return produtoRepository
+            .save(produtoMapper.toEntity(produtoDTO))
+            .flatMap(saved ->
+                categoriaEstoqueAggregate.addOnCommit(saved).then(produtoEstoqueBaixoWatchlist.updateOnCommit(saved)).thenReturn(saved)
+            )
+            .map(produtoMapper::toDto)
+            .flatMap(result ->
+                index(result).then(produtoIdFilter.addOnCommit(result.getId())).then(publish(EntityChangeDTO.Operation.CREATED, result))
+            );
     }
 
     /**
      * Update a produto.
+     * <p>
+     * The previous state is read with {@code SELECT ... FOR UPDATE} before the {@code UPDATE}, as it gives the stock
+     * delta of the categorias: MariaDB cannot return it from the update itself.
      *
      * @param produtoDTO the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if there is none with this id.
      */
     public Mono<ProdutoDTO> update(ProdutoDTO produtoDTO) {
         log.debug("Request to update Produto : {}", produtoDTO);
-        return produtoRepository.save(produtoMapper.toEntity(produtoDTO)).map(produtoMapper::toDto);
+        Produto produto = produtoMapper.toEntity(produtoDTO);
+        // The previous state gives the stock delta, locked so that no concurrent update slips in between
+        return produtoRepository
+            .findByIdForUpdate(produto.getId())
+            .map(CategoriaEstoque::of)
+            .flatMap(before ->
+                produtoRepository
+                    .update(produto)
+                    .filter(updated -> updated > 0)
+                    .map(updated -> produto)
+                    .flatMap(after ->
+                        categoriaEstoqueAggregate
+                            .replaceOnCommit(before, after)
+                            .then(produtoEstoqueBaixoWatchlist.updateOnCommit(after))
+                            .thenReturn(after)
+                    )
+            )
+            .map(produtoMapper::toDto)
+            .flatMap(result -> index(result).then(publish(EntityChangeDTO.Operation.UPDATED, result)));
     }
 
     /**
      * Partially update a produto.
      *
      * @param produtoDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if there is none with this id.
      */
     public Mono<ProdutoDTO> partialUpdate(ProdutoDTO produtoDTO) {
         log.debug("Request to partially update Produto : {}", produtoDTO);
 
         return produtoRepository
-            .findById(produtoDTO.getId())
-            .map(existingProduto -> {
+            .findByIdForUpdate(produtoDTO.getId())
+            .flatMap(existingProduto -> {
+                Produto previous = copyOf(existingProduto);
                 produtoMapper.partialUpdate(existingProduto, produtoDTO);
+                ProdutoDTO result = produtoMapper.toDto(existingProduto);
 
-                return existingProduto;
-            })
-            .flatMap(produtoRepository::save)
-            .map(produtoMapper::toDto);
+                // A patch which changes nothing is neither written nor published
+                return produtoRepository
+                    .updateChanges(existingProduto, previous)
+                    .filter(updated -> updated > 0)
+                    .flatMap(updated ->
+                        categoriaEstoqueAggregate
+                            .replaceOnCommit(CategoriaEstoque.of(previous), existingProduto)
+                            .then(produtoEstoqueBaixoWatchlist.updateOnCommit(existingProduto))
+                            .then(index(result))
+                            .then(publish(EntityChangeDTO.Operation.UPDATED, result))
+                    )
+                    .defaultIfEmpty(result);
+            });
+    }
+
+    /**
+     * Upsert a chunk of produtos: those without an id are created, the others are updated (or created with their id).
+     *
+     * @param produtoDTOs the entities to save.
+     * @return the persisted entities, in order.
+     */
+    public Flux<ProdutoDTO> upsertAll(List<ProdutoDTO> produtoDTOs) {
+        log.debug("Request to upsert {} Produtos", produtoDTOs.size());
+        List<Produto> produtos = produtoMapper.toEntity(produtoDTOs);
+        List<Long> ids = produtos.stream().map(Produto::getId).filter(Objects::nonNull).collect(Collectors.toList());
+        // The previous states give the stock deltas
+        return produtoRepository
+            .findAllById(ids)
+            .collectMap(Produto::getId, CategoriaEstoque::of)
+            .flatMapMany(before ->
+                produtoRepository
+                    .upsertAll(produtos)
+                    .concatMap(after -> {
+                        Mono<Void> estoque = before.containsKey(after.getId())
+                            ? categoriaEstoqueAggregate.replaceOnCommit(before.get(after.getId()), after)
+                            : categoriaEstoqueAggregate.addOnCommit(after);
+                        return estoque.then(produtoEstoqueBaixoWatchlist.updateOnCommit(after)).thenReturn(after);
+                    })
+                    .map(produtoMapper::toDto)
+                    .concatMap(result -> {
+                        if (before.containsKey(result.getId())) {
+                            return index(result).then(publish(EntityChangeDTO.Operation.UPDATED, result));
+                        }
+                        return index(result)
+                            .then(produtoIdFilter.addOnCommit(result.getId()))
+                            .then(publish(EntityChangeDTO.Operation.CREATED, result));
+                    })
+            );
     }
 
     /**
@@ -78,10 +216,10 @@ public class ProdutoService {
      * @param pageable the pagination information.
      * @return the list of entities.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Flux<ProdutoDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Produtos");
-        return produtoRepository.findAllBy(pageable).map(produtoMapper::toDto);
+        return cachedList(Arrays.asList("findAll", pageable), produtoRepository.findAllBy(pageable));
     }
 
     /**
@@ -93,13 +231,79 @@ public class ProdutoService {
         return produtoRepository.findAllWithEagerRelationships(pageable).map(produtoMapper::toDto);
     }
 
+    /**
+     * Find produtos by criteria.
+     *
+     * @param criteria the filtering criteria.
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Flux<ProdutoDTO> findByCriteria(ProdutoCriteria criteria, Pageable pageable) {
+        log.debug("Request to get all Produtos by Criteria : {}", criteria);
+        List<Object> key = Arrays.asList("findByCriteria", copyOf(criteria), pageable);
+        return cachedList(key, produtoRepository.findByCriteria(criteria, pageable));
+    }
+
+    /**
+     * Returns the produtos matching the criteria, with only the given fields loaded.
+     *
+     * @param criteria the filtering criteria.
+     * @param pageable the pagination information.
+     * @param fields the fields to load, the id being always loaded.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProdutoDTO> findByCriteria(ProdutoCriteria criteria, Pageable pageable, Set<String> fields) {
+        log.debug("Request to get the fields {} of all Produtos by Criteria : {}", fields, criteria);
+        return produtoRepository.findByCriteria(criteria, pageable, fields).map(produtoMapper::toDto);
+    }
+
+    /**
+     * Returns the number of produtos matching the criteria.
+     *
+     * @param criteria the filtering criteria.
+     * @return the number of matching entities in the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Mono<Long> countByCriteria(ProdutoCriteria criteria) {
+        List<Object> key = Arrays.asList("countByCriteria", copyOf(criteria));
+        return queryResultCache.get(CACHED_ENTITIES, key, produtoRepository.countByCriteria(criteria));
+    }
+
     /**
      * Returns the number of produtos available.
      * @return the number of entities in the database.
      *
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Mono<Long> countAll() {
-        return produtoRepository.count();
+        return queryResultCache.get(CACHED_ENTITIES, List.of("countAll"), produtoRepository.count());
+    }
+
+    /**
+     * Search the produtos by name, narrowed by the optional filters.
+     *
+     * @param query the free-text query on the name, may be {@code null}.
+     * @param categoriaId the categoria to filter on, may be {@code null}.
+     * @param minQuantidade the minimum quantidade (inclusive), may be {@code null}.
+     * @param maxQuantidade the maximum quantidade (inclusive), may be {@code null}.
+     * @param pageable the pagination information.
+     * @return the list of entities, by relevance unless the pageable is sorted.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProdutoDTO> search(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade, Pageable pageable) {
+        log.debug("Request to search Produtos : {}", query);
+        return produtoRepository.search(query, categoriaId, minQuantidade, maxQuantidade, pageable).map(produtoMapper::toDto);
+    }
+
+    /**
+     * Returns the number of produtos matching a search.
+     * @return the number of matching entities in the database.
+     */
+    @Transactional(readOnly = true)
+    public Mono<Long> countSearch(String query, Long categoriaId, Integer minQuantidade, Integer maxQuantidade) {
+        return produtoRepository.countSearch(query, categoriaId, minQuantidade, maxQuantidade);
     }
 
     /**
@@ -108,10 +312,36 @@ public class ProdutoService {
      * @param id the id of the entity.
      * @return the entity.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Mono<ProdutoDTO> findOne(Long id) {
         log.debug("Request to get Produto : {}", id);
-        return produtoRepository.findOneWithEagerRelationships(id).map(produtoMapper::toDto);
+        if (!produtoIdFilter.mightExist(id)) {
+            return Mono.empty();
+        }
+        // Coalesced with the concurrent loads into one query, so no transaction holding a connection of its own
+        return produtoLoader
+            .load(id)
+            .switchIfEmpty(Mono.fromRunnable(() -> produtoIdFilter.recordMiss(id)))
+            .map(produtoMapper::toDto);
+    }
+
+    /**
+     * Get the produtos with the given ids.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities found, in the order of their ids.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProdutoDTO> findAllById(List<Long> ids) {
+        log.debug("Request to get Produtos : {}", ids);
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        return Flux
+            .fromIterable(distinctIds)
+            .buffer(batchMaxSize)
+            .concatMap(produtoRepository::findAllById)
+            .collectMap(Produto::getId)
+            .flatMapIterable(found -> distinctIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList()))
+            .map(produtoMapper::toDto);
     }
 
     /**
@@ -122,6 +352,48 @@ public class ProdutoService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete Produto : {}", id);
-        return produtoRepository.deleteById(id);
+        return produtoRepository
+            .findById(id)
+            .flatMap(before ->
+                produtoRepository
+                    .deleteById(id)
+                    .then(produtoSuggestionIndex.removeOnCommit(id))
+                    .then(categoriaEstoqueAggregate.removeOnCommit(CategoriaEstoque.of(before)))
+                    .then(produtoEstoqueBaixoWatchlist.removeOnCommit(id))
+                    .then(produtoRepository.insertTombstone(id))
+                    .then(publish(EntityChangeDTO.Operation.DELETED, id, null))
+            );
+    }
+
+    // The DTOs of a cached page are shared by all its readers, and must never be modified
+    private Flux<ProdutoDTO> cachedList(List<Object> key, Flux<Produto> produtos) {
+        Mono<List<ProdutoDTO>> page = produtos.map(produtoMapper::toDto).collectList().map(List::copyOf);
+        return queryResultCache.get(CACHED_ENTITIES, key, page).flatMapIterable(Function.identity());
+    }
+
+    private static ProdutoCriteria copyOf(ProdutoCriteria criteria) {
+        return criteria != null ? criteria.copy() : null;
+    }
+
+    private static Produto copyOf(Produto produto) {
+        Produto copy = new Produto().id(produto.getId()).nome(produto.getNome()).quantidade(produto.getQuantidade());
+        copy.setCategoriaId(produto.getCategoriaId());
+        return copy;
+    }
+
+    private Mono<ProdutoDTO> publish(EntityChangeDTO.Operation operation, ProdutoDTO produtoDTO) {
+        return publish(operation, produtoDTO.getId(), produtoDTO).thenReturn(produtoDTO);
+    }
+
+    private Mono<Void> publish(EntityChangeDTO.Operation operation, Long id, ProdutoDTO produtoDTO) {
+        // Written to the outbox in the transaction of the change, while the feed only gets it once committed
+        return outboxService
+            .append(ENTITY_NAME, operation, id, produtoDTO)
+            .then(entityChangeFeed.publishOnCommit(ENTITY_NAME, operation, id, produtoDTO))
+            .then(queryResultCache.invalidateOnCommit(ENTITY_NAME));
+    }
+
+    private Mono<Void> index(ProdutoDTO produtoDTO) {
+        return produtoSuggestionIndex.putOnCommit(produtoDTO.getId(), produtoDTO.getNome());
     }
 }
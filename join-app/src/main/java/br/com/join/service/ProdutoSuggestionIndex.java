@@ -0,0 +1,446 @@
+package br.com.join.service;
+
+import br.com.join.domain.Produto;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoSuggestionDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory typeahead index over {@link Produto#getNome()}.
+ * <p>
+ * The words of each name are lower-cased, stripped of their accents and stored in a character trie whose nodes hold
+ * the ordinals of the matching produtos in primitive {@code int} arrays. The index is loaded with a streaming scan once
+ * the application is ready and kept up to date by the {@link ProdutoService} writes once they commit, so suggestions
+ * never touch the database.
+ */
+@Service
+public class ProdutoSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoSuggestionIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Rough per-object costs on a 64-bit JVM with compressed references, for the memory gauge
+    private static final int OBJECT_BYTES = 16;
+    private static final int ARRAY_BYTES = 16;
+    private static final int NODE_BYTES = 32;
+
+    private final ProdutoRepository produtoRepository;
+
+    private final Timer rebuildTimer;
+
+    // Guarded by this
+    private Index index = new Index();
+
+    // Writes received while a rebuild is scanning, replayed on the rebuilt index; null when not rebuilding
+    private List<Consumer<Index>> pendingWrites;
+
+    // Estimate of the index in use, set by each write so that the gauge reads it without the lock
+    private final AtomicLong estimatedMemory = new AtomicLong(new Index().estimatedMemory());
+
+    public ProdutoSuggestionIndex(ProdutoRepository produtoRepository, MeterRegistry meterRegistry) {
+        this.produtoRepository = produtoRepository;
+        this.rebuildTimer =
+            Timer
+                .builder("produto.suggest.index.rebuild")
+                .description("Time taken to rebuild the produto suggestion index")
+                .register(meterRegistry);
+        Gauge
+            .builder("produto.suggest.index.size", this, ProdutoSuggestionIndex::size)
+            .description("Number of produtos in the suggestion index")
+            .register(meterRegistry);
+        Gauge
+            .builder("produto.suggest.index.memory", estimatedMemory, AtomicLong::get)
+            .description("Estimated heap used by the produto suggestion index")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild().subscribe(null, e -> log.error("Could not build the produto suggestion index", e));
+    }
+
+    /**
+     * Rebuilds the index from the database. Suggestions are answered from the previous index until the scan completes.
+     *
+     * @return a Mono completing once the rebuilt index is in use.
+     */
+    public Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (pendingWrites != null) {
+                    log.debug("Produto suggestion index rebuild already in progress");
+                    return Mono.empty();
+                }
+                pendingWrites = new ArrayList<>();
+            }
+            long start = System.nanoTime();
+            Index rebuilt = new Index();
+            return produtoRepository
+                .findAllNomes()
+                .doOnNext(produto -> rebuilt.put(produto.getId(), produto.getNome()))
+                .then(
+                    Mono.fromRunnable(() -> {
+                        synchronized (this) {
+                            pendingWrites.forEach(write -> write.accept(rebuilt));
+                            pendingWrites = null;
+                            index = rebuilt;
+                            estimatedMemory.set(rebuilt.estimatedMemory());
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                        log.info("Built the produto suggestion index: {} produtos in {} ms", rebuilt.size, elapsed / 1_000_000);
+                    })
+                )
+                .doOnError(e -> {
+                    synchronized (this) {
+                        pendingWrites = null;
+                    }
+                })
+                .then();
+        });
+    }
+
+    /**
+     * Adds a produto to the index, or replaces its name, once the current transaction, if any, commits.
+     *
+     * @param id the id of the produto.
+     * @param nome the name of the produto.
+     * @return a Mono completing once the change is registered.
+     */
+    public Mono<Void> putOnCommit(Long id, String nome) {
+        return TransactionCallbacks.afterCommit(() -> put(id, nome));
+    }
+
+    /**
+     * Removes a produto from the index once the current transaction, if any, commits.
+     *
+     * @param id the id of the produto.
+     * @return a Mono completing once the change is registered.
+     */
+    public Mono<Void> removeOnCommit(Long id) {
+        return TransactionCallbacks.afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Adds a produto to the index, or replaces its name.
+     */
+    synchronized void put(Long id, String nome) {
+        index.put(id, nome);
+        estimatedMemory.set(index.estimatedMemory());
+        if (pendingWrites != null) {
+            pendingWrites.add(rebuilt -> rebuilt.put(id, nome));
+        }
+    }
+
+    /**
+     * Removes a produto from the index.
+     */
+    synchronized void remove(Long id) {
+        index.remove(id);
+        estimatedMemory.set(index.estimatedMemory());
+        if (pendingWrites != null) {
+            pendingWrites.add(rebuilt -> rebuilt.remove(id));
+        }
+    }
+
+    /**
+     * Suggests the produtos having a word starting with each word of the prefix, the last word being matched first and
+     * in alphabetical order.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions.
+     */
+    public synchronized List<ProdutoSuggestionDTO> suggest(String prefix, int size) {
+        return index.suggest(tokenize(prefix), size);
+    }
+
+    synchronized int size() {
+        return index.size;
+    }
+
+    long estimatedMemory() {
+        return estimatedMemory.get();
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * The trie and the produto table, indexed by ordinal. Not thread-safe.
+     * <p>
+     * Nodes left empty by removals are kept until the next rebuild.
+     */
+    static final class Index {
+
+        private final Node root = new Node();
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+
+        private long[] ids = new long[16];
+
+        private String[] names = new String[16];
+
+        private String[][] tokens = new String[16][];
+
+        private int[] freeOrdinals = new int[16];
+
+        private int freeCount;
+
+        private int ordinalCount;
+
+        private int size;
+
+        private long nodeCount = 1;
+
+        private long nameBytes;
+
+        // Arrays of all the nodes, kept as they grow so that the estimate does not walk the trie
+        private long nodeArrayBytes;
+
+        void put(Long id, String nome) {
+            remove(id);
+            String[] nameTokens = tokenize(nome);
+            if (nameTokens.length == 0) {
+                return;
+            }
+            int ordinal = allocateOrdinal();
+            ids[ordinal] = id;
+            names[ordinal] = nome;
+            tokens[ordinal] = nameTokens;
+            ordinals.put(id, ordinal);
+            size++;
+            nameBytes += stringBytes(nome);
+            for (String token : nameTokens) {
+                nameBytes += stringBytes(token);
+                Node node = root;
+                for (int i = 0; i < token.length(); i++) {
+                    node = getOrCreateChild(node, token.charAt(i));
+                }
+                long before = node.estimatedArrayBytes();
+                node.addPosting(ordinal);
+                nodeArrayBytes += node.estimatedArrayBytes() - before;
+            }
+        }
+
+        void remove(Long id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            nameBytes -= stringBytes(names[ordinal]);
+            for (String token : tokens[ordinal]) {
+                nameBytes -= stringBytes(token);
+                find(token).removePosting(ordinal);
+            }
+            names[ordinal] = null;
+            tokens[ordinal] = null;
+            size--;
+            if (freeCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            }
+            freeOrdinals[freeCount++] = ordinal;
+        }
+
+        List<ProdutoSuggestionDTO> suggest(String[] query, int limit) {
+            if (query.length == 0 || limit <= 0) {
+                return Collections.emptyList();
+            }
+            Node node = find(query[query.length - 1]);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            int[] found = new int[limit];
+            int count = collect(node, query, found, 0);
+            List<ProdutoSuggestionDTO> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(new ProdutoSuggestionDTO(ids[found[i]], names[found[i]]));
+            }
+            return suggestions;
+        }
+
+        long estimatedMemory() {
+            long bytes = nodeCount * NODE_BYTES + nodeArrayBytes;
+            bytes += ARRAY_BYTES * 4L + ids.length * 8L + names.length * 4L + tokens.length * 4L + freeOrdinals.length * 4L;
+            bytes += size * (ARRAY_BYTES + 2L * OBJECT_BYTES) + nameBytes;
+            return bytes;
+        }
+
+        private int collect(Node node, String[] query, int[] found, int count) {
+            for (int i = 0; i < node.postingCount && count < found.length; i++) {
+                int ordinal = node.postings[i];
+                if (!contains(found, count, ordinal) && matchesOtherWords(ordinal, query)) {
+                    found[count++] = ordinal;
+                }
+            }
+            for (int i = 0; i < node.childCount && count < found.length; i++) {
+                count = collect(node.children[i], query, found, count);
+            }
+            return count;
+        }
+
+        private boolean matchesOtherWords(int ordinal, String[] query) {
+            for (int i = 0; i < query.length - 1; i++) {
+                boolean matched = false;
+                for (String token : tokens[ordinal]) {
+                    if (token.startsWith(query[i])) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Node find(String token) {
+            Node node = root;
+            for (int i = 0; i < token.length() && node != null; i++) {
+                node = node.child(token.charAt(i));
+            }
+            return node;
+        }
+
+        private Node getOrCreateChild(Node node, char c) {
+            Node child = node.child(c);
+            if (child == null) {
+                long before = node.estimatedArrayBytes();
+                child = node.addChild(c);
+                nodeArrayBytes += node.estimatedArrayBytes() - before;
+                nodeCount++;
+            }
+            return child;
+        }
+
+        private int allocateOrdinal() {
+            if (freeCount > 0) {
+                return freeOrdinals[--freeCount];
+            }
+            if (ordinalCount == ids.length) {
+                int capacity = ordinalCount * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                tokens = Arrays.copyOf(tokens, capacity);
+            }
+            return ordinalCount++;
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static long stringBytes(String value) {
+            return OBJECT_BYTES + ARRAY_BYTES + value.length();
+        }
+    }
+
+    /**
+     * A trie node: children sorted by label for binary search and ordered traversal, and the ordinals of the produtos
+     * having a word ending here.
+     */
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_POSTINGS = new int[0];
+
+        private char[] labels = NO_LABELS;
+
+        private Node[] children = NO_CHILDREN;
+
+        private int childCount;
+
+        private int[] postings = NO_POSTINGS;
+
+        private int postingCount;
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node addChild(char c) {
+            int i = -Arrays.binarySearch(labels, 0, childCount, c) - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, i, labels, i + 1, childCount - i);
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            Node child = new Node();
+            labels[i] = c;
+            children[i] = child;
+            childCount++;
+            return child;
+        }
+
+        private void addPosting(int ordinal) {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(2, postingCount * 2));
+            }
+            postings[postingCount++] = ordinal;
+        }
+
+        private void removePosting(int ordinal) {
+            for (int i = 0; i < postingCount; i++) {
+                if (postings[i] == ordinal) {
+                    System.arraycopy(postings, i + 1, postings, i, postingCount - i - 1);
+                    postingCount--;
+                    return;
+                }
+            }
+        }
+
+        // Of this node only; the arrays are never shrunk
+        private long estimatedArrayBytes() {
+            long bytes = labels.length == 0 ? 0 : 2L * ARRAY_BYTES + labels.length * 6L;
+            bytes += postings.length == 0 ? 0 : ARRAY_BYTES + postings.length * 4L;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Short-lived cache of query results, such as the pages of the entity lists and their counts.
+ * <p>
+ * Each entity has a generation, bumped once a write made through its service commits. The keys hold the generations
+ * of the entities a result was read from, so a write invalidates all the results of its entity at once, without any
+ * key being looked for: they are no longer reached and age out. The cache is bounded by the size of the results once
+ * serialized, and the results of the writes made outside of this instance live until their time to live.
+ */
+@Service
+public class QueryResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryResultCache.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Cache<List<Object>, CachedResult> results;
+
+    public QueryResultCache(ObjectMapper objectMapper, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.ResultCache properties = applicationProperties.getResultCache();
+        this.objectMapper = objectMapper;
+        this.enabled = !properties.getTimeToLive().isZero();
+        this.results =
+            Caffeine
+                .newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((List<Object> key, CachedResult result) -> result.size)
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "queryResults");
+    }
+
+    /**
+     * Gets a result from the cache, or loads it into the cache.
+     *
+     * @param entities the entities the result is read from.
+     * @param key what identifies the result for these entities, such as the query parameters; made of immutable values.
+     * @param loader loads the result, which should be unmodifiable.
+     * @param <T> the type of the result.
+     * @return the cached result, or the one loaded: the same instance is returned to every caller until it is
+     * invalidated, so neither it nor the objects it holds, such as DTOs, may be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(Collection<String> entities, List<Object> key, Mono<T> loader) {
+        if (!enabled) {
+            return loader;
+        }
+        return Mono.defer(() -> {
+            List<Object> generationKey = generationKey(entities, key);
+            CachedResult cached = results.getIfPresent(generationKey);
+            if (cached != null) {
+                return Mono.just((T) cached.value);
+            }
+            return loader.doOnNext(value -> {
+                // Results read while a write committed are left out, as they may predate it
+                if (generationKey.equals(generationKey(entities, key))) {
+                    put(generationKey, value);
+                }
+            });
+        });
+    }
+
+    /**
+     * Invalidates the results read from an entity once the current transaction, if any, commits.
+     *
+     * @param entity the entity written.
+     * @return a Mono completing once the invalidation is registered.
+     */
+    public Mono<Void> invalidateOnCommit(String entity) {
+        return TransactionCallbacks.afterCommit(() -> {
+            generation(entity).incrementAndGet();
+            generation.incrementAndGet();
+        });
+    }
+
+    /**
+     * Gets the generation of all the entities, bumped by each write committed through their services, for the caches
+     * of results read from any of them.
+     *
+     * @return the generation.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    private List<Object> generationKey(Collection<String> entities, List<Object> key) {
+        List<Object> generationKey = new ArrayList<>(entities.size() + key.size());
+        entities.forEach(entity -> generationKey.add(generation(entity).get()));
+        generationKey.addAll(key);
+        return generationKey;
+    }
+
+    private AtomicLong generation(String entity) {
+        return generations.computeIfAbsent(entity, name -> new AtomicLong());
+    }
+
+    private void put(List<Object> key, Object value) {
+        try {
+            results.put(key, new CachedResult(value, objectMapper.writeValueAsBytes(value).length));
+        } catch (JsonProcessingException e) {
+            log.debug("Could not weigh the query result for {}, not caching it", key, e);
+        }
+    }
+
+    private static final class CachedResult {
+
+        private final Object value;
+
+        private final int size;
+
+        private CachedResult(Object value, int size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.join.service;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Actions deferred until the reactive transaction of the caller commits.
+ */
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Runs an action once the current transaction, if any, commits; it is not run if the transaction rolls back.
+     *
+     * @param action the action, run at once when there is no transaction.
+     * @return a Mono completing once the action is registered, or run.
+     */
+    static Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager
+            .forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    }
+                )
+            )
+            .switchIfEmpty(Mono.fromRunnable(action))
+            .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(action))
+            .then();
+    }
+}
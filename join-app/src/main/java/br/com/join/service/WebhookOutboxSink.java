@@ -0,0 +1,47 @@
+package br.com.join.service;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.dto.OutboxEventDTO;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link OutboxSink} posting each batch of events as a JSON array to {@code application.outbox.webhook-url}.
+ * <p>
+ * Any response other than a 2xx, or none within {@code application.outbox.webhook-timeout}, fails the delivery.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox", name = "webhook-url")
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final WebClient webClient;
+
+    private final Duration timeout;
+
+    public WebhookOutboxSink(WebClient.Builder webClientBuilder, ApplicationProperties applicationProperties) {
+        this.webClient = webClientBuilder.baseUrl(applicationProperties.getOutbox().getWebhookUrl()).build();
+        this.timeout = applicationProperties.getOutbox().getWebhookTimeout();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public Mono<Void> deliver(List<OutboxEventDTO> events) {
+        return webClient
+            .post()
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(events)
+            .retrieve()
+            .toBodilessEntity()
+            .timeout(timeout)
+            .then();
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the stock of a {@link br.com.join.domain.Categoria}.
+ */
+public class CategoriaEstoqueDTO implements Serializable {
+
+    private Long categoriaId;
+
+    private long produtos;
+
+    private long quantidade;
+
+    public CategoriaEstoqueDTO() {}
+
+    public CategoriaEstoqueDTO(Long categoriaId, long produtos, long quantidade) {
+        this.categoriaId = categoriaId;
+        this.produtos = produtos;
+        this.quantidade = quantidade;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public long getProdutos() {
+        return produtos;
+    }
+
+    public void setProdutos(long produtos) {
+        this.produtos = produtos;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CategoriaEstoqueDTO)) {
+            return false;
+        }
+
+        CategoriaEstoqueDTO categoriaEstoqueDTO = (CategoriaEstoqueDTO) o;
+        if (this.categoriaId == null) {
+            return false;
+        }
+        return Objects.equals(this.categoriaId, categoriaEstoqueDTO.categoriaId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.categoriaId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CategoriaEstoqueDTO{" +
+            "categoriaId=" + getCategoriaId() +
+            ", produtos=" + getProdutos() +
+            ", quantidade=" + getQuantidade() +
+            "}";
+    }
+}
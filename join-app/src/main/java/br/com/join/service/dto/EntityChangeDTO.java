@@ -0,0 +1,122 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A committed change of an entity, as published by the {@link br.com.join.service.EntityChangeFeed}.
+ */
+public class EntityChangeDTO implements Serializable {
+
+    public enum Operation {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+
+    private long sequence;
+
+    private String entity;
+
+    private Operation operation;
+
+    private Long id;
+
+    private Object state;
+
+    private Instant timestamp;
+
+    public EntityChangeDTO() {}
+
+    public EntityChangeDTO(long sequence, String entity, Operation operation, Long id, Object state, Instant timestamp) {
+        this.sequence = sequence;
+        this.entity = entity;
+        this.operation = operation;
+        this.id = id;
+        this.state = state;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return the position of the change in the feed, increasing by one with each change.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the DTO of the entity after the change, or null if it was deleted.
+     */
+    public Object getState() {
+        return state;
+    }
+
+    public void setState(Object state) {
+        this.state = state;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EntityChangeDTO)) {
+            return false;
+        }
+        return sequence == ((EntityChangeDTO) o).sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequence);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EntityChangeDTO{" +
+            "sequence=" + getSequence() +
+            ", entity='" + getEntity() + "'" +
+            ", operation=" + getOperation() +
+            ", id=" + getId() +
+            ", timestamp='" + getTimestamp() + "'" +
+            "}";
+    }
+}
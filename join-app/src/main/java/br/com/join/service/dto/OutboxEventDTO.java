@@ -0,0 +1,113 @@
+package br.com.join.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link br.com.join.domain.OutboxEvent} entity, as delivered to the {@link br.com.join.service.OutboxSink}s.
+ */
+public class OutboxEventDTO implements Serializable {
+
+    private Long id;
+
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    private EntityChangeDTO.Operation eventType;
+
+    @JsonRawValue
+    private String payload;
+
+    private Instant createdDate;
+
+    /**
+     * @return the id of the event, increasing with each event: sinks may see an event twice and should use it to
+     * skip the events already processed.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public EntityChangeDTO.Operation getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(EntityChangeDTO.Operation eventType) {
+        this.eventType = eventType;
+    }
+
+    /**
+     * @return the JSON of the entity DTO after the change, or null if it was deleted.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxEventDTO)) {
+            return false;
+        }
+
+        OutboxEventDTO outboxEventDTO = (OutboxEventDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, outboxEventDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxEventDTO{" +
+            "id=" + getId() +
+            ", aggregateType='" + getAggregateType() + "'" +
+            ", aggregateId=" + getAggregateId() +
+            ", eventType=" + getEventType() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes of the produtos since a delta token.
+ */
+public class ProdutoDeltaDTO implements Serializable {
+
+    private String token;
+
+    private boolean reset;
+
+    private List<ProdutoDTO> produtos = new ArrayList<>();
+
+    private List<Long> deletedIds = new ArrayList<>();
+
+    /**
+     * @return the token to send with the next request, to get the changes made after this one.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return whether the produtos are the whole catalog, replacing the one held by the client: no token was sent, or
+     * it was too old for the deletions since to be known.
+     */
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+    /**
+     * @return the produtos created or updated since the token, or all of them on a reset.
+     */
+    public List<ProdutoDTO> getProdutos() {
+        return produtos;
+    }
+
+    public void setProdutos(List<ProdutoDTO> produtos) {
+        this.produtos = produtos;
+    }
+
+    /**
+     * @return the ids of the produtos deleted since the token.
+     */
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoDeltaDTO{" +
+            "token='" + getToken() + "'" +
+            ", reset=" + isReset() +
+            ", produtos=" + getProdutos().size() +
+            ", deletedIds=" + getDeletedIds().size() +
+            "}";
+    }
+}
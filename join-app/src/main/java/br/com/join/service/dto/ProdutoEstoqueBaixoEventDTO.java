@@ -0,0 +1,128 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A {@link br.com.join.domain.Produto} entering or leaving the low-stock watchlist.
+ */
+public class ProdutoEstoqueBaixoEventDTO implements Serializable {
+
+    public enum Type {
+        /**
+         * The quantidade dropped below the threshold.
+         */
+        ENTERED,
+        /**
+         * The quantidade is back to the threshold or above, or the produto was deleted.
+         */
+        LEFT,
+    }
+
+    private Type type;
+
+    private Long id;
+
+    private String nome;
+
+    private Integer quantidade;
+
+    private Long categoriaId;
+
+    private Integer estoqueMinimo;
+
+    public ProdutoEstoqueBaixoEventDTO() {}
+
+    public ProdutoEstoqueBaixoEventDTO(Type type, Long id, String nome, Integer quantidade, Long categoriaId, Integer estoqueMinimo) {
+        this.type = type;
+        this.id = id;
+        this.nome = nome;
+        this.quantidade = quantidade;
+        this.categoriaId = categoriaId;
+        this.estoqueMinimo = estoqueMinimo;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
+    public Integer getEstoqueMinimo() {
+        return estoqueMinimo;
+    }
+
+    public void setEstoqueMinimo(Integer estoqueMinimo) {
+        this.estoqueMinimo = estoqueMinimo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProdutoEstoqueBaixoEventDTO)) {
+            return false;
+        }
+
+        ProdutoEstoqueBaixoEventDTO that = (ProdutoEstoqueBaixoEventDTO) o;
+        return (
+            type == that.type &&
+            Objects.equals(id, that.id) &&
+            Objects.equals(quantidade, that.quantidade) &&
+            Objects.equals(estoqueMinimo, that.estoqueMinimo)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id, quantidade, estoqueMinimo);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoEstoqueBaixoEventDTO{" +
+            "type=" + getType() +
+            ", id=" + getId() +
+            ", nome='" + getNome() + "'" +
+            ", quantidade=" + getQuantidade() +
+            ", categoriaId=" + getCategoriaId() +
+            ", estoqueMinimo=" + getEstoqueMinimo() +
+            "}";
+    }
+}
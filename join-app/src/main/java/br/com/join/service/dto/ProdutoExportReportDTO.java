@@ -0,0 +1,111 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * The report of a produto export.
+ */
+public class ProdutoExportReportDTO implements Serializable {
+
+    public enum Type {
+        FULL,
+        INCREMENTAL,
+    }
+
+    private Type type;
+
+    private String file;
+
+    private LocalDateTime since;
+
+    private LocalDateTime until;
+
+    private long rows;
+
+    private long bytes;
+
+    private double rowsPerSecond;
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the path of the exported file.
+     */
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the high-water mark of the previous export, from which the produtos are exported, or null for all.
+     */
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void setSince(LocalDateTime since) {
+        this.since = since;
+    }
+
+    /**
+     * @return the high-water mark of this export, up to which the produtos are exported.
+     */
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDateTime until) {
+        this.until = until;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * @return the size of the compressed file.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoExportReportDTO{" +
+            "type=" + getType() +
+            ", file='" + getFile() + "'" +
+            ", since='" + getSince() + "'" +
+            ", until='" + getUntil() + "'" +
+            ", rows=" + getRows() +
+            ", bytes=" + getBytes() +
+            ", rowsPerSecond=" + getRowsPerSecond() +
+            "}";
+    }
+}
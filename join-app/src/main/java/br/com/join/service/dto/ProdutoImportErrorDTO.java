@@ -0,0 +1,48 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A row rejected by a produto import.
+ */
+public class ProdutoImportErrorDTO implements Serializable {
+
+    private long line;
+
+    private String message;
+
+    public ProdutoImportErrorDTO() {}
+
+    public ProdutoImportErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    /**
+     * @return the number of the line of the row in the imported file, starting at 1.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoImportErrorDTO{" +
+            "line=" + getLine() +
+            ", message='" + getMessage() + "'" +
+            "}";
+    }
+}
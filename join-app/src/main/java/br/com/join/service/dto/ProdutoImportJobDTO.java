@@ -0,0 +1,169 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The progress and report of a produto import.
+ */
+public class ProdutoImportJobDTO implements Serializable {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private String id;
+
+    private Status status;
+
+    private String format;
+
+    private long rowsRead;
+
+    private long rowsImported;
+
+    private long rowsRejected;
+
+    private double rowsPerSecond;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String failure;
+
+    private List<ProdutoImportErrorDTO> errors;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * @return the number of rows parsed so far, header excluded.
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    /**
+     * @return the rows read per second, from the start of the import to its end (or to now while running).
+     */
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * @return why the import stopped before the end of the file, if it {@link Status#FAILED}.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * @return the first rejected rows, up to {@code application.produto-import.max-reported-errors}.
+     */
+    public List<ProdutoImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ProdutoImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProdutoImportJobDTO)) {
+            return false;
+        }
+        return id != null && id.equals(((ProdutoImportJobDTO) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoImportJobDTO{" +
+            "id='" + getId() + "'" +
+            ", status=" + getStatus() +
+            ", format='" + getFormat() + "'" +
+            ", rowsRead=" + getRowsRead() +
+            ", rowsImported=" + getRowsImported() +
+            ", rowsRejected=" + getRowsRejected() +
+            "}";
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.join.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A typeahead suggestion for the {@link br.com.join.domain.Produto} entity.
+ */
+public class ProdutoSuggestionDTO implements Serializable {
+
+    private Long id;
+
+    private String nome;
+
+    public ProdutoSuggestionDTO() {}
+
+    public ProdutoSuggestionDTO(Long id, String nome) {
+        this.id = id;
+        this.nome = nome;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProdutoSuggestionDTO)) {
+            return false;
+        }
+
+        ProdutoSuggestionDTO produtoSuggestionDTO = (ProdutoSuggestionDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, produtoSuggestionDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProdutoSuggestionDTO{" +
+            "id=" + getId() +
+            ", nome='" + getNome() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.join.service.mapper;
+
+import br.com.join.domain.OutboxEvent;
+import br.com.join.service.dto.EntityChangeDTO;
+import br.com.join.service.dto.OutboxEventDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link OutboxEvent} and its DTO {@link OutboxEventDTO}.
+ */
+@Mapper(componentModel = "spring", imports = EntityChangeDTO.class)
+public interface OutboxEventMapper extends EntityMapper<OutboxEventDTO, OutboxEvent> {
+    @Override
+    @Mapping(target = "deliveredTo", ignore = true)
+    OutboxEvent toEntity(OutboxEventDTO dto);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "deliveredTo", ignore = true)
+    void partialUpdate(@MappingTarget OutboxEvent entity, OutboxEventDTO dto);
+}
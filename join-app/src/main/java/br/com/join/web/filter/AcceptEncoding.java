@@ -0,0 +1,41 @@
+package br.com.join.web.filter;
+
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Content codings accepted by a request, as told by its {@code Accept-Encoding} headers.
+ */
+final class AcceptEncoding {
+
+    private static final Pattern REFUSED = Pattern.compile("q\\s*=\\s*0(\\.0*)?");
+
+    private AcceptEncoding() {}
+
+    /**
+     * @param request the request.
+     * @param coding the content coding, such as {@code gzip}.
+     * @return whether the request lists the coding, without refusing it with {@code q=0}.
+     */
+    static boolean accepts(ServerHttpRequest request, String coding) {
+        for (String value : request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String element : value.split(",")) {
+                String[] parameters = element.split(";");
+                if (coding.equalsIgnoreCase(parameters[0].trim()) && !isRefused(parameters)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRefused(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            if (REFUSED.matcher(parameters[i].trim()).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.join.web.filter;
+
+import java.util.ArrayList;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * The status, headers and body of a response captured by a {@link CapturingResponse}; cookies are never kept.
+ */
+final class CapturedResponse {
+
+    private final Integer status;
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    private final byte[] body;
+
+    CapturedResponse(Integer status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.SET_COOKIE.equalsIgnoreCase(name)) {
+                this.headers.put(name, new ArrayList<>(values));
+            }
+        });
+        this.body = body;
+    }
+
+    Integer status() {
+        return status;
+    }
+
+    HttpHeaders headers() {
+        return headers;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setRawStatusCode(status);
+        response.getHeaders().putAll(headers);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+}
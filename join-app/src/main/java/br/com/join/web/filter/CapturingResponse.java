@@ -0,0 +1,49 @@
+package br.com.join.web.filter;
+
+import java.nio.ByteBuffer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps a copy of the response written in one go, for the filters replaying it to other requests.
+ */
+final class CapturingResponse extends ServerHttpResponseDecorator {
+
+    private CapturedResponse captured;
+
+    CapturingResponse(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    /**
+     * @return the response written, or {@code null} when it was streamed or not written yet.
+     */
+    CapturedResponse captured() {
+        return captured;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils
+            .join(body)
+            .flatMap(joined -> {
+                ByteBuffer content = joined.asByteBuffer();
+                byte[] bytes = new byte[content.remaining()];
+                content.get(bytes);
+                captured = new CapturedResponse(getRawStatusCode(), getHeaders(), bytes);
+                return super.writeWith(Mono.just(joined));
+            });
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        if (captured == null) {
+            captured = new CapturedResponse(getRawStatusCode(), getHeaders(), new byte[0]);
+        }
+        return super.setComplete();
+    }
+}
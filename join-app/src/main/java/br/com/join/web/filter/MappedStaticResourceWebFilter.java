@@ -0,0 +1,210 @@
+package br.com.join.web.filter;
+
+import br.com.join.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Serves small, hot static resources (the i18n bundles by default) from memory-mapped, off-heap buffers.
+ * <p>
+ * Each resource is mapped once, together with its pre-compressed {@code .br}/{@code .gz} siblings, and written by
+ * wrapping the mapped buffer: no heap copy is made per request. Files that live inside a jar cannot be mapped and are
+ * copied once into a direct buffer instead. Anything else falls through to the resource handlers.
+ */
+public class MappedStaticResourceWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedStaticResourceWebFilter.class);
+
+    private final String location;
+
+    private final List<PathPattern> mappedPaths;
+
+    private final long maxMappedSize;
+
+    // Only the resources found: a miss is looked up again, so that unknown paths cannot evict the mapped ones
+    private final Cache<String, MappedResource> resources;
+
+    public MappedStaticResourceWebFilter(ApplicationProperties.StaticResources properties) {
+        this(properties, "static");
+    }
+
+    public MappedStaticResourceWebFilter(ApplicationProperties.StaticResources properties, String location) {
+        this.location = location;
+        this.mappedPaths = properties.getMappedPaths().stream().map(PathPatternParser.defaultInstance::parse).collect(Collectors.toList());
+        this.maxMappedSize = properties.getMaxMappedSize().toBytes();
+        this.resources = Caffeine.newBuilder().maximumSize(properties.getMaxEntries()).build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        PathContainer path = request.getPath().pathWithinApplication();
+        if (!isMapped(path)) {
+            return chain.filter(exchange);
+        }
+        String value = path.value();
+        if (value.contains("..") || value.indexOf('%') >= 0 || value.indexOf('\\') >= 0) {
+            return chain.filter(exchange);
+        }
+        MappedResource cached = resources.getIfPresent(value);
+        Mono<Optional<MappedResource>> resource = cached != null
+            ? Mono.just(Optional.of(cached))
+            : Mono.fromCallable(() -> Optional.ofNullable(resources.get(value, this::map))).subscribeOn(Schedulers.boundedElastic());
+        return resource.flatMap(mapped -> mapped.isPresent() ? write(exchange, mapped.get()) : chain.filter(exchange));
+    }
+
+    private boolean isMapped(PathContainer path) {
+        for (PathPattern mappedPath : mappedPaths) {
+            if (mappedPath.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, MappedResource resource) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        Variant variant = resource.select(exchange.getRequest());
+        if (resource.isEncoded()) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (exchange.checkNotModified(variant.eTag, resource.lastModified)) {
+            return response.setComplete();
+        }
+        headers.setContentType(resource.mediaType);
+        headers.setContentLength(variant.content.remaining());
+        if (variant.coding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, variant.coding);
+        }
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(variant.content.duplicate())));
+    }
+
+    // Null when the resource is not to be mapped, which Caffeine does not cache
+    private MappedResource map(String path) {
+        Resource resource = new ClassPathResource(location + path);
+        try {
+            if (!resource.exists() || !resource.isReadable() || resource.contentLength() > maxMappedSize) {
+                return null;
+            }
+            String eTag;
+            try (InputStream in = resource.getInputStream()) {
+                eTag = DigestUtils.md5DigestAsHex(in);
+            }
+            ByteBuffer identity = load(resource);
+            MappedResource mapped = new MappedResource(
+                MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM),
+                Instant.ofEpochMilli(resource.lastModified()),
+                new Variant(null, identity, "\"" + eTag + "\""),
+                loadSibling(resource, "br", ".br", eTag),
+                loadSibling(resource, "gzip", ".gz", eTag)
+            );
+            log.debug("Mapped static resource {} ({} bytes)", path, identity.remaining());
+            return mapped;
+        } catch (IOException e) {
+            log.warn("Could not map static resource {}, serving it from the resource handlers", path, e);
+            return null;
+        }
+    }
+
+    long size() {
+        return resources.asMap().size();
+    }
+
+    private static Variant loadSibling(Resource resource, String coding, String extension, String eTag) throws IOException {
+        Resource sibling = resource.createRelative(resource.getFilename() + extension);
+        return sibling.exists() ? new Variant(coding, load(sibling), "\"" + eTag + "-" + coding + "\"") : null;
+    }
+
+    private static ByteBuffer load(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        try (InputStream in = resource.getInputStream()) {
+            byte[] bytes = StreamUtils.copyToByteArray(in);
+            return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+        }
+    }
+
+    private static final class MappedResource {
+
+        private final MediaType mediaType;
+        private final Instant lastModified;
+        private final Variant identity;
+        private final Variant brotli;
+        private final Variant gzip;
+
+        private MappedResource(MediaType mediaType, Instant lastModified, Variant identity, Variant brotli, Variant gzip) {
+            this.mediaType = mediaType;
+            this.lastModified = lastModified;
+            this.identity = identity;
+            this.brotli = brotli;
+            this.gzip = gzip;
+        }
+
+        private boolean isEncoded() {
+            return brotli != null || gzip != null;
+        }
+
+        private Variant select(ServerHttpRequest request) {
+            if (brotli != null && AcceptEncoding.accepts(request, brotli.coding)) {
+                return brotli;
+            }
+            if (gzip != null && AcceptEncoding.accepts(request, gzip.coding)) {
+                return gzip;
+            }
+            return identity;
+        }
+    }
+
+    private static final class Variant {
+
+        private final String coding;
+        private final ByteBuffer content;
+        private final String eTag;
+
+        private Variant(String coding, ByteBuffer content, String eTag) {
+            this.coding = coding;
+            this.content = content;
+            this.eTag = eTag;
+        }
+    }
+}
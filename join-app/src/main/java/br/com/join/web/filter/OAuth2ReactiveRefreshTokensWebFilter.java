@@ -1,37 +1,138 @@
 package br.com.join.web.filter;
 
+import br.com.join.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.web.server.ServerOAuth2AuthorizedClientRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Mono;
 
 /**
  * Refresh oauth2 tokens based on TokenRelayGatewayFilterFactory.
+ * <p>
+ * The authorized client manager is only consulted when the session's access token is about to expire, and never for
+ * the excluded paths configured in {@link ApplicationProperties.TokenRefresh}. Concurrent refreshes for the same
+ * principal share a single call to the identity provider.
  */
 @Component
 public class OAuth2ReactiveRefreshTokensWebFilter implements WebFilter {
 
     private final ReactiveOAuth2AuthorizedClientManager clientManager;
 
-    public OAuth2ReactiveRefreshTokensWebFilter(ReactiveOAuth2AuthorizedClientManager clientManager) {
+    private final ServerOAuth2AuthorizedClientRepository authorizedClientRepository;
+
+    private final Duration refreshWindow;
+
+    private final List<PathPattern> excludedPaths;
+
+    private final Counter refreshCounter;
+
+    private final Map<String, Mono<OAuth2AuthorizedClient>> refreshesInFlight = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    public OAuth2ReactiveRefreshTokensWebFilter(
+        ReactiveOAuth2AuthorizedClientManager clientManager,
+        ServerOAuth2AuthorizedClientRepository authorizedClientRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.clientManager = clientManager;
+        this.authorizedClientRepository = authorizedClientRepository;
+        this.refreshWindow = applicationProperties.getTokenRefresh().getWindow();
+        this.excludedPaths =
+            applicationProperties
+                .getTokenRefresh()
+                .getExcludedPaths()
+                .stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+        this.refreshCounter =
+            Counter.builder("oauth2.token.refreshes").description("OAuth2 access tokens actually refreshed").register(meterRegistry);
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
     }
 
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (isExcluded(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
         return exchange
             .getPrincipal()
             .filter(principal -> principal instanceof OAuth2AuthenticationToken)
             .cast(OAuth2AuthenticationToken.class)
-            .flatMap(authentication -> authorizedClient(exchange, authentication))
+            .flatMap(authentication ->
+                authorizedClientRepository
+                    .<OAuth2AuthorizedClient>loadAuthorizedClient(
+                        authentication.getAuthorizedClientRegistrationId(),
+                        authentication,
+                        exchange
+                    )
+                    .filter(this::isRefreshNeeded)
+                    .flatMap(current -> refresh(exchange, authentication, current))
+            )
             .thenReturn(exchange)
             .flatMap(chain::filter);
     }
 
+    private boolean isExcluded(PathContainer path) {
+        for (PathPattern excludedPath : excludedPaths) {
+            if (excludedPath.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRefreshNeeded(OAuth2AuthorizedClient authorizedClient) {
+        Instant expiresAt = authorizedClient.getAccessToken().getExpiresAt();
+        return authorizedClient.getRefreshToken() != null && expiresAt != null && !clock.instant().plus(refreshWindow).isBefore(expiresAt);
+    }
+
+    private Mono<OAuth2AuthorizedClient> refresh(
+        ServerWebExchange exchange,
+        OAuth2AuthenticationToken authentication,
+        OAuth2AuthorizedClient current
+    ) {
+        String key = authentication.getAuthorizedClientRegistrationId() + ":" + authentication.getName();
+        return refreshesInFlight.computeIfAbsent(
+            key,
+            k ->
+                authorizedClient(exchange, authentication)
+                    .doOnNext(refreshed -> {
+                        if (isNewToken(current.getAccessToken(), refreshed.getAccessToken())) {
+                            refreshCounter.increment();
+                        }
+                    })
+                    .doFinally(signal -> refreshesInFlight.remove(k))
+                    .cache()
+        );
+    }
+
+    private static boolean isNewToken(OAuth2AccessToken previous, OAuth2AccessToken current) {
+        return current != null && !current.getTokenValue().equals(previous.getTokenValue());
+    }
+
     private Mono<OAuth2AuthorizedClient> authorizedClient(ServerWebExchange exchange, OAuth2AuthenticationToken oauth2Authentication) {
         String clientRegistrationId = oauth2Authentication.getAuthorizedClientRegistrationId();
         OAuth2AuthorizeRequest request = OAuth2AuthorizeRequest
@@ -0,0 +1,148 @@
+package br.com.join.web.filter;
+
+import br.com.join.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Answers the identical GETs received while a first one is in flight with a copy of its response (single-flight), so
+ * that a burst of clients requesting the same page runs its queries once.
+ * <p>
+ * Requests are identical when they have the same path, query parameters (in any order but that of a repeated one),
+ * {@code Accept}, {@code Accept-Language} and {@code Origin} headers, and authorities. Only the paths of the allowlist are coalesced:
+ * their responses must not depend on the user beyond the authorities. The response of the first request is captured as
+ * it is written, and the others get its status, headers and body; cookies are never shared. They run the chain
+ * themselves when the first request fails, is cancelled or streams its response.
+ */
+public class RequestCoalescingWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescingWebFilter.class);
+
+    private final Map<PathPattern, Counter> coalescedCounters = new LinkedHashMap<>();
+
+    private final ConcurrentMap<String, Mono<Optional<CapturedResponse>>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingWebFilter(ApplicationProperties.Coalescing properties, MeterRegistry meterRegistry) {
+        for (String path : properties.getPaths()) {
+            PathPattern pattern = PathPatternParser.defaultInstance.parse(path);
+            coalescedCounters.put(
+                pattern,
+                Counter
+                    .builder("http.server.requests.coalesced")
+                    .description("Requests answered with the response of an identical request in flight")
+                    .tag("uri", pattern.getPatternString())
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        Counter coalescedCounter = coalescedCounter(request.getPath().pathWithinApplication());
+        if (coalescedCounter == null) {
+            return chain.filter(exchange);
+        }
+        return exchange
+            .getPrincipal()
+            .map(RequestCoalescingWebFilter::authorities)
+            .defaultIfEmpty("")
+            .flatMap(authorities -> coalesce(key(request, authorities), coalescedCounter, exchange, chain));
+    }
+
+    private Counter coalescedCounter(PathContainer path) {
+        for (Map.Entry<PathPattern, Counter> entry : coalescedCounters.entrySet()) {
+            if (entry.getKey().matches(path)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private Mono<Void> coalesce(String key, Counter coalescedCounter, ServerWebExchange exchange, WebFilterChain chain) {
+        Sinks.One<Optional<CapturedResponse>> captured = Sinks.one();
+        Mono<Optional<CapturedResponse>> shared = captured.asMono();
+        Mono<Optional<CapturedResponse>> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            return leader.flatMap(response -> {
+                if (response.isEmpty()) {
+                    return chain.filter(exchange);
+                }
+                coalescedCounter.increment();
+                log.debug("Coalesced request {}", key);
+                return response.get().writeTo(exchange.getResponse());
+            });
+        }
+        CapturingResponse response = new CapturingResponse(exchange.getResponse());
+        return chain
+            .filter(exchange.mutate().response(response).build())
+            .doFinally(signal -> {
+                inFlight.remove(key, shared);
+                captured.tryEmitValue(signal == SignalType.ON_COMPLETE ? Optional.ofNullable(response.captured()) : Optional.empty());
+            });
+    }
+
+    static String key(ServerHttpRequest request, String authorities) {
+        StringBuilder key = new StringBuilder(request.getPath().pathWithinApplication().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            // Still encoded, so that no value can pass for a separator; a stable sort keeps the order of repeated ones
+            List<String> parameters = new ArrayList<>(Arrays.asList(query.split("&")));
+            parameters.sort(Comparator.comparing(parameter -> parameter.split("=", 2)[0]));
+            key.append('?').append(String.join("&", parameters));
+        }
+        HttpHeaders headers = request.getHeaders();
+        return key
+            .append('\n')
+            .append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)))
+            .append('\n')
+            .append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_LANGUAGE)))
+            .append('\n')
+            // The CORS headers of the response are those of the origin
+            .append(String.join(",", headers.getOrEmpty(HttpHeaders.ORIGIN)))
+            .append('\n')
+            .append(authorities)
+            .toString();
+    }
+
+    static String authorities(Principal principal) {
+        if (principal instanceof Authentication) {
+            return ((Authentication) principal).getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        }
+        return principal.getName();
+    }
+}
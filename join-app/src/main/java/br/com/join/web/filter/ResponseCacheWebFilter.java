@@ -0,0 +1,255 @@
+package br.com.join.web.filter;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.QueryResultCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers the GETs of the lists with the bytes of a previous identical response, skipping the queries, the DTO
+ * mapping and the serialization.
+ * <p>
+ * Requests are identical as for the {@link RequestCoalescingWebFilter}. The bodies are kept in pooled direct buffers,
+ * with a gzip variant for the larger ones, and written as they are; the headers, such as {@code X-Total-Count} and
+ * {@code Link}, are kept alongside. A response is served for as long as no entity is written through this instance, as
+ * told by the generation of the {@link QueryResultCache}, and at most for its time to live.
+ */
+public class ResponseCacheWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheWebFilter.class);
+
+    private static final String GZIP = "gzip";
+
+    private final boolean enabled;
+
+    private final long compressionMinSize;
+
+    private final List<PathPattern> paths = new ArrayList<>();
+
+    private final QueryResultCache queryResultCache;
+
+    private final Cache<String, CachedResponse> responses;
+
+    public ResponseCacheWebFilter(
+        ApplicationProperties.ResponseCache properties,
+        QueryResultCache queryResultCache,
+        MeterRegistry meterRegistry
+    ) {
+        this.enabled = !properties.getTimeToLive().isZero();
+        this.compressionMinSize = properties.getCompressionMinSize().toBytes();
+        properties.getPaths().forEach(path -> paths.add(PathPatternParser.defaultInstance.parse(path)));
+        this.queryResultCache = queryResultCache;
+        this.responses =
+            Caffeine
+                .newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.size())
+                .expireAfterWrite(properties.getTimeToLive())
+                // Released as soon as evicted, rather than by a background task
+                .executor(Runnable::run)
+                .removalListener((String key, CachedResponse response, RemovalCause cause) -> response.release())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "responses");
+        Gauge
+            .builder("http.server.response.cache.memory", responses, ResponseCacheWebFilter::weightedSize)
+            .description("Direct memory taken by the cached responses")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.GET || !isCached(request.getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        return exchange
+            .getPrincipal()
+            .map(RequestCoalescingWebFilter::authorities)
+            .defaultIfEmpty("")
+            .flatMap(authorities -> cache(RequestCoalescingWebFilter.key(request, authorities), exchange, chain));
+    }
+
+    /**
+     * Releases the cached responses.
+     */
+    public void close() {
+        responses.invalidateAll();
+    }
+
+    private boolean isCached(PathContainer path) {
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private Mono<Void> cache(String key, ServerWebExchange exchange, WebFilterChain chain) {
+        long generation = queryResultCache.generation();
+        // Looked up first for the hit and miss statistics, which computeIfPresent does not record
+        if (responses.getIfPresent(key) != null) {
+            boolean acceptsGzip = AcceptEncoding.accepts(exchange.getRequest(), GZIP);
+            AtomicReference<ByteBuf> body = new AtomicReference<>();
+            // Retained under the lock of the entry: the buffers are only released once it is out of the cache
+            CachedResponse cached = responses
+                .asMap()
+                .computeIfPresent(
+                    key,
+                    (k, response) -> {
+                        if (response.generation != generation) {
+                            return null;
+                        }
+                        body.set(response.body(acceptsGzip).retainedDuplicate());
+                        return response;
+                    }
+                );
+            if (cached != null) {
+                log.debug("Cached response for {}", key);
+                return cached.writeTo(exchange.getResponse(), body.get(), acceptsGzip && cached.gzippedBody != null);
+            }
+        }
+        CapturingResponse response = new CapturingResponse(exchange.getResponse());
+        return chain
+            .filter(exchange.mutate().response(response).build())
+            .doOnSuccess(done -> {
+                CapturedResponse captured = response.captured();
+                // Responses read while a write committed are left out, as they may predate it
+                if (captured != null && isOk(captured) && generation == queryResultCache.generation()) {
+                    put(key, generation, captured);
+                }
+            });
+    }
+
+    private void put(String key, long generation, CapturedResponse captured) {
+        HttpHeaders headers = captured.headers();
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        byte[] body = captured.body();
+        ByteBuf gzippedBody = null;
+        if (body.length >= compressionMinSize) {
+            gzippedBody = directBuffer(gzip(body));
+            addVary(headers, List.of(HttpHeaders.ACCEPT_ENCODING));
+        }
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        responses.put(key, new CachedResponse(generation, captured.status(), headers, directBuffer(body), gzippedBody));
+    }
+
+    // Kept alongside those already there, such as the Origin the CORS processing varies on
+    private static void addVary(HttpHeaders headers, List<String> values) {
+        List<String> vary = new ArrayList<>(headers.getVary());
+        values.stream().filter(value -> vary.stream().noneMatch(value::equalsIgnoreCase)).forEach(vary::add);
+        headers.setVary(vary);
+    }
+
+    private static boolean isOk(CapturedResponse captured) {
+        return captured.status() == null || captured.status() == HttpStatus.OK.value();
+    }
+
+    private static double weightedSize(Cache<String, CachedResponse> responses) {
+        return responses.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private static ByteBuf directBuffer(byte[] bytes) {
+        return PooledByteBufAllocator.DEFAULT.directBuffer(bytes.length).writeBytes(bytes);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static final class CachedResponse {
+
+        private final long generation;
+
+        private final Integer status;
+
+        private final HttpHeaders headers;
+
+        private final ByteBuf body;
+
+        private final ByteBuf gzippedBody;
+
+        private CachedResponse(long generation, Integer status, HttpHeaders headers, ByteBuf body, ByteBuf gzippedBody) {
+            this.generation = generation;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.gzippedBody = gzippedBody;
+        }
+
+        private ByteBuf body(boolean acceptsGzip) {
+            return acceptsGzip && gzippedBody != null ? gzippedBody : body;
+        }
+
+        private int size() {
+            return body.capacity() + (gzippedBody == null ? 0 : gzippedBody.capacity());
+        }
+
+        private void release() {
+            body.release();
+            if (gzippedBody != null) {
+                gzippedBody.release();
+            }
+        }
+
+        private Mono<Void> writeTo(ServerHttpResponse response, ByteBuf body, boolean gzipped) {
+            response.setRawStatusCode(status);
+            HttpHeaders responseHeaders = response.getHeaders();
+            List<String> vary = responseHeaders.getVary();
+            responseHeaders.putAll(headers);
+            addVary(responseHeaders, vary);
+            responseHeaders.setContentLength(body.readableBytes());
+            if (gzipped) {
+                responseHeaders.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            }
+            return response.writeWith(Mono.just(wrap(response.bufferFactory(), body)));
+        }
+
+        private static DataBuffer wrap(DataBufferFactory bufferFactory, ByteBuf body) {
+            if (bufferFactory instanceof NettyDataBufferFactory) {
+                return ((NettyDataBufferFactory) bufferFactory).wrap(body);
+            }
+            try {
+                return bufferFactory.wrap(ByteBufUtil.getBytes(body));
+            } finally {
+                body.release();
+            }
+        }
+    }
+}
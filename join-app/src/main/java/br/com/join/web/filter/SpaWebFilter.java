@@ -1,5 +1,19 @@
 package br.com.join.web.filter;
 
+import br.com.join.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -7,22 +21,128 @@ import reactor.core.publisher.Mono;
 
 public class SpaWebFilter implements WebFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(SpaWebFilter.class);
+
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final PrefixTrie excludedPrefixes;
+
+    private final byte[] indexHtml;
+
+    private final String indexHtmlETag;
+
+    public SpaWebFilter(ApplicationProperties.Spa properties) {
+        this(properties, new ClassPathResource("static/index.html"));
+    }
+
+    SpaWebFilter(ApplicationProperties.Spa properties, Resource indexHtmlResource) {
+        this.excludedPrefixes = new PrefixTrie(properties.getExcludedPrefixes());
+        this.indexHtml = properties.isCacheIndexHtml() ? load(indexHtmlResource) : null;
+        this.indexHtmlETag = indexHtml != null ? "\"" + DigestUtils.md5DigestAsHex(indexHtml) + "\"" : null;
+    }
+
     /**
-     * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
+     * Serves the client {@code index.html} for any unmapped paths (except those containing a period), or forwards
+     * them to it when it is not cached.
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
-        if (
-            !path.startsWith("/api") &&
-            !path.startsWith("/management") &&
-            !path.startsWith("/login") &&
-            !path.startsWith("/services") &&
-            !path.startsWith("/v3/api-docs") &&
-            path.matches("[^\\\\.]*")
-        ) {
+        if (isClientRoute(path)) {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (indexHtml != null && (method == HttpMethod.GET || method == HttpMethod.HEAD)) {
+                return writeIndexHtml(exchange, method);
+            }
             return chain.filter(exchange.mutate().request(exchange.getRequest().mutate().path("/index.html").build()).build());
         }
         return chain.filter(exchange);
     }
+
+    /**
+     * Single pass over the path: rejects excluded prefixes and any path containing a period or a backslash.
+     */
+    boolean isClientRoute(String path) {
+        PrefixTrie.Node node = excludedPrefixes.root;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '\\') {
+                return false;
+            }
+            if (node != null) {
+                if (node.terminal) {
+                    return false;
+                }
+                node = node.child(c);
+            }
+        }
+        return node == null || !node.terminal;
+    }
+
+    private Mono<Void> writeIndexHtml(ServerWebExchange exchange, HttpMethod method) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (exchange.checkNotModified(indexHtmlETag)) {
+            return response.setComplete();
+        }
+        response.getHeaders().setContentType(TEXT_HTML_UTF8);
+        response.getHeaders().setContentLength(indexHtml.length);
+        if (method == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(indexHtml)));
+    }
+
+    private static byte[] load(Resource resource) {
+        if (!resource.exists()) {
+            log.debug("No {} found, client routes will be forwarded to the resource handlers", resource);
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(in);
+        } catch (IOException e) {
+            log.warn("Could not read {}, client routes will be forwarded to the resource handlers", resource, e);
+            return null;
+        }
+    }
+
+    /**
+     * Immutable trie over ASCII path prefixes, built once so that matching allocates nothing.
+     */
+    static final class PrefixTrie {
+
+        private final Node root = new Node();
+
+        PrefixTrie(List<String> prefixes) {
+            for (String prefix : prefixes) {
+                Node node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    node = node.getOrCreateChild(prefix.charAt(i));
+                }
+                node.terminal = true;
+            }
+        }
+
+        static final class Node {
+
+            private Node[] children;
+
+            private boolean terminal;
+
+            Node child(char c) {
+                return children != null && c < children.length ? children[c] : null;
+            }
+
+            private Node getOrCreateChild(char c) {
+                if (c >= 128) {
+                    throw new IllegalArgumentException("Only ASCII path prefixes are supported");
+                }
+                if (children == null) {
+                    children = new Node[128];
+                }
+                if (children[c] == null) {
+                    children[c] = new Node();
+                }
+                return children[c];
+            }
+        }
+    }
 }
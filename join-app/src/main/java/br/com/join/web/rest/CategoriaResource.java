@@ -1,8 +1,10 @@
 package br.com.join.web.rest;
 
-import br.com.join.repository.CategoriaRepository;
+import br.com.join.domain.criteria.CategoriaCriteria;
+import br.com.join.service.CategoriaEstoqueAggregate;
 import br.com.join.service.CategoriaService;
 import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.CategoriaEstoqueDTO;
 import br.com.join.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -24,7 +26,6 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -43,16 +44,21 @@ public class CategoriaResource {
 
     private static final String ENTITY_NAME = "categoria";
 
+    private static final int MAX_MULTI_GET_IDS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CategoriaService categoriaService;
 
-    private final CategoriaRepository categoriaRepository;
+    private final CategoriaEstoqueAggregate categoriaEstoqueAggregate;
 
-    public CategoriaResource(CategoriaService categoriaService, CategoriaRepository categoriaRepository) {
+    public CategoriaResource(
+        CategoriaService categoriaService,
+        CategoriaEstoqueAggregate categoriaEstoqueAggregate
+    ) {
         this.categoriaService = categoriaService;
-        this.categoriaRepository = categoriaRepository;
+        this.categoriaEstoqueAggregate = categoriaEstoqueAggregate;
     }
 
     /**
@@ -88,7 +94,7 @@ public class CategoriaResource {
      * @param id the id of the categoriaDTO to save.
      * @param categoriaDTO the categoriaDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated categoriaDTO,
-     * or with status {@code 400 (Bad Request)} if the categoriaDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the categoriaDTO is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the categoriaDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -105,23 +111,16 @@ public class CategoriaResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return categoriaRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return categoriaService
-                    .update(categoriaDTO)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+        // The affected row count tells whether the entity exists, without a separate lookup
+        return categoriaService
+            .update(categoriaDTO)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
@@ -130,8 +129,7 @@ public class CategoriaResource {
      * @param id the id of the categoriaDTO to save.
      * @param categoriaDTO the categoriaDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated categoriaDTO,
-     * or with status {@code 400 (Bad Request)} if the categoriaDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the categoriaDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the categoriaDTO is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the categoriaDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -148,42 +146,36 @@ public class CategoriaResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return categoriaRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<CategoriaDTO> result = categoriaService.partialUpdate(categoriaDTO);
+        Mono<CategoriaDTO> result = categoriaService.partialUpdate(categoriaDTO);
 
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
-            });
+        return result
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(res ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                    .body(res)
+            );
     }
 
     /**
-     * {@code GET  /categorias} : get all the categorias.
+     * {@code GET  /categorias} : get all the categorias matching the criteria.
      *
+     * @param criteria the criteria which the requested entities should match.
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categorias in body.
      */
     @GetMapping("/categorias")
     public Mono<ResponseEntity<List<CategoriaDTO>>> getAllCategorias(
+        CategoriaCriteria criteria,
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request
     ) {
-        log.debug("REST request to get a page of Categorias");
+        log.debug("REST request to get a page of Categorias by criteria: {}", criteria);
         return categoriaService
-            .countAll()
-            .zipWith(categoriaService.findAll(pageable).collectList())
+            .countByCriteria(criteria)
+            .zipWith(categoriaService.findByCriteria(criteria, pageable).collectList())
             .map(countWithEntities ->
                 ResponseEntity
                     .ok()
@@ -197,6 +189,81 @@ public class CategoriaResource {
             );
     }
 
+    /**
+     * {@code GET  /categorias?ids=:ids} : get the categorias with the given ids.
+     *
+     * @param ids the ids of the categorias, at most {@value #MAX_MULTI_GET_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the categorias found in body, in the order of their ids.
+     */
+    @GetMapping(value = "/categorias", params = "ids")
+    public Mono<ResponseEntity<List<CategoriaDTO>>> getCategoriasById(@RequestParam List<Long> ids) {
+        log.debug("REST request to get Categorias : {}", ids);
+        return findAllById(ids);
+    }
+
+    /**
+     * {@code POST  /categorias/_mget} : get the categorias with the ids in body, for lists of ids too long for a query string.
+     *
+     * @param ids the ids of the categorias, at most {@value #MAX_MULTI_GET_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the categorias found in body, in the order of their ids.
+     */
+    @PostMapping("/categorias/_mget")
+    public Mono<ResponseEntity<List<CategoriaDTO>>> multiGetCategorias(@RequestBody List<Long> ids) {
+        log.debug("REST request to get Categorias : {}", ids);
+        return findAllById(ids);
+    }
+
+    private Mono<ResponseEntity<List<CategoriaDTO>>> findAllById(List<Long> ids) {
+        if (ids.size() > MAX_MULTI_GET_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_MULTI_GET_IDS + " ids can be requested", ENTITY_NAME, "toomanyids");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        return categoriaService.findAllById(ids).collectList().map(ResponseEntity::ok);
+    }
+
+    /**
+     * {@code GET  /categorias/count} : count all the categorias matching the criteria.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/categorias/count")
+    public Mono<ResponseEntity<Long>> countCategorias(CategoriaCriteria criteria) {
+        log.debug("REST request to count Categorias by criteria: {}", criteria);
+        return categoriaService
+            .countByCriteria(criteria)
+            .map(count -> ResponseEntity.status(HttpStatus.OK).body(count));
+    }
+
+    /**
+     * {@code GET  /categorias/estoque} : get the stock of every categoria having produtos.
+     * <p>
+     * Answered from the in-memory {@link CategoriaEstoqueAggregate}, without querying the database.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the stock per categoria in body.
+     */
+    @GetMapping("/categorias/estoque")
+    public ResponseEntity<List<CategoriaEstoqueDTO>> getAllCategoriaEstoques() {
+        log.debug("REST request to get the stock of all Categorias");
+        return ResponseEntity.ok(categoriaEstoqueAggregate.getAll());
+    }
+
+    /**
+     * {@code GET  /categorias/:id/estoque} : get the number of produtos and the total quantidade of the "id" categoria.
+     * <p>
+     * Answered from the in-memory {@link CategoriaEstoqueAggregate}, without querying the database.
+     *
+     * @param id the id of the categoria.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the stock in body, zero for a categoria without produtos.
+     */
+    @GetMapping("/categorias/{id}/estoque")
+    public ResponseEntity<CategoriaEstoqueDTO> getCategoriaEstoque(@PathVariable Long id) {
+        log.debug("REST request to get the stock of Categoria : {}", id);
+        return ResponseEntity.ok(categoriaEstoqueAggregate.get(id));
+    }
+
     /**
      * {@code GET  /categorias/:id} : get the "id" categoria.
      *
@@ -0,0 +1,67 @@
+package br.com.join.web.rest;
+
+import br.com.join.service.EntityChangeFeed;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * REST controller streaming the {@link EntityChangeFeed}.
+ */
+@RestController
+@RequestMapping("/api")
+public class EntityChangeResource {
+
+    private final Logger log = LoggerFactory.getLogger(EntityChangeResource.class);
+
+    private final EntityChangeFeed entityChangeFeed;
+
+    public EntityChangeResource(EntityChangeFeed entityChangeFeed) {
+        this.entityChangeFeed = entityChangeFeed;
+    }
+
+    /**
+     * {@code GET  /changes} : stream the changes of the produtos and categorias.
+     * <p>
+     * Each change is sent as a {@code created}, {@code updated} or {@code deleted} event whose id is its sequence, so
+     * that a reconnecting {@code EventSource} resumes with its {@code Last-Event-ID}. When the changes after the
+     * requested sequence are no longer available, a {@code reset} event carrying the last sequence is sent first: the
+     * client should then reload its state.
+     *
+     * @param since the last sequence received, to resume from.
+     * @param lastEventId the last sequence received, as sent by {@code EventSource} when reconnecting.
+     * @param overflow what to do with the changes which could not be sent yet when the client is not keeping up.
+     * @return the server-sent events, never completing.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges(
+        @RequestParam(required = false) Long since,
+        @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+        @RequestParam(required = false, defaultValue = "DROP_OLDEST") EntityChangeFeed.Overflow overflow
+    ) {
+        Long after = since != null ? since : lastEventId;
+        log.debug("REST request to stream the changes after {}", after);
+        Flux<ServerSentEvent<Object>> reset = Flux.empty();
+        if (after != null && !entityChangeFeed.canResumeAfter(after)) {
+            reset = Flux.just(ServerSentEvent.builder((Object) entityChangeFeed.lastSequence()).event("reset").build());
+        }
+        Flux<ServerSentEvent<Object>> changes = entityChangeFeed
+            .stream(after, overflow)
+            .map(change ->
+                ServerSentEvent
+                    .builder((Object) change)
+                    .id(Long.toString(change.getSequence()))
+                    .event(change.getOperation().name().toLowerCase(Locale.ROOT))
+                    .build()
+            );
+        return ServerSentEvents.withKeepAlive(reset.concatWith(changes));
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.join.web.rest;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.Set;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Narrows the serialized fields of a DTO to those requested with {@code ?fields=}.
+ * <p>
+ * The DTOs opt in through the {@link Mixin}, registered in {@link br.com.join.config.JacksonConfiguration}; they are
+ * serialized in full unless the response body is {@link #narrow narrowed}.
+ */
+public final class FieldsProjection {
+
+    public static final String FILTER_ID = "fieldsProjection";
+
+    private FieldsProjection() {}
+
+    /**
+     * Mix-in enabling the projection on a DTO.
+     */
+    @JsonFilter(FILTER_ID)
+    public interface Mixin {}
+
+    /**
+     * @param body the response body.
+     * @param fields the fields to serialize, or null for all of them.
+     * @return the body, which only serializes the given fields of the DTOs opted in.
+     */
+    public static MappingJacksonValue narrow(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields != null) {
+            value.setFilters(new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+        return value;
+    }
+}
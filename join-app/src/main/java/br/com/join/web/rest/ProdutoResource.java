@@ -1,20 +1,33 @@
 package br.com.join.web.rest;
 
-import br.com.join.repository.ProdutoRepository;
+import br.com.join.domain.criteria.ProdutoCriteria;
+import br.com.join.service.ProdutoDeltaService;
+import br.com.join.service.ProdutoEstoqueBaixoWatchlist;
+import br.com.join.service.ProdutoImportService;
 import br.com.join.service.ProdutoService;
+import br.com.join.service.ProdutoSuggestionIndex;
 import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.dto.ProdutoDeltaDTO;
+import br.com.join.service.dto.ProdutoEstoqueBaixoEventDTO;
+import br.com.join.service.dto.ProdutoImportJobDTO;
+import br.com.join.service.dto.ProdutoSuggestionDTO;
 import br.com.join.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -22,9 +35,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.multipart.DefaultPartHttpMessageReader;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.Part;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -43,16 +60,46 @@ public class ProdutoResource {
 
     private static final String ENTITY_NAME = "produto";
 
+    private static final int MAX_MULTI_GET_IDS = 1000;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("id", "nome", "quantidade", "categoria");
+
+    private static final String IMPORT_FILE_PART = "file";
+
+    // Streams the parts instead of storing them to disk, so that an import is parsed as it is uploaded
+    private static final DefaultPartHttpMessageReader IMPORT_PART_READER = new DefaultPartHttpMessageReader();
+
+    static {
+        IMPORT_PART_READER.setStreaming(true);
+    }
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ProdutoService produtoService;
 
-    private final ProdutoRepository produtoRepository;
+    private final ProdutoSuggestionIndex produtoSuggestionIndex;
 
-    public ProdutoResource(ProdutoService produtoService, ProdutoRepository produtoRepository) {
+    private final ProdutoEstoqueBaixoWatchlist produtoEstoqueBaixoWatchlist;
+
+    private final ProdutoImportService produtoImportService;
+
+    private final ProdutoDeltaService produtoDeltaService;
+
+    public ProdutoResource(
+        ProdutoService produtoService,
+        ProdutoSuggestionIndex produtoSuggestionIndex,
+        ProdutoEstoqueBaixoWatchlist produtoEstoqueBaixoWatchlist,
+        ProdutoImportService produtoImportService,
+        ProdutoDeltaService produtoDeltaService
+    ) {
         this.produtoService = produtoService;
-        this.produtoRepository = produtoRepository;
+        this.produtoSuggestionIndex = produtoSuggestionIndex;
+        this.produtoEstoqueBaixoWatchlist = produtoEstoqueBaixoWatchlist;
+        this.produtoImportService = produtoImportService;
+        this.produtoDeltaService = produtoDeltaService;
     }
 
     /**
@@ -84,11 +131,14 @@ public class ProdutoResource {
 
     /**
      * {@code PUT  /produtos/:id} : Updates an existing produto.
+     * <p>
+     * Unlike the categoria one, this is a {@code SELECT ... FOR UPDATE} followed by the {@code UPDATE}: the stock per
+     * categoria is kept from the delta with the previous quantidade and categoria, which the update cannot return.
      *
      * @param id the id of the produtoDTO to save.
      * @param produtoDTO the produtoDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated produtoDTO,
-     * or with status {@code 400 (Bad Request)} if the produtoDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the produtoDTO is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the produtoDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -105,23 +155,16 @@ public class ProdutoResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return produtoRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return produtoService
-                    .update(produtoDTO)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+        // The locked read of the previous state tells whether the entity exists
+        return produtoService
+            .update(produtoDTO)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(result ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
@@ -130,8 +173,7 @@ public class ProdutoResource {
      * @param id the id of the produtoDTO to save.
      * @param produtoDTO the produtoDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated produtoDTO,
-     * or with status {@code 400 (Bad Request)} if the produtoDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the produtoDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the produtoDTO is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the produtoDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -148,44 +190,84 @@ public class ProdutoResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return produtoRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<ProdutoDTO> result = produtoService.partialUpdate(produtoDTO);
+        Mono<ProdutoDTO> result = produtoService.partialUpdate(produtoDTO);
 
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity
-                            .ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
-            });
+        return result
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(res ->
+                ResponseEntity
+                    .ok()
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                    .body(res)
+            );
     }
 
     /**
-     * {@code GET  /produtos} : get all the produtos.
+     * {@code GET  /produtos} : get all the produtos matching the criteria.
      *
+     * @param criteria the criteria which the requested entities should match.
      * @param pageable the pagination information.
+     * @param fields the fields to return (among {@code id, nome, quantidade, categoria}), or all of them if absent.
      * @param request a {@link ServerHttpRequest} request.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of produtos in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of produtos in body,
+     * or with status {@code 400 (Bad Request)} if an unknown field is requested.
      */
     @GetMapping("/produtos")
-    public Mono<ResponseEntity<List<ProdutoDTO>>> getAllProdutos(
+    public Mono<ResponseEntity<MappingJacksonValue>> getAllProdutos(
+        ProdutoCriteria criteria,
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) Set<String> fields,
         ServerHttpRequest request,
         @RequestParam(required = false, defaultValue = "false") boolean eagerload
     ) {
-        log.debug("REST request to get a page of Produtos");
+        log.debug("REST request to get a page of Produtos by criteria: {}", criteria);
+        if (fields != null && !PROJECTABLE_FIELDS.containsAll(fields)) {
+            throw new BadRequestAlertException("Unknown field, expected some of " + PROJECTABLE_FIELDS, ENTITY_NAME, "unknownfield");
+        }
+        Flux<ProdutoDTO> produtos = fields == null
+            ? produtoService.findByCriteria(criteria, pageable)
+            : produtoService.findByCriteria(criteria, pageable, fields);
+        return produtoService
+            .countByCriteria(criteria)
+            .zipWith(produtos.collectList())
+            .map(countWithEntities ->
+                ResponseEntity
+                    .ok()
+                    .headers(
+                        PaginationUtil.generatePaginationHttpHeaders(
+                            UriComponentsBuilder.fromHttpRequest(request),
+                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                        )
+                    )
+                    .body(FieldsProjection.narrow(countWithEntities.getT2(), fields))
+            );
+    }
+
+    /**
+     * {@code GET  /produtos/_search?q=:query} : search the produtos by name, with optional filters.
+     *
+     * @param query the free-text query on the name.
+     * @param categoriaId the categoria of the produtos.
+     * @param minQtd the minimum quantidade (inclusive).
+     * @param maxQtd the maximum quantidade (inclusive).
+     * @param pageable the pagination information.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of produtos in body.
+     */
+    @GetMapping("/produtos/_search")
+    public Mono<ResponseEntity<List<ProdutoDTO>>> searchProdutos(
+        @RequestParam(name = "q", required = false) String query,
+        @RequestParam(required = false) Long categoriaId,
+        @RequestParam(required = false) Integer minQtd,
+        @RequestParam(required = false) Integer maxQtd,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to search a page of Produtos for query {}", query);
         return produtoService
-            .countAll()
-            .zipWith(produtoService.findAll(pageable).collectList())
+            .countSearch(query, categoriaId, minQtd, maxQtd)
+            .zipWith(produtoService.search(query, categoriaId, minQtd, maxQtd, pageable).collectList())
             .map(countWithEntities ->
                 ResponseEntity
                     .ok()
@@ -199,6 +281,189 @@ public class ProdutoResource {
             );
     }
 
+    /**
+     * {@code GET  /produtos/_suggest?prefix=:prefix} : suggest produtos whose name words start with the prefix words.
+     * <p>
+     * Answered from the in-memory {@link ProdutoSuggestionIndex}, without querying the database.
+     *
+     * @param prefix the text typed so far.
+     * @param size the maximum number of suggestions, capped at {@value #MAX_SUGGESTIONS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of suggestions in body.
+     */
+    @GetMapping("/produtos/_suggest")
+    public ResponseEntity<List<ProdutoSuggestionDTO>> suggestProdutos(
+        @RequestParam String prefix,
+        @RequestParam(required = false, defaultValue = "10") int size
+    ) {
+        log.debug("REST request to suggest Produtos for prefix {}", prefix);
+        return ResponseEntity.ok(produtoSuggestionIndex.suggest(prefix, Math.min(size, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * {@code GET  /produtos/delta?since=:token} : get the changes of the produtos since a token.
+     * <p>
+     * Meant for the clients keeping the catalog offline: they apply the returned produtos and deleted ids to their
+     * copy, or replace it on a reset, and keep the returned token for their next request.
+     *
+     * @param since the token returned by the previous request, none to get the whole catalog.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body, or with status {@code 400 (Bad Request)} if the token is not valid.
+     */
+    @GetMapping("/produtos/delta")
+    public Mono<ResponseEntity<ProdutoDeltaDTO>> getProdutosDelta(@RequestParam(required = false) String since) {
+        log.debug("REST request to get the Produto changes since {}", since);
+        return produtoDeltaService
+            .findChangesSince(since)
+            .onErrorMap(IllegalArgumentException.class, e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "deltatoken"))
+            .map(ResponseEntity::ok);
+    }
+
+    /**
+     * {@code GET  /produtos/estoque-baixo/stream} : stream the produtos below their low-stock threshold.
+     * <p>
+     * The produtos currently low on stock are sent first as {@code ENTERED} events, then each produto entering or
+     * leaving the watchlist as an {@code ENTERED} or {@code LEFT} event. The events carry no id: a reconnecting
+     * {@code EventSource} is sent the produtos currently low on stock again, rather than resuming.
+     *
+     * @return the server-sent events, never completing.
+     */
+    @GetMapping(value = "/produtos/estoque-baixo/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ProdutoEstoqueBaixoEventDTO>> streamProdutosEstoqueBaixo() {
+        log.debug("REST request to stream the Produtos low on stock");
+        Flux<ServerSentEvent<ProdutoEstoqueBaixoEventDTO>> transitions = produtoEstoqueBaixoWatchlist
+            .stream()
+            .map(event -> ServerSentEvent.builder(event).event(event.getType().name().toLowerCase(Locale.ROOT)).build());
+        return ServerSentEvents.withKeepAlive(transitions);
+    }
+
+    /**
+     * {@code POST  /produtos/import} : import produtos from a CSV or NDJSON file.
+     * <p>
+     * The file is sent either as the {@code file} part of a multipart request, or as the request body with a
+     * {@code text/csv} or {@code application/x-ndjson} content type. Rows with an id update the existing produto (or
+     * create it with this id), the others create a produto.
+     * <p>
+     * The file is imported as it is uploaded, so the response only comes once it is fully processed: the id of the import
+     * is not known to the client before then. The progress of a running import is available meanwhile among those of
+     * {@code GET /produtos/import}.
+     *
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the report of the import,
+     * or with status {@code 400 (Bad Request)} if there is no file, its format is not supported or its CSV header is invalid.
+     */
+    @PostMapping(
+        value = "/produtos/import",
+        consumes = { MediaType.MULTIPART_FORM_DATA_VALUE, "text/csv", MediaType.APPLICATION_NDJSON_VALUE }
+    )
+    public Mono<ResponseEntity<ProdutoImportJobDTO>> importProdutos(ServerHttpRequest request) {
+        log.debug("REST request to import Produtos");
+        Mono<ProdutoImportJobDTO> report;
+        if (MediaType.MULTIPART_FORM_DATA.isCompatibleWith(request.getHeaders().getContentType())) {
+            // Streamed parts must be consumed in order: the parts before the file are skipped by draining them
+            report =
+                IMPORT_PART_READER
+                    .read(ResolvableType.forClass(Part.class), request, Collections.emptyMap())
+                    .concatMap(part ->
+                        IMPORT_FILE_PART.equals(part.name())
+                            ? importPart(part)
+                            : part.content().doOnNext(DataBufferUtils::release).then(Mono.empty())
+                    )
+                    .next()
+                    .switchIfEmpty(Mono.error(new BadRequestAlertException("No file part to import", ENTITY_NAME, "importnofile")));
+        } else {
+            report = produtoImportService.importProdutos(request.getBody(), importFormat(request.getHeaders().getContentType(), null));
+        }
+        return report
+            .onErrorMap(
+                ProdutoImportService.InvalidFileException.class,
+                e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalidfile")
+            )
+            .map(result ->
+                ResponseEntity
+                    .created(UriComponentsBuilder.fromPath("/api/produtos/import/{id}").buildAndExpand(result.getId()).toUri())
+                    .body(result)
+            );
+    }
+
+    /**
+     * {@code GET  /produtos/import} : get the running and last finished imports.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of imports in body, most recent first.
+     */
+    @GetMapping("/produtos/import")
+    public ResponseEntity<List<ProdutoImportJobDTO>> getProdutoImports() {
+        log.debug("REST request to get the Produto imports");
+        return ResponseEntity.ok(produtoImportService.getJobs());
+    }
+
+    /**
+     * {@code GET  /produtos/import/:id} : get the progress or report of an import.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/produtos/import/{id}")
+    public Mono<ResponseEntity<ProdutoImportJobDTO>> getProdutoImport(@PathVariable String id) {
+        log.debug("REST request to get the Produto import : {}", id);
+        return ResponseUtil.wrapOrNotFound(Mono.justOrEmpty(produtoImportService.getJob(id)));
+    }
+
+    private Mono<ProdutoImportJobDTO> importPart(Part part) {
+        String filename = part instanceof FilePart ? ((FilePart) part).filename() : null;
+        return produtoImportService.importProdutos(part.content(), importFormat(part.headers().getContentType(), filename));
+    }
+
+    private static ProdutoImportService.Format importFormat(MediaType contentType, String filename) {
+        return ProdutoImportService.Format
+            .of(contentType, filename)
+            .orElseThrow(() -> new BadRequestAlertException("Only CSV and NDJSON files can be imported", ENTITY_NAME, "importformat"));
+    }
+
+    /**
+     * {@code GET  /produtos?ids=:ids} : get the produtos with the given ids.
+     *
+     * @param ids the ids of the produtos, at most {@value #MAX_MULTI_GET_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the produtos found in body, in the order of their ids.
+     */
+    @GetMapping(value = "/produtos", params = "ids")
+    public Mono<ResponseEntity<List<ProdutoDTO>>> getProdutosById(@RequestParam List<Long> ids) {
+        log.debug("REST request to get Produtos : {}", ids);
+        return findAllById(ids);
+    }
+
+    /**
+     * {@code POST  /produtos/_mget} : get the produtos with the ids in body, for lists of ids too long for a query string.
+     *
+     * @param ids the ids of the produtos, at most {@value #MAX_MULTI_GET_IDS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the produtos found in body, in the order of their ids.
+     */
+    @PostMapping("/produtos/_mget")
+    public Mono<ResponseEntity<List<ProdutoDTO>>> multiGetProdutos(@RequestBody List<Long> ids) {
+        log.debug("REST request to get Produtos : {}", ids);
+        return findAllById(ids);
+    }
+
+    private Mono<ResponseEntity<List<ProdutoDTO>>> findAllById(List<Long> ids) {
+        if (ids.size() > MAX_MULTI_GET_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_MULTI_GET_IDS + " ids can be requested", ENTITY_NAME, "toomanyids");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        return produtoService.findAllById(ids).collectList().map(ResponseEntity::ok);
+    }
+
+    /**
+     * {@code GET  /produtos/count} : count all the produtos matching the criteria.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/produtos/count")
+    public Mono<ResponseEntity<Long>> countProdutos(ProdutoCriteria criteria) {
+        log.debug("REST request to count Produtos by criteria: {}", criteria);
+        return produtoService.countByCriteria(criteria).map(count -> ResponseEntity.status(HttpStatus.OK).body(count));
+    }
+
     /**
      * {@code GET  /produtos/:id} : get the "id" produto.
      *
@@ -0,0 +1,28 @@
+package br.com.join.web.rest;
+
+import java.time.Duration;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+/**
+ * Helpers shared by the server-sent event streams.
+ */
+final class ServerSentEvents {
+
+    // Sent on idle streams, so that proxies do not close them
+    static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(30);
+
+    private ServerSentEvents() {}
+
+    /**
+     * @param events the events of a stream.
+     * @param <T> the type of the event data.
+     * @return the events, merged with a {@code keep-alive} comment every {@link #KEEP_ALIVE_INTERVAL}.
+     */
+    static <T> Flux<ServerSentEvent<T>> withKeepAlive(Flux<ServerSentEvent<T>> events) {
+        Flux<ServerSentEvent<T>> keepAlive = Flux
+            .interval(KEEP_ALIVE_INTERVAL)
+            .map(tick -> ServerSentEvent.<T>builder().comment("keep-alive").build());
+        return Flux.merge(events, keepAlive);
+    }
+}
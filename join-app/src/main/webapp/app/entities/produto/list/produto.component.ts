@@ -1,7 +1,7 @@
 import { Component, OnInit } from '@angular/core';
 import { HttpHeaders } from '@angular/common/http';
 import { ActivatedRoute, Data, ParamMap, Router } from '@angular/router';
-import { combineLatest, filter, Observable, switchMap, tap } from 'rxjs';
+import { catchError, combineLatest, filter, Observable, switchMap, tap } from 'rxjs';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
 import { IProduto } from '../produto.model';
@@ -9,6 +9,7 @@ import { IProduto } from '../produto.model';
 import { ITEMS_PER_PAGE, PAGE_HEADER, TOTAL_COUNT_RESPONSE_HEADER } from 'app/config/pagination.constants';
 import { ASC, DESC, SORT, ITEM_DELETED_EVENT, DEFAULT_SORT_DATA } from 'app/config/navigation.constants';
 import { EntityArrayResponseType, ProdutoService } from '../service/produto.service';
+import { ProdutoOfflineStoreService } from '../service/produto-offline-store.service';
 import { ProdutoDeleteDialogComponent } from '../delete/produto-delete-dialog.component';
 
 @Component({
@@ -28,6 +29,7 @@ export class ProdutoComponent implements OnInit {
 
   constructor(
     protected produtoService: ProdutoService,
+    protected produtoOfflineStore: ProdutoOfflineStoreService,
     protected activatedRoute: ActivatedRoute,
     public router: Router,
     protected modalService: NgbModal
@@ -109,7 +111,11 @@ export class ProdutoComponent implements OnInit {
       eagerload: true,
       sort: this.getSortQueryParam(predicate, ascending),
     };
-    return this.produtoService.query(queryObject).pipe(tap(() => (this.isLoading = false)));
+    // Pages are served from the offline copy when the browser has IndexedDB, which only downloads the changes
+    const response = this.produtoOfflineStore.isSupported()
+      ? this.produtoOfflineStore.query(queryObject).pipe(catchError(() => this.produtoService.query(queryObject)))
+      : this.produtoService.query(queryObject);
+    return response.pipe(tap(() => (this.isLoading = false)));
   }
 
   protected handleNavigation(page = this.page, predicate?: string, ascending?: boolean): void {
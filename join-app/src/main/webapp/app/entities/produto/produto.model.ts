@@ -8,3 +8,10 @@ export interface IProduto {
 }
 
 export type NewProduto = Omit<IProduto, 'id'> & { id: null };
+
+export interface IProdutoDelta {
+  token: string;
+  reset: boolean;
+  produtos: IProduto[];
+  deletedIds: number[];
+}
@@ -0,0 +1,125 @@
+import { TestBed } from '@angular/core/testing';
+import { HttpErrorResponse, HttpResponse } from '@angular/common/http';
+import { HttpClientTestingModule } from '@angular/common/http/testing';
+import { of, throwError } from 'rxjs';
+
+import { IProduto, IProdutoDelta } from '../produto.model';
+import { ProdutoService } from './produto.service';
+import { ProdutoOfflineStoreService, toPage } from './produto-offline-store.service';
+
+class InMemoryProdutoOfflineStoreService extends ProdutoOfflineStoreService {
+  token: string | null = null;
+  produtos = new Map<number, IProduto>();
+
+  protected readToken(): Promise<string | null> {
+    return Promise.resolve(this.token);
+  }
+
+  protected readAll(): Promise<IProduto[]> {
+    return Promise.resolve([...this.produtos.values()]);
+  }
+
+  protected deleteAll(): Promise<void> {
+    this.token = null;
+    this.produtos.clear();
+    return Promise.resolve();
+  }
+
+  protected apply(delta: IProdutoDelta): Promise<IProduto[]> {
+    if (delta.reset) {
+      this.produtos.clear();
+    }
+    delta.deletedIds.forEach(id => this.produtos.delete(id));
+    delta.produtos.forEach(produto => this.produtos.set(produto.id, produto));
+    this.token = delta.token;
+    return this.readAll();
+  }
+}
+
+describe('Produto Offline Store Service', () => {
+  let store: InMemoryProdutoOfflineStoreService;
+  let produtoService: ProdutoService;
+
+  beforeEach(() => {
+    TestBed.configureTestingModule({
+      imports: [HttpClientTestingModule],
+    });
+    produtoService = TestBed.inject(ProdutoService);
+    store = new InMemoryProdutoOfflineStoreService(produtoService);
+  });
+
+  it('should apply the changes since the last sync', done => {
+    store.token = '1';
+    store.produtos.set(1, { id: 1, nome: 'Arroz' });
+    store.produtos.set(2, { id: 2, nome: 'Feijão' });
+    const delta: IProdutoDelta = { token: '2', reset: false, produtos: [{ id: 1, nome: 'Arroz integral' }], deletedIds: [2] };
+    const deltaSpy = jest.spyOn(produtoService, 'delta').mockReturnValue(of(new HttpResponse({ body: delta })));
+
+    store.sync().subscribe(produtos => {
+      expect(deltaSpy).toHaveBeenCalledWith('1');
+      expect(produtos).toEqual([{ id: 1, nome: 'Arroz integral' }]);
+      expect(store.token).toBe('2');
+      done();
+    });
+  });
+
+  it('should serve the local copy when the server is unreachable', done => {
+    store.token = '1';
+    store.produtos.set(1, { id: 1, nome: 'Arroz' });
+    jest.spyOn(produtoService, 'delta').mockReturnValue(throwError(() => new HttpErrorResponse({ status: 0 })));
+
+    store.sync().subscribe(produtos => {
+      expect(produtos).toEqual([{ id: 1, nome: 'Arroz' }]);
+      done();
+    });
+  });
+
+  it('should not serve the local copy when the server answers with an error', done => {
+    store.token = '1';
+    store.produtos.set(1, { id: 1, nome: 'Arroz' });
+    jest.spyOn(produtoService, 'delta').mockReturnValue(throwError(() => new HttpErrorResponse({ status: 401 })));
+
+    store.sync().subscribe({
+      error: error => {
+        expect(error.status).toBe(401);
+        done();
+      },
+    });
+  });
+
+  it('should clear the local copy and its token', done => {
+    store.token = '1';
+    store.produtos.set(1, { id: 1, nome: 'Arroz' });
+
+    store.clear().subscribe(() => {
+      expect(store.token).toBeNull();
+      expect(store.produtos.size).toBe(0);
+      done();
+    });
+  });
+
+  it('should fail when there is no local copy and the server is unreachable', done => {
+    jest.spyOn(produtoService, 'delta').mockReturnValue(throwError(() => new Error('offline')));
+
+    store.sync().subscribe({
+      error: error => {
+        expect(error.message).toBe('offline');
+        done();
+      },
+    });
+  });
+
+  it('should sort and page the produtos', () => {
+    const produtos: IProduto[] = [
+      { id: 1, nome: 'Arroz', categoria: { id: 1, nome: 'Grãos' } },
+      { id: 2, nome: 'Sabão', categoria: { id: 2, nome: 'Limpeza' } },
+      { id: 3, nome: 'Feijão', categoria: { id: 1, nome: 'Grãos' } },
+    ];
+
+    const page = toPage(produtos, { page: 0, size: 2, sort: ['categoria.nome,desc'] });
+
+    expect(page.body?.map(produto => produto.id)).toEqual([2, 1]);
+    expect(page.headers.get('X-Total-Count')).toBe('3');
+    expect(toPage(produtos, { page: 1, size: 2, sort: ['nome,asc'] }).body?.map(produto => produto.id)).toEqual([2]);
+  });
+});
@@ -0,0 +1,180 @@
+import { Injectable } from '@angular/core';
+import { HttpErrorResponse, HttpHeaders, HttpResponse } from '@angular/common/http';
+import { catchError, from, map, Observable, of, switchMap, throwError } from 'rxjs';
+
+import { TOTAL_COUNT_RESPONSE_HEADER } from 'app/config/pagination.constants';
+import { DESC } from 'app/config/navigation.constants';
+import { IProduto, IProdutoDelta } from '../produto.model';
+import { EntityArrayResponseType, ProdutoService } from './produto.service';
+
+const DATABASE_NAME = 'join-produtos';
+const DATABASE_VERSION = 1;
+const PRODUTO_STORE = 'produtos';
+const META_STORE = 'meta';
+const TOKEN_KEY = 'token';
+
+export interface ProdutoPageRequest {
+  page?: number;
+  size?: number;
+  sort?: string[];
+}
+
+/**
+ * Keeps a copy of the produto catalog in IndexedDB, brought up to date with `GET /api/produtos/delta`: after the first
+ * load, only the changes since the last sync are downloaded. The copy is still served when the server is unreachable,
+ * and cleared on logout.
+ */
+@Injectable({ providedIn: 'root' })
+export class ProdutoOfflineStoreService {
+  private database?: Promise<IDBDatabase>;
+
+  constructor(protected produtoService: ProdutoService) {}
+
+  isSupported(): boolean {
+    return typeof indexedDB !== 'undefined';
+  }
+
+  /**
+   * Syncs the local copy, then pages and sorts it as `GET /api/produtos` would.
+   */
+  query(req: ProdutoPageRequest): Observable<EntityArrayResponseType> {
+    return this.sync().pipe(map(produtos => toPage(produtos, req)));
+  }
+
+  /**
+   * Applies the changes since the last sync to the local copy.
+   *
+   * @returns all the produtos of the local copy, even when the server could not be reached, unless there is none yet;
+   * the other errors, such as an expired session, are not hidden behind the copy.
+   */
+  sync(): Observable<IProduto[]> {
+    return from(this.readToken()).pipe(
+      switchMap(token =>
+        this.produtoService.delta(token).pipe(
+          switchMap(response => from(this.apply(response.body!))),
+          catchError(error => (token && isUnreachable(error) ? from(this.readAll()) : throwError(() => error)))
+        )
+      )
+    );
+  }
+
+  /**
+   * Deletes the local copy and its token, so that the next user of the browser starts from a full load.
+   */
+  clear(): Observable<void> {
+    return this.isSupported() ? from(this.deleteAll()) : of(undefined);
+  }
+
+  protected open(): Promise<IDBDatabase> {
+    if (!this.database) {
+      this.database = new Promise((resolve, reject) => {
+        const request = indexedDB.open(DATABASE_NAME, DATABASE_VERSION);
+        request.onupgradeneeded = () => {
+          request.result.createObjectStore(PRODUTO_STORE, { keyPath: 'id' });
+          request.result.createObjectStore(META_STORE);
+        };
+        request.onsuccess = () => resolve(request.result);
+        request.onerror = () => reject(request.error);
+      });
+    }
+    return this.database;
+  }
+
+  protected async readToken(): Promise<string | null> {
+    const database = await this.open();
+    return new Promise((resolve, reject) => {
+      const request = database.transaction(META_STORE).objectStore(META_STORE).get(TOKEN_KEY);
+      request.onsuccess = () => resolve((request.result as string | undefined) ?? null);
+      request.onerror = () => reject(request.error);
+    });
+  }
+
+  protected async readAll(): Promise<IProduto[]> {
+    const database = await this.open();
+    return new Promise((resolve, reject) => {
+      const request = database.transaction(PRODUTO_STORE).objectStore(PRODUTO_STORE).getAll();
+      request.onsuccess = () => resolve(request.result as IProduto[]);
+      request.onerror = () => reject(request.error);
+    });
+  }
+
+  protected async deleteAll(): Promise<void> {
+    const database = await this.open();
+    await new Promise<void>((resolve, reject) => {
+      const transaction = database.transaction([PRODUTO_STORE, META_STORE], 'readwrite');
+      transaction.objectStore(PRODUTO_STORE).clear();
+      transaction.objectStore(META_STORE).clear();
+      transaction.oncomplete = () => resolve();
+      transaction.onerror = () => reject(transaction.error);
+      transaction.onabort = () => reject(transaction.error);
+    });
+  }
+
+  /**
+   * Writes the changes and their token in a single transaction, so that the copy never gets ahead or behind its token.
+   */
+  protected async apply(delta: IProdutoDelta): Promise<IProduto[]> {
+    const database = await this.open();
+    await new Promise<void>((resolve, reject) => {
+      const transaction = database.transaction([PRODUTO_STORE, META_STORE], 'readwrite');
+      const produtos = transaction.objectStore(PRODUTO_STORE);
+      if (delta.reset) {
+        produtos.clear();
+      }
+      delta.deletedIds.forEach(id => produtos.delete(id));
+      delta.produtos.forEach(produto => produtos.put(produto));
+      transaction.objectStore(META_STORE).put(delta.token, TOKEN_KEY);
+      transaction.oncomplete = () => resolve();
+      transaction.onerror = () => reject(transaction.error);
+      transaction.onabort = () => reject(transaction.error);
+    });
+    return this.readAll();
+  }
+}
+
+// A status of 0 is a network failure, before any response
+const isUnreachable = (error: unknown): boolean => error instanceof HttpErrorResponse && error.status === 0;
+
+/**
+ * Sorts and pages the produtos, with the total count in the `X-Total-Count` header as `GET /api/produtos`.
+ */
+export const toPage = (produtos: IProduto[], req: ProdutoPageRequest): EntityArrayResponseType => {
+  const [predicate, direction] = (req.sort?.[0] ?? 'id').split(',');
+  const sign = direction === DESC ? -1 : 1;
+  const sorted = [...produtos].sort((a, b) => sign * compare(sortValue(a, predicate), sortValue(b, predicate)) || a.id - b.id);
+  const size = req.size ?? sorted.length;
+  const start = (req.page ?? 0) * size;
+  return new HttpResponse({
+    body: sorted.slice(start, start + size),
+    headers: new HttpHeaders({ [TOTAL_COUNT_RESPONSE_HEADER]: String(sorted.length) }),
+  });
+};
+
+const sortValue = (produto: IProduto, predicate: string): string | number | null | undefined => {
+  switch (predicate) {
+    case 'nome':
+      return produto.nome;
+    case 'quantidade':
+      return produto.quantidade;
+    case 'categoria.nome':
+      return produto.categoria?.nome;
+    default:
+      return produto.id;
+  }
+};
+
+const compare = (a: string | number | null | undefined, b: string | number | null | undefined): number => {
+  if (a === b) {
+    return 0;
+  }
+  if (a === null || a === undefined) {
+    return -1;
+  }
+  if (b === null || b === undefined) {
+    return 1;
+  }
+  if (typeof a === 'string' && typeof b === 'string') {
+    return a.localeCompare(b);
+  }
+  return a < b ? -1 : 1;
+};
@@ -86,6 +86,16 @@ describe('Produto Service', () => {
       expect(expectedResult).toMatchObject([expected]);
     });
 
+    it('should return the changes since a token', () => {
+      const returnedFromService = { token: '2', reset: false, produtos: [{ ...requireRestSample }], deletedIds: [456] };
+
+      service.delta('1').subscribe(resp => (expectedResult = resp.body?.deletedIds.includes(456) ?? false));
+
+      const req = httpMock.expectOne(request => request.method === 'GET' && request.params.get('since') === '1');
+      req.flush(returnedFromService);
+      expect(expectedResult).toBe(true);
+    });
+
     it('should delete a Produto', () => {
       const expected = true;
 
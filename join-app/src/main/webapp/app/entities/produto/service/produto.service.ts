@@ -5,7 +5,7 @@ import { Observable } from 'rxjs';
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 import { createRequestOption } from 'app/core/request/request-util';
-import { IProduto, NewProduto } from '../produto.model';
+import { IProduto, IProdutoDelta, NewProduto } from '../produto.model';
 
 export type PartialUpdateProduto = Partial<IProduto> & Pick<IProduto, 'id'>;
 
@@ -39,6 +39,11 @@ export class ProdutoService {
     return this.http.get<IProduto[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
+  delta(since?: string | null): Observable<HttpResponse<IProdutoDelta>> {
+    const options = createRequestOption({ since });
+    return this.http.get<IProdutoDelta>(`${this.resourceUrl}/delta`, { params: options, observe: 'response' });
+  }
+
   delete(id: number): Observable<HttpResponse<{}>> {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
@@ -1,12 +1,18 @@
 import { Injectable } from '@angular/core';
 import { Location } from '@angular/common';
+import { catchError, map, of, switchMap } from 'rxjs';
 
 import { AuthServerProvider } from 'app/core/auth/auth-session.service';
+import { ProdutoOfflineStoreService } from 'app/entities/produto/service/produto-offline-store.service';
 import { Logout } from './logout.model';
 
 @Injectable({ providedIn: 'root' })
 export class LoginService {
-  constructor(private location: Location, private authServerProvider: AuthServerProvider) {}
+  constructor(
+    private location: Location,
+    private authServerProvider: AuthServerProvider,
+    private produtoOfflineStore: ProdutoOfflineStoreService
+  ) {}
 
   login(): void {
     // If you have configured multiple OIDC providers, then, you can update this URL to /login.
@@ -15,8 +21,19 @@ export class LoginService {
   }
 
   logout(): void {
-    this.authServerProvider.logout().subscribe((logout: Logout) => {
-      window.location.href = logout.logoutUrl;
-    });
+    this.authServerProvider
+      .logout()
+      .pipe(
+        // The local copy of the catalog is not left to the next user, nor does its failure prevent the logout
+        switchMap((logout: Logout) =>
+          this.produtoOfflineStore.clear().pipe(
+            catchError(() => of(undefined)),
+            map(() => logout)
+          )
+        )
+      )
+      .subscribe((logout: Logout) => {
+        window.location.href = logout.logoutUrl;
+      });
   }
 }
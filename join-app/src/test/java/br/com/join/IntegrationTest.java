@@ -3,6 +3,7 @@ package br.com.join;
 import br.com.join.JoinAppApp;
 import br.com.join.config.AsyncSyncConfiguration;
 import br.com.join.config.EmbeddedSQL;
+import br.com.join.config.QueryPlanAdvisor;
 import br.com.join.config.TestSecurityConfiguration;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -16,7 +17,9 @@ import org.springframework.test.annotation.DirtiesContext;
  */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
-@SpringBootTest(classes = { JoinAppApp.class, AsyncSyncConfiguration.class, TestSecurityConfiguration.class })
+@SpringBootTest(
+    classes = { JoinAppApp.class, AsyncSyncConfiguration.class, TestSecurityConfiguration.class, QueryPlanAdvisor.class }
+)
 @EmbeddedSQL
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 public @interface IntegrationTest {
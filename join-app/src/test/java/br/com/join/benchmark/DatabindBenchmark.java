@@ -0,0 +1,144 @@
+package br.com.join.benchmark;
+
+import br.com.join.config.JacksonConfiguration;
+import br.com.join.service.dto.AdminUserDTO;
+import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.ProdutoDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON encoding and decoding time of the DTOs of the lists with the reflective bean accessors of Jackson against the
+ * lambdas generated by the Blackbird module.
+ * <p>
+ * The mappers get the modules and mix-ins of {@link JacksonConfiguration}, Blackbird aside.
+ * <p>
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.join.benchmark.DatabindBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabindBenchmark {
+
+    private static final int SIZE = 1000;
+
+    private static final TypeReference<List<ProdutoDTO>> PRODUTOS = new TypeReference<>() {};
+
+    private static final TypeReference<List<AdminUserDTO>> USERS = new TypeReference<>() {};
+
+    @Param({ "reflection", "blackbird" })
+    private String accessors;
+
+    private ObjectMapper mapper;
+
+    private List<ProdutoDTO> produtos;
+
+    private List<AdminUserDTO> users;
+
+    private byte[] encodedProdutos;
+
+    private byte[] encodedUsers;
+
+    @Setup
+    public void setup() throws IOException {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        List<Module> modules = new ArrayList<>(List.of(configuration.javaTimeModule(), configuration.jdk8TimeModule()));
+        if ("blackbird".equals(accessors)) {
+            modules.add(configuration.blackbirdModule());
+        }
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder().modules(modules);
+        configuration.fieldsProjectionCustomizer().customize(builder);
+        mapper = builder.build();
+        produtos = produtos();
+        users = users();
+        encodedProdutos = mapper.writeValueAsBytes(produtos);
+        encodedUsers = mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] encodeProdutos() throws IOException {
+        return mapper.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public List<ProdutoDTO> decodeProdutos() throws IOException {
+        return mapper.readValue(encodedProdutos, PRODUTOS);
+    }
+
+    @Benchmark
+    public byte[] encodeUsers() throws IOException {
+        return mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> decodeUsers() throws IOException {
+        return mapper.readValue(encodedUsers, USERS);
+    }
+
+    private static List<ProdutoDTO> produtos() {
+        List<ProdutoDTO> produtos = new ArrayList<>(SIZE);
+        for (int i = 1; i <= SIZE; i++) {
+            CategoriaDTO categoria = new CategoriaDTO();
+            categoria.setId((long) (i % 10 + 1));
+            categoria.setNome("Categoria " + (i % 10 + 1));
+            ProdutoDTO produto = new ProdutoDTO();
+            produto.setId((long) i);
+            produto.setNome("Produto " + i);
+            produto.setQuantidade(i % 500);
+            produto.setCategoria(categoria);
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+
+    private static List<AdminUserDTO> users() {
+        List<AdminUserDTO> users = new ArrayList<>(SIZE);
+        Instant now = Instant.now();
+        for (int i = 1; i <= SIZE; i++) {
+            AdminUserDTO user = new AdminUserDTO();
+            user.setId("user-" + i);
+            user.setLogin("user" + i);
+            user.setFirstName("First " + i);
+            user.setLastName("Last " + i);
+            user.setEmail("user" + i + "@localhost");
+            user.setActivated(true);
+            user.setLangKey("pt-br");
+            user.setCreatedBy("system");
+            user.setCreatedDate(now);
+            user.setLastModifiedBy("system");
+            user.setLastModifiedDate(now);
+            user.setAuthorities(Set.of("ROLE_USER"));
+            users.add(user);
+        }
+        return users;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DatabindBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.join.benchmark;
+
+import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.ProdutoDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding and decoding time of a list of {@link ProdutoDTO}s in JSON against CBOR and Smile, as negotiated on
+ * {@code /api/**}; the payload sizes are printed before the run.
+ * <p>
+ * The mappers are built as in {@link br.com.join.config.JacksonConfiguration}, without the Spring codecs around them,
+ * so this measures the formats, not the buffer handling.
+ * <p>
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.join.benchmark.SerializationFormatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    private static final TypeReference<List<ProdutoDTO>> PRODUTOS = new TypeReference<>() {};
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    // A page, and a batch of an integration client
+    @Param({ "20", "1000" })
+    private int size;
+
+    private ObjectMapper mapper;
+
+    private List<ProdutoDTO> produtos;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = mapper(format);
+        produtos = produtos(size);
+        encoded = mapper.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public List<ProdutoDTO> decode() throws IOException {
+        return mapper.readValue(encoded, PRODUTOS);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "cbor":
+                return mapper(new CBORFactory());
+            case "smile":
+                return mapper(new SmileFactory());
+            default:
+                return mapper(new JsonFactory());
+        }
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return new Jackson2ObjectMapperBuilder().factory(factory).build();
+    }
+
+    private static List<ProdutoDTO> produtos(int size) {
+        List<ProdutoDTO> produtos = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            CategoriaDTO categoria = new CategoriaDTO();
+            categoria.setId((long) (i % 10 + 1));
+            categoria.setNome("Categoria " + (i % 10 + 1));
+            ProdutoDTO produto = new ProdutoDTO();
+            produto.setId((long) i);
+            produto.setNome("Produto " + i);
+            produto.setQuantidade(i % 500);
+            produto.setCategoria(categoria);
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        for (int size : new int[] { 20, 1000 }) {
+            int json = mapper("json").writeValueAsBytes(produtos(size)).length;
+            for (String format : new String[] { "json", "cbor", "smile" }) {
+                int bytes = mapper(format).writeValueAsBytes(produtos(size)).length;
+                System.out.printf("%-5s %4d produtos: %7d bytes (%3d%% of JSON)%n", format, size, bytes, bytes * 100 / json);
+            }
+        }
+        new Runner(new OptionsBuilder().include(SerializationFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.join.benchmark;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.web.filter.MappedStaticResourceWebFilter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.resource.ResourceWebHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.i18n.LocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throughput of the {@link MappedStaticResourceWebFilter} against Spring's {@link ResourceWebHandler} for an i18n bundle.
+ * <p>
+ * Both run against mock exchanges, so this measures the per-request work done by the handlers (resolution, buffer
+ * copies), not the socket transfer; use a load generator against a running server for end-to-end numbers.
+ * <p>
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.join.benchmark.StaticResourceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaticResourceBenchmark {
+
+    private static final String PATH = "/i18n/en.json";
+
+    private ResourceWebHandler resourceWebHandler;
+
+    private MappedStaticResourceWebFilter mappedFilter;
+
+    // Shared so that the exchange set-up does not dominate the measurement, as MockServerWebExchange.from would
+    private final WebSessionManager sessionManager = new DefaultWebSessionManager();
+    private final ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+    private final LocaleContextResolver localeContextResolver = new AcceptHeaderLocaleContextResolver();
+
+    @Setup
+    public void setup() throws Exception {
+        resourceWebHandler = new ResourceWebHandler();
+        resourceWebHandler.setLocations(List.of(new ClassPathResource("static-fixture/")));
+        resourceWebHandler.afterPropertiesSet();
+        mappedFilter = new MappedStaticResourceWebFilter(new ApplicationProperties.StaticResources(), "static-fixture");
+    }
+
+    @Benchmark
+    public Long resourceWebHandler() {
+        ServerWebExchange exchange = exchange();
+        exchange.getAttributes().put(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, PathContainer.parsePath(PATH.substring(1)));
+        resourceWebHandler.handle(exchange).block();
+        return exchange.getResponse().getHeaders().getContentLength();
+    }
+
+    @Benchmark
+    public Long mappedStaticResourceWebFilter() {
+        ServerWebExchange exchange = exchange();
+        mappedFilter.filter(exchange, e -> Mono.error(new IllegalStateException("Not mapped: " + PATH))).block();
+        return exchange.getResponse().getHeaders().getContentLength();
+    }
+
+    private ServerWebExchange exchange() {
+        return new DefaultServerWebExchange(
+            MockServerHttpRequest.get(PATH).build(),
+            new MockServerHttpResponse(),
+            sessionManager,
+            codecConfigurer,
+            localeContextResolver
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StaticResourceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.join.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.web.rest.FieldsProjection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the modules and binary codecs of the {@link JacksonConfiguration}.
+ */
+class JacksonConfigurationTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final ResolvableType PRODUTOS = ResolvableType.forType(new ParameterizedTypeReference<List<ProdutoDTO>>() {});
+
+    private final ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        ObjectProvider<Jackson2ObjectMapperBuilder> builders = mock(ObjectProvider.class);
+        when(builders.getObject())
+            .thenAnswer(invocation -> {
+                Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+                configuration.fieldsProjectionCustomizer().customize(builder);
+                return builder;
+            });
+        configuration.binaryCodecsCustomizer(builders).customize(configurer);
+    }
+
+    @Test
+    void shouldSerializeTheSameWithBlackbird() throws Exception {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        Jackson2ObjectMapperBuilder reflective = new Jackson2ObjectMapperBuilder();
+        configuration.fieldsProjectionCustomizer().customize(reflective);
+        Jackson2ObjectMapperBuilder blackbird = new Jackson2ObjectMapperBuilder().modulesToInstall(configuration.blackbirdModule());
+        configuration.fieldsProjectionCustomizer().customize(blackbird);
+        List<ProdutoDTO> produtos = List.of(produto(1L, "Arroz"), produto(2L, "Feijão"));
+
+        String json = blackbird.build().writeValueAsString(produtos);
+
+        assertThat(json).isEqualTo(reflective.build().writeValueAsString(produtos));
+        assertThat(blackbird.build().readValue(json, ProdutoDTO[].class))
+            .extracting(ProdutoDTO::getNome)
+            .containsExactly("Arroz", "Feijão");
+    }
+
+    @Test
+    void shouldKeepJsonForJson() {
+        ResolvableType type = ResolvableType.forClass(ProdutoDTO.class);
+        assertThat(configurer.getWriters().stream().filter(writer -> writer.canWrite(type, MediaType.APPLICATION_JSON)).findFirst())
+            .hasValueSatisfying(writer -> assertThat(writer.getWritableMediaTypes(type)).doesNotContain(CBOR, SMILE));
+    }
+
+    @Test
+    void shouldRoundTripTheProdutosInCbor() {
+        List<ProdutoDTO> produtos = List.of(produto(1L, "Arroz"), produto(2L, "Feijão"));
+
+        MockServerHttpResponse response = write(Mono.just(produtos), PRODUTOS, CBOR);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(CBOR);
+        assertThat(read(response, CBOR)).isEqualTo(produtos);
+    }
+
+    @Test
+    void shouldWriteTheStreamsInCborAsArrays() {
+        List<ProdutoDTO> produtos = List.of(produto(1L, "Arroz"), produto(2L, "Feijão"));
+
+        MockServerHttpResponse response = write(Flux.fromIterable(produtos), ResolvableType.forClass(ProdutoDTO.class), CBOR);
+
+        assertThat(read(response, CBOR)).isEqualTo(produtos);
+    }
+
+    @Test
+    void shouldNarrowTheProjectedFieldsInSmile() {
+        Object body = FieldsProjection.narrow(List.of(produto(1L, "Arroz")), Set.of("id"));
+
+        MockServerHttpResponse response = write(Mono.just(body), ResolvableType.forClass(body.getClass()), SMILE);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(SMILE);
+        List<ProdutoDTO> produtos = read(response, SMILE);
+        assertThat(produtos).extracting(ProdutoDTO::getId, ProdutoDTO::getNome).containsExactly(tuple(1L, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MockServerHttpResponse write(Publisher<?> body, ResolvableType type, MediaType mediaType) {
+        HttpMessageWriter<Object> writer = (HttpMessageWriter<Object>) configurer
+            .getWriters()
+            .stream()
+            .filter(candidate -> candidate.canWrite(type, mediaType))
+            .findFirst()
+            .orElseThrow();
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        writer.write((Publisher<Object>) body, type, mediaType, response, Collections.emptyMap()).block();
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProdutoDTO> read(MockServerHttpResponse response, MediaType mediaType) {
+        HttpMessageReader<List<ProdutoDTO>> reader = (HttpMessageReader<List<ProdutoDTO>>) configurer
+            .getReaders()
+            .stream()
+            .filter(candidate -> candidate.canRead(PRODUTOS, mediaType))
+            .findFirst()
+            .orElseThrow();
+        MockServerHttpRequest request = MockServerHttpRequest.post("/api/produtos/_mget").contentType(mediaType).body(response.getBody());
+        return reader.readMono(PRODUTOS, request, Collections.emptyMap()).block();
+    }
+
+    private static ProdutoDTO produto(Long id, String nome) {
+        CategoriaDTO categoria = new CategoriaDTO();
+        categoria.setId(10L);
+        categoria.setNome("Grãos");
+        ProdutoDTO produto = new ProdutoDTO();
+        produto.setId(id);
+        produto.setNome(nome);
+        produto.setQuantidade(5);
+        produto.setCategoria(categoria);
+        return produto;
+    }
+}
@@ -0,0 +1,260 @@
+package br.com.join.config;
+
+import br.com.join.repository.EntityManager;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test-time index advisor: runs {@code EXPLAIN} on every paged or filtered query sent to the entity tables through
+ * R2DBC, before executing it, and fails the query when:
+ * <ul>
+ *     <li>a table is fully scanned to evaluate the where clause while no index could be used for it, unless the query is
+ *     one of the {@link #ALLOWED_SCANS};</li>
+ *     <li>a page is sorted on a column which does not lead any index.</li>
+ * </ul>
+ * Plans are taken from the test container, so the decisions are those of the real optimizer; on tables this small it
+ * may still prefer a scan to a usable index, which is why the first rule only fails when no index was even considered
+ * ({@code possible_keys}).
+ */
+public class QueryPlanAdvisor implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanAdvisor.class);
+
+    private static final Set<String> CHECKED_TABLES = Set.of("produto", "categoria");
+
+    private static final Set<String> KEYWORDS = Set.of("WHERE", "LEFT", "RIGHT", "INNER", "OUTER", "JOIN", "ON", "ORDER", "GROUP", "LIMIT");
+
+    private static final Pattern TABLES = Pattern.compile("(?:FROM|JOIN)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+
+    private static final List<Pattern> ALLOWED_SCANS = List.of(
+        // Contains filters, whose leading wildcard cannot use a B-tree index
+        Pattern.compile("\\.nome (NOT )?LIKE ", Pattern.CASE_INSENSITIVE),
+        // Stock per categoria, which sums every produto
+        Pattern.compile("FROM produto WHERE categoria_id IS NOT NULL GROUP BY categoria_id", Pattern.CASE_INSENSITIVE)
+    );
+
+    private static final Pattern ORDER_BY = Pattern.compile("ORDER BY\\s+(?:(\\w+)\\.)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String LEADING_INDEX_QUERY =
+        "SELECT (SELECT COUNT(*) FROM information_schema.statistics s WHERE s.table_schema = c.table_schema" +
+        " AND s.table_name = c.table_name AND s.column_name = c.column_name AND s.seq_in_index = 1)" +
+        " FROM information_schema.columns c WHERE c.table_schema = DATABASE() AND c.table_name = ? AND c.column_name = ?";
+
+    // Whether a table column leads an index; absent for columns which do not exist (e.g. computed aliases)
+    private final Map<String, Boolean> leadingIndexes = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ConnectionFactory) {
+            log.debug("Advising the query plans of the {} connection factory", beanName);
+            return proxy(bean, (proxy, method, args) -> {
+                if (method.getName().equals("create")) {
+                    return Mono.from(((ConnectionFactory) bean).create()).map(this::adviseConnection);
+                }
+                if (method.getName().equals("unwrap") && method.getParameterCount() == 0) {
+                    return bean;
+                }
+                return invoke(bean, method, args);
+            });
+        }
+        return bean;
+    }
+
+    private Connection adviseConnection(Connection connection) {
+        return (Connection) proxy(
+            connection,
+            (proxy, method, args) -> {
+                if (method.getName().equals("createStatement")) {
+                    return adviseStatement(connection, (String) args[0]);
+                }
+                return invoke(connection, method, args);
+            }
+        );
+    }
+
+    private Statement adviseStatement(Connection connection, String sql) {
+        Statement statement = connection.createStatement(sql);
+        if (!isChecked(sql)) {
+            return statement;
+        }
+        List<Object[]> bindings = new ArrayList<>();
+        List<Method> bindMethods = new ArrayList<>();
+        return (Statement) proxy(
+            statement,
+            (proxy, method, args) -> {
+                if (method.getName().startsWith("bind")) {
+                    bindMethods.add(method);
+                    bindings.add(args);
+                }
+                if (method.getName().equals("execute")) {
+                    return explain(connection, sql, bindMethods, bindings).thenMany(Flux.defer(statement::execute));
+                }
+                Object result = invoke(statement, method, args);
+                return result == statement ? proxy : result;
+            }
+        );
+    }
+
+    private static boolean isChecked(String sql) {
+        String upper = sql.toUpperCase(Locale.ROOT);
+        return (
+            upper.startsWith("SELECT") &&
+            (upper.contains(" WHERE ") || upper.contains(" LIMIT ")) &&
+            tables(sql).values().stream().anyMatch(CHECKED_TABLES::contains)
+        );
+    }
+
+    private Mono<Void> explain(Connection connection, String sql, List<Method> bindMethods, List<Object[]> bindings) {
+        Statement explain = connection.createStatement("EXPLAIN " + sql);
+        for (int i = 0; i < bindMethods.size(); i++) {
+            invoke(explain, bindMethods.get(i), bindings.get(i));
+        }
+        Map<String, String> tables = tables(sql);
+        return Flux
+            .from(explain.execute())
+            .concatMap(result ->
+                result.map((row, metadata) ->
+                    new PlanRow(
+                        row.get("table", String.class),
+                        row.get("type", String.class),
+                        row.get("possible_keys", String.class),
+                        row.get("Extra", String.class)
+                    )
+                )
+            )
+            .collectList()
+            .flatMap(plan -> {
+                for (PlanRow row : plan) {
+                    String table = tables.get(row.table);
+                    if (
+                        CHECKED_TABLES.contains(table) &&
+                        "ALL".equals(row.type) &&
+                        row.possibleKeys == null &&
+                        row.extra != null &&
+                        row.extra.contains("Using where") &&
+                        !isAllowedScan(sql)
+                    ) {
+                        return Mono.error(violation("full scan of " + table + " without any usable index", sql, plan));
+                    }
+                }
+                return checkOrderBy(connection, sql, tables, plan);
+            });
+    }
+
+    private static boolean isAllowedScan(String sql) {
+        return ALLOWED_SCANS.stream().anyMatch(pattern -> pattern.matcher(sql).find());
+    }
+
+    private Mono<Void> checkOrderBy(Connection connection, String sql, Map<String, String> tables, List<PlanRow> plan) {
+        Matcher orderBy = ORDER_BY.matcher(sql);
+        if (!sql.toUpperCase(Locale.ROOT).contains(" LIMIT ") || !orderBy.find()) {
+            return Mono.empty();
+        }
+        String table;
+        String column = orderBy.group(2);
+        if (orderBy.group(1) != null) {
+            table = tables.get(orderBy.group(1));
+        } else if (column.startsWith(EntityManager.ALIAS_PREFIX)) {
+            // EntityManager sorts on the select aliases of the entity table
+            table = tables.get(EntityManager.ENTITY_ALIAS);
+            column = column.substring(EntityManager.ALIAS_PREFIX.length());
+        } else {
+            return Mono.empty();
+        }
+        if (!CHECKED_TABLES.contains(table)) {
+            return Mono.empty();
+        }
+        String key = table + "." + column;
+        Mono<Boolean> leadingIndex = leadingIndexes.containsKey(key)
+            ? Mono.just(leadingIndexes.get(key))
+            : Flux
+                .from(connection.createStatement(LEADING_INDEX_QUERY).bind(0, table).bind(1, column).execute())
+                .concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class) > 0))
+                .next()
+                .doOnNext(indexed -> leadingIndexes.put(key, indexed));
+        String orderedColumn = key;
+        return leadingIndex
+            .filter(indexed -> !indexed)
+            .flatMap(notIndexed -> Mono.error(violation("page sorted on " + orderedColumn + " which leads no index", sql, plan)));
+    }
+
+    private static IllegalStateException violation(String reason, String sql, List<PlanRow> plan) {
+        String message = "Query plan advisor: " + reason + "\n  " + sql + "\n  " + plan;
+        log.error(message);
+        return new IllegalStateException(message);
+    }
+
+    private static Map<String, String> tables(String sql) {
+        Map<String, String> tables = new HashMap<>();
+        Matcher matcher = TABLES.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            String alias = matcher.group(2);
+            tables.put(alias != null && !KEYWORDS.contains(alias.toUpperCase(Locale.ROOT)) ? alias : table, table);
+        }
+        return tables;
+    }
+
+    private static Object proxy(Object target, InvocationHandler handler) {
+        Class<?>[] interfaces = Arrays
+            .stream(ClassUtils.getAllInterfacesForClass(target.getClass()))
+            .filter(type -> Modifier.isPublic(type.getModifiers()))
+            .toArray(Class<?>[]::new);
+        return Proxy.newProxyInstance(ClassUtils.getDefaultClassLoader(), interfaces, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class PlanRow {
+
+        private final String table;
+        private final String type;
+        private final String possibleKeys;
+        private final String extra;
+
+        private PlanRow(String table, String type, String possibleKeys, String extra) {
+            this.table = table;
+            this.type = type;
+            this.possibleKeys = possibleKeys;
+            this.extra = extra;
+        }
+
+        @Override
+        public String toString() {
+            return table + ": type=" + type + ", possible_keys=" + possibleKeys + ", Extra=" + extra;
+        }
+    }
+}
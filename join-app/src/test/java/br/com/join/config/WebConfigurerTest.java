@@ -0,0 +1,110 @@
+package br.com.join.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.reactive.ResourceHandlerRegistrationCustomizer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import tech.jhipster.config.JHipsterConstants;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the static resource registration of the {@link WebConfigurer}.
+ */
+class WebConfigurerTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    void closeContext() {
+        context.close();
+    }
+
+    @Test
+    void shouldServeTheEncodedSiblingsInProduction() {
+        WebTestClient client = client(JHipsterConstants.SPRING_PROFILE_PRODUCTION);
+
+        client
+            .get()
+            .uri("/app/main.js")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.CONTENT_ENCODING, "br")
+            .expectHeader()
+            .valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .expectBody(String.class)
+            .isEqualTo("br fixture\n");
+        client
+            .get()
+            .uri("/app/main.js")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .exchange()
+            .expectHeader()
+            .valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+            .expectHeader()
+            .valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        client
+            .get()
+            .uri("/app/main.js")
+            .exchange()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.CONTENT_ENCODING)
+            .expectBody(String.class)
+            .isEqualTo("console.log(\"identity\");\n");
+    }
+
+    @Test
+    void shouldServeTheResourcesAsTheyAreInDevelopment() {
+        client(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+            .get()
+            .uri("/app/main.js")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.CONTENT_ENCODING)
+            .expectBody(String.class)
+            .isEqualTo("console.log(\"identity\");\n");
+    }
+
+    private WebTestClient client(String profile) {
+        MockEnvironment env = new MockEnvironment();
+        env.setActiveProfiles(profile);
+        ResourceHandlerRegistrationCustomizer customizer = new WebConfigurer(new JHipsterProperties(), new ApplicationProperties())
+            .registrationCustomizer(env);
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ResourceHandlerRegistrationCustomizer.class, () -> customizer);
+        context.register(ResourceFixture.class);
+        context.refresh();
+        return WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @Configuration
+    @EnableWebFlux
+    static class ResourceFixture implements WebFluxConfigurer {
+
+        private final ResourceHandlerRegistrationCustomizer customizer;
+
+        ResourceFixture(ResourceHandlerRegistrationCustomizer customizer) {
+            this.customizer = customizer;
+        }
+
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            // As registered by the WebFlux auto-configuration for the static locations
+            customizer.customize(registry.addResourceHandler("/**").addResourceLocations("classpath:/encoded-fixture/"));
+        }
+    }
+}
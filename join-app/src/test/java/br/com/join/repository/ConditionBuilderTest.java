@@ -0,0 +1,72 @@
+package br.com.join.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
+import org.springframework.data.relational.core.dialect.RenderContextFactory;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Test class for the {@link ConditionBuilder}.
+ */
+class ConditionBuilderTest {
+
+    private static final Table TABLE = Table.aliased("produto", EntityManager.ENTITY_ALIAS);
+
+    private final SqlRenderer sqlRenderer = SqlRenderer.create(new RenderContextFactory(MySqlDialect.INSTANCE).createRenderContext());
+
+    @Test
+    void shouldRenderNoWhereClauseWithoutFilters() {
+        ConditionBuilder conditions = new ConditionBuilder().filter(null, TABLE.column("id")).filter(new LongFilter(), TABLE.column("id"));
+
+        assertThat(render(conditions.build())).isEqualTo("SELECT e.id FROM produto e");
+    }
+
+    @Test
+    void shouldRenderFilterValuesAsBindMarkers() {
+        IntegerFilter quantidade = new IntegerFilter();
+        quantidade.setGreaterThan(5);
+        quantidade.setLessThanOrEqual(10);
+        LongFilter categoriaId = new LongFilter();
+        categoriaId.setIn(List.of(1L, 2L));
+        categoriaId.setSpecified(true);
+        StringFilter nome = new StringFilter();
+        nome.setContains("caf");
+
+        ConditionBuilder conditions = new ConditionBuilder()
+            .filter(quantidade, TABLE.column("quantidade"))
+            .filter(categoriaId, TABLE.column("categoria_id"))
+            .filter(nome, TABLE.column("nome"));
+
+        assertThat(render(conditions.build()))
+            .isEqualTo(
+                "SELECT e.id FROM produto e WHERE e.quantidade > :filter0 AND e.quantidade <= :filter1" +
+                " AND e.categoria_id IN (:filter2) AND e.categoria_id IS NOT NULL AND e.nome LIKE :filter3"
+            );
+    }
+
+    @Test
+    void shouldMatchNothingForAnEmptyInList() {
+        LongFilter id = new LongFilter();
+        id.setIn(List.of());
+
+        assertThat(render(new ConditionBuilder().filter(id, TABLE.column("id")).build())).endsWith("WHERE 1 = 0");
+    }
+
+    @Test
+    void shouldEscapeLikeWildcards() {
+        assertThat(ConditionBuilder.containing("50%_off\\")).isEqualTo("%50\\%\\_off\\\\%");
+    }
+
+    private String render(Condition where) {
+        return sqlRenderer.render(Select.builder().select(TABLE.column("id")).from(TABLE).where(where).build());
+    }
+}
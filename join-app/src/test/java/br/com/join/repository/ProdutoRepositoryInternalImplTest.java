@@ -0,0 +1,60 @@
+package br.com.join.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.domain.Produto;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+
+/**
+ * Test class for the {@link ProdutoRepositoryInternalImpl}.
+ */
+class ProdutoRepositoryInternalImplTest {
+
+    @Test
+    void shouldAssignOnlyTheChangedColumns() {
+        Produto previous = produto("Arroz", 10, 1L);
+        Produto produto = produto("Arroz", 7, 1L);
+
+        Map<SqlIdentifier, Object> assignments = ProdutoRepositoryInternalImpl.changes(produto, previous).getAssignments();
+
+        assertThat(assignments).containsOnly(Map.entry(SqlIdentifier.unquoted("quantidade"), 7));
+    }
+
+    @Test
+    void shouldAssignTheColumnsSetToNull() {
+        Produto previous = produto("Arroz", 10, 1L);
+        Produto produto = produto("Arroz", 10, null);
+
+        Update changes = ProdutoRepositoryInternalImpl.changes(produto, previous);
+
+        assertThat(changes.getAssignments()).containsOnlyKeys(SqlIdentifier.unquoted("categoriaId"));
+        assertThat(changes.getAssignments().get(SqlIdentifier.unquoted("categoriaId"))).isNull();
+    }
+
+    @Test
+    void shouldAssignNothingWithoutChanges() {
+        Update changes = ProdutoRepositoryInternalImpl.changes(produto("Arroz", 10, 1L), produto("Arroz", 10, 1L));
+
+        assertThat(changes.getAssignments()).isEmpty();
+    }
+
+    @Test
+    void shouldExportTheRowsWhoseProdutoOrCategoriaWasModified() {
+        assertThat(ProdutoRepositoryInternalImpl.exportWhere(false, false)).isEmpty();
+        assertThat(ProdutoRepositoryInternalImpl.exportWhere(true, true))
+            .isEqualTo(
+                " WHERE (e.last_modified_date > :since OR categoria.last_modified_date > :since)" +
+                " AND e.last_modified_date <= :until" +
+                " AND (categoria.last_modified_date IS NULL OR categoria.last_modified_date <= :until)"
+            );
+    }
+
+    private static Produto produto(String nome, Integer quantidade, Long categoriaId) {
+        Produto produto = new Produto().id(1L).nome(nome).quantidade(quantidade);
+        produto.setCategoriaId(categoriaId);
+        return produto;
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import br.com.join.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link BatchLoader}.
+ */
+class BatchLoaderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    private final ApplicationProperties.Batching properties = new ApplicationProperties().getBatching();
+
+    @BeforeEach
+    void setUp() {
+        properties.setWindow(Duration.ofMillis(50));
+        properties.setMaxSize(3);
+    }
+
+    @Test
+    void shouldLoadTheConcurrentKeysInOneBatch() {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::evenValues, BatchLoaderTest::keyOf, properties, meterRegistry);
+
+        List<String> values = Flux
+            .just(2L, 3L, 2L)
+            .flatMap(key -> loader.load(key).defaultIfEmpty("none"), 3, 1)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(values).containsExactlyInAnyOrder("2", "2", "none");
+        assertThat(batches).containsExactly(List.of(2L, 3L));
+        assertThat(meterRegistry.get("batch.loader.size").tag("name", "test").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDispatchAFullBatchWithoutWaiting() {
+        properties.setWindow(Duration.ofMinutes(1));
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::evenValues, BatchLoaderTest::keyOf, properties, meterRegistry);
+
+        List<String> values = Flux
+            .just(2L, 4L, 6L)
+            .flatMap(loader::load)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(values).containsExactlyInAnyOrder("2", "4", "6");
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void shouldNotDispatchTheNextBatchBeforeItsWindow() throws InterruptedException {
+        properties.setWindow(Duration.ofMillis(500));
+        properties.setMaxSize(2);
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::evenValues, BatchLoaderTest::keyOf, properties, meterRegistry);
+
+        loader.load(2L).subscribe();
+        Thread.sleep(250);
+        // Full: dispatched at once, while the next load starts a batch whose window ends 500 ms later
+        loader.load(4L).subscribe();
+        Mono<String> next = loader.load(6L).cache();
+        next.subscribe();
+        Thread.sleep(350);
+
+        assertThat(batches).containsExactly(List.of(2L, 4L));
+        assertThat(next.block(Duration.ofSeconds(5))).isEqualTo("6");
+        assertThat(batches).containsExactly(List.of(2L, 4L), List.of(6L));
+    }
+
+    @Test
+    void shouldLeaveTheCancelledLoadsOutOfTheBatch() {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", this::evenValues, BatchLoaderTest::keyOf, properties, meterRegistry);
+
+        loader.load(2L).subscribe().dispose();
+
+        assertThat(loader.load(4L).block(Duration.ofSeconds(5))).isEqualTo("4");
+        assertThat(batches).containsExactly(List.of(4L));
+    }
+
+    @Test
+    void shouldFailEveryLoadOfAFailedBatch() {
+        BatchLoader<Long, String> loader = new BatchLoader<>(
+            "test",
+            keys -> Flux.error(new IllegalStateException("Connection reset")),
+            BatchLoaderTest::keyOf,
+            properties,
+            meterRegistry
+        );
+
+        List<Mono<String>> loads = new ArrayList<>();
+        loads.add(loader.load(1L).cache());
+        loads.add(loader.load(2L).cache());
+        loads.forEach(load -> load.subscribe(value -> {}, e -> {}));
+
+        for (Mono<String> load : loads) {
+            assertThatThrownBy(() -> load.block(Duration.ofSeconds(5))).hasMessage("Connection reset");
+        }
+    }
+
+    private Flux<String> evenValues(Collection<Long> keys) {
+        batches.add(new ArrayList<>(keys));
+        return Flux.fromIterable(keys.stream().filter(key -> key % 2 == 0).map(String::valueOf).collect(Collectors.toList()));
+    }
+
+    private static Long keyOf(String value) {
+        return Long.valueOf(value);
+    }
+}
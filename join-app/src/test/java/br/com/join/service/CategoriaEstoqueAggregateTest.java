@@ -0,0 +1,118 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.CategoriaEstoque;
+import br.com.join.domain.Produto;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.CategoriaEstoqueDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link CategoriaEstoqueAggregate}.
+ */
+class CategoriaEstoqueAggregateTest {
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CategoriaEstoqueAggregate aggregate;
+
+    @BeforeEach
+    void setUp() {
+        aggregate = new CategoriaEstoqueAggregate(produtoRepository, meterRegistry, new ApplicationProperties());
+    }
+
+    @Test
+    void shouldApplyTheDeltasOfTheWrites() {
+        Produto produto = produto(1L, 10L, 5);
+        aggregate.add(produto);
+        aggregate.add(produto(2L, 10L, 3));
+        aggregate.add(produto(3L, null, 100));
+
+        assertThat(aggregate.get(10L)).usingRecursiveComparison().isEqualTo(new CategoriaEstoqueDTO(10L, 2, 8));
+
+        // Moved to another categoria, with a new quantidade
+        aggregate.replace(CategoriaEstoque.of(produto), CategoriaEstoque.of(produto(1L, 20L, 7)));
+        assertThat(aggregate.get(10L)).usingRecursiveComparison().isEqualTo(new CategoriaEstoqueDTO(10L, 1, 3));
+        assertThat(aggregate.get(20L)).usingRecursiveComparison().isEqualTo(new CategoriaEstoqueDTO(20L, 1, 7));
+
+        aggregate.remove(CategoriaEstoque.of(produto(2L, 10L, 3)));
+        assertThat(aggregate.get(10L)).usingRecursiveComparison().isEqualTo(new CategoriaEstoqueDTO(10L, 0, 0));
+        assertThat(aggregate.getAll()).extracting(CategoriaEstoqueDTO::getCategoriaId).containsExactly(20L);
+        assertThat(meterRegistry.get("categoria.estoque.quantidade").tag("categoria", "20").gauge().value()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldOnlyApplyTheCommittedDeltas() {
+        TransactionalOperator transactionalOperator = NoOpReactiveTransactionManager.transactionalOperator();
+        Produto produto = produto(1L, 10L, 5);
+
+        transactionalOperator
+            .transactional(aggregate.addOnCommit(produto).then(Mono.error(new IllegalStateException("Deadlock found"))))
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+        assertThat(aggregate.getAll()).isEmpty();
+
+        transactionalOperator.transactional(aggregate.addOnCommit(produto)).block();
+        transactionalOperator.transactional(aggregate.replaceOnCommit(CategoriaEstoque.of(produto), produto(1L, 10L, 8))).block();
+        assertThat(aggregate.get(10L)).usingRecursiveComparison().isEqualTo(new CategoriaEstoqueDTO(10L, 1, 8));
+
+        Mono<Void> removal = aggregate.removeOnCommit(CategoriaEstoque.of(produto(1L, 10L, 8)));
+        transactionalOperator
+            .transactional(removal.then(Mono.error(new IllegalStateException("Deadlock found"))))
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+        assertThat(aggregate.get(10L).getProdutos()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReconcileWithTheDatabaseAndKeepTheCategoriasWrittenMeanwhile() {
+        aggregate.add(produto(1L, 10L, 5));
+        Sinks.Many<CategoriaEstoque> scan = Sinks.many().unicast().onBackpressureBuffer();
+        when(produtoRepository.sumEstoqueByCategoria()).thenReturn(scan.asFlux());
+
+        aggregate.reconcile().subscribe();
+        scan.tryEmitNext(new CategoriaEstoque(10L, 4, 40));
+        // Committed before or after the snapshot of the scan, which cannot tell
+        aggregate.add(produto(2L, 30L, 2));
+        scan.tryEmitNext(new CategoriaEstoque(30L, 2, 3));
+        // Still served by the incremental totals while scanning
+        assertThat(aggregate.get(10L).getQuantidade()).isEqualTo(5);
+        scan.tryEmitComplete();
+
+        assertThat(aggregate.getAll())
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactly(new CategoriaEstoqueDTO(10L, 4, 40), new CategoriaEstoqueDTO(30L, 1, 2));
+        assertThat(meterRegistry.get("categoria.estoque.reconcile").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("categoria.estoque.reconcile.drift").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("categoria.estoque.produtos").tag("categoria", "10").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotCountDriftWhenInSync() {
+        aggregate.add(produto(1L, 10L, 5));
+        when(produtoRepository.sumEstoqueByCategoria()).thenReturn(Flux.just(new CategoriaEstoque(10L, 1, 5)));
+
+        aggregate.reconcile().block();
+
+        assertThat(meterRegistry.get("categoria.estoque.reconcile.drift").counter().count()).isZero();
+    }
+
+    private static Produto produto(Long id, Long categoriaId, int quantidade) {
+        Produto produto = new Produto().id(id).quantidade(quantidade);
+        produto.setCategoriaId(categoriaId);
+        return produto;
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.dto.EntityChangeDTO;
+import br.com.join.service.dto.EntityChangeDTO.Operation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+/**
+ * Test class for the {@link EntityChangeFeed}.
+ */
+class EntityChangeFeedTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EntityChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getChanges().setHistorySize(4);
+        properties.getChanges().setSubscriberBufferSize(2);
+        feed = new EntityChangeFeed(properties, meterRegistry);
+    }
+
+    @Test
+    void shouldPublishImmediatelyOutsideOfATransaction() {
+        List<EntityChangeDTO> changes = new ArrayList<>();
+        Disposable subscription = feed.stream(null, EntityChangeFeed.Overflow.DROP_OLDEST).subscribe(changes::add);
+
+        feed.publishOnCommit("produto", Operation.CREATED, 1L, "state").block();
+        feed.publishOnCommit("produto", Operation.DELETED, 1L, null).block();
+        subscription.dispose();
+
+        assertThat(changes).extracting(EntityChangeDTO::getSequence, EntityChangeDTO::getOperation).containsExactly(
+            tuple(1L, Operation.CREATED),
+            tuple(2L, Operation.DELETED)
+        );
+        assertThat(changes.get(0).getState()).isEqualTo("state");
+        assertThat(meterRegistry.get("changes.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldResumeFromTheHistory() {
+        for (long id = 1; id <= 6; id++) {
+            feed.publish("categoria", Operation.UPDATED, id, null);
+        }
+
+        assertThat(feed.lastSequence()).isEqualTo(6);
+        assertThat(feed.canResumeAfter(6)).isTrue();
+        assertThat(feed.canResumeAfter(2)).isTrue();
+        assertThat(feed.canResumeAfter(1)).isFalse();
+        assertThat(feed.canResumeAfter(7)).isFalse();
+        Recorder resumed = new Recorder(feed.stream(3L, EntityChangeFeed.Overflow.DROP_OLDEST), Long.MAX_VALUE);
+        feed.publish("categoria", Operation.DELETED, 7L, null);
+        assertThat(resumed.sequences).containsExactly(4L, 5L, 6L, 7L);
+        resumed.dispose();
+        // Only what is left in the history
+        Recorder fromStart = new Recorder(feed.stream(0L, EntityChangeFeed.Overflow.DROP_OLDEST), Long.MAX_VALUE);
+        assertThat(fromStart.sequences).containsExactly(4L, 5L, 6L, 7L);
+        fromStart.dispose();
+    }
+
+    @Test
+    void shouldApplyTheOverflowPolicyToSlowSubscribers() {
+        Recorder dropOldest = new Recorder(feed.stream(null, EntityChangeFeed.Overflow.DROP_OLDEST), 0);
+        Recorder latest = new Recorder(feed.stream(null, EntityChangeFeed.Overflow.LATEST), 0);
+        for (long id = 1; id <= 6; id++) {
+            feed.publish("produto", Operation.UPDATED, id, null);
+        }
+        dropOldest.request(10);
+        latest.request(10);
+
+        // Besides the change taken by the operators before the subscriber asked for any, the most recent ones are kept
+        assertThat(dropOldest.sequences).hasSizeLessThan(6).endsWith(5L, 6L);
+        assertThat(latest.sequences).hasSizeLessThan(3).endsWith(6L);
+        assertThat(meterRegistry.get("changes.dropped").counter().count()).isPositive();
+        dropOldest.dispose();
+        latest.dispose();
+    }
+
+    /**
+     * Records the sequences received, requesting them on demand.
+     */
+    private static class Recorder extends BaseSubscriber<EntityChangeDTO> {
+
+        private final List<Long> sequences = new ArrayList<>();
+
+        private final long initialRequest;
+
+        Recorder(Flux<EntityChangeDTO> changes, long initialRequest) {
+            this.initialRequest = initialRequest;
+            changes.subscribe(this);
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialRequest > 0) {
+                request(initialRequest);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(EntityChangeDTO change) {
+            sequences.add(change.getSequence());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.join.service;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive transactions without any resource, whose synchronizations run on commit or rollback as with a real one.
+ */
+class NoOpReactiveTransactionManager extends AbstractReactiveTransactionManager {
+
+    /**
+     * @return an operator running its publishers in a transaction of this manager.
+     */
+    static TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new NoOpReactiveTransactionManager());
+    }
+
+    @Override
+    protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+        return new Object();
+    }
+
+    @Override
+    protected Mono<Void> doBegin(
+        TransactionSynchronizationManager synchronizationManager,
+        Object transaction,
+        TransactionDefinition definition
+    ) {
+        return Mono.empty();
+    }
+
+    @Override
+    protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+        return Mono.empty();
+    }
+
+    @Override
+    protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.OutboxEvent;
+import br.com.join.repository.OutboxEventRepository;
+import br.com.join.service.dto.EntityChangeDTO.Operation;
+import br.com.join.service.dto.OutboxEventDTO;
+import br.com.join.service.mapper.OutboxEventMapperImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link OutboxRelay}.
+ */
+class OutboxRelayTest {
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+
+    private final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<OutboxEventDTO> delivered = new ArrayList<>();
+
+    private final List<OutboxEventDTO> deliveredToFlaky = new ArrayList<>();
+
+    // Whether a transaction of the operator is running
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    // Result of the deliveries to the flaky sink
+    private Mono<Void> flakySinkResult = Mono.empty();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionalOperator.transactional(any(Mono.class)))
+            .thenAnswer(invocation -> {
+                Mono<?> transactional = invocation.getArgument(0);
+                // Ended before the result is emitted, as by a real operator
+                return Mono.usingWhen(
+                    Mono.fromSupplier(() -> inTransaction.getAndSet(true)),
+                    transaction -> transactional,
+                    transaction -> Mono.fromRunnable(() -> inTransaction.set(false)),
+                    (transaction, e) -> Mono.fromRunnable(() -> inTransaction.set(false)),
+                    transaction -> Mono.fromRunnable(() -> inTransaction.set(false))
+                );
+            });
+        when(outboxEventRepository.claim(anyCollection(), anyString(), anyLong())).thenReturn(Mono.just(1));
+        when(outboxEventRepository.release(anyCollection(), anyString(), any())).thenReturn(Mono.just(1));
+        when(outboxEventRepository.deleteAllByIdIn(anyCollection())).thenReturn(Mono.empty());
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getOutbox().setBatchSize(2);
+        OutboxSink recordingSink = sink(
+            "recording",
+            events ->
+                Mono.fromRunnable(() -> {
+                    assertThat(inTransaction).as("delivered in a transaction").isFalse();
+                    delivered.addAll(events);
+                })
+        );
+        OutboxSink flakySink = sink("flaky", events -> flakySinkResult.doOnSuccess(done -> deliveredToFlaky.addAll(events)));
+        relay =
+            new OutboxRelay(
+                outboxEventRepository,
+                new OutboxEventMapperImpl(),
+                List.of(flakySink, recordingSink),
+                transactionalOperator,
+                properties,
+                meterRegistry
+            );
+    }
+
+    @Test
+    void shouldRelayBatchesUntilTheOutboxIsDrained() {
+        when(outboxEventRepository.findUnclaimedForUpdate(2)).thenReturn(events(1, 2), events(3, 4), events(5, 5));
+
+        assertThat(relay.drain().block()).isEqualTo(5);
+
+        assertThat(delivered).extracting(OutboxEventDTO::getId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(delivered.get(0).getEventType()).isEqualTo(Operation.UPDATED);
+        verify(outboxEventRepository).claim(eq(List.of(1L, 2L)), anyString(), eq(60_000L));
+        verify(outboxEventRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdIn(List.of(5L));
+        assertThat(meterRegistry.get("outbox.relayed").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("outbox.lag").timer().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("outbox.relay.batch").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldStopOnAnEmptyOutbox() {
+        when(outboxEventRepository.findUnclaimedForUpdate(2)).thenReturn(events(1, 2), Flux.empty());
+
+        assertThat(relay.drain().block()).isEqualTo(2);
+
+        assertThat(meterRegistry.get("outbox.relay.batch").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepTheBatchWhenASinkFails() {
+        flakySinkResult = Mono.error(new IllegalStateException("unavailable"));
+        when(outboxEventRepository.findUnclaimedForUpdate(2)).thenReturn(events(1, 1));
+
+        assertThatThrownBy(() -> relay.drain().block()).hasMessage("unavailable");
+
+        // The sinks after the failing one are still tried, and the batch is released with those which accepted it
+        assertThat(delivered).extracting(OutboxEventDTO::getId).containsExactly(1L);
+        verify(outboxEventRepository, never()).deleteAllByIdIn(anyCollection());
+        verify(outboxEventRepository).release(eq(List.of(1L)), anyString(), eq("recording"));
+        assertThat(meterRegistry.get("outbox.relay.failures").tag("sink", "flaky").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.relayed").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldOnlyDeliverAgainToTheSinksWhichFailed() {
+        when(outboxEventRepository.findUnclaimedForUpdate(2))
+            .thenReturn(Flux.just(event(1).deliveredTo("recording"), event(2)), Flux.empty());
+
+        assertThat(relay.drain().block()).isEqualTo(2);
+
+        assertThat(deliveredToFlaky).extracting(OutboxEventDTO::getId).containsExactly(1L, 2L);
+        assertThat(delivered).extracting(OutboxEventDTO::getId).containsExactly(2L);
+        verify(outboxEventRepository).deleteAllByIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    void shouldReleaseTheEventsWithTheSinksWhichAcceptedEachOfThem() {
+        flakySinkResult = Mono.error(new IllegalStateException("unavailable"));
+        when(outboxEventRepository.findUnclaimedForUpdate(2)).thenReturn(Flux.just(event(1).deliveredTo("webhook"), event(2)));
+
+        assertThatThrownBy(() -> relay.drain().block()).hasMessage("unavailable");
+
+        verify(outboxEventRepository).release(eq(List.of(1L)), anyString(), eq("recording,webhook"));
+        verify(outboxEventRepository).release(eq(List.of(2L)), anyString(), eq("recording"));
+    }
+
+    private static Flux<OutboxEvent> events(long firstId, long lastId) {
+        return Flux.fromIterable(LongStream.rangeClosed(firstId, lastId).mapToObj(OutboxRelayTest::event).collect(Collectors.toList()));
+    }
+
+    private static OutboxEvent event(long id) {
+        return new OutboxEvent()
+            .id(id)
+            .aggregateType("produto")
+            .aggregateId(id * 10)
+            .eventType(Operation.UPDATED.name())
+            .payload("{\"id\":" + id * 10 + "}")
+            .createdDate(Instant.now().minusSeconds(1));
+    }
+
+    private static OutboxSink sink(String name, Function<List<OutboxEventDTO>, Mono<Void>> deliver) {
+        return new OutboxSink() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Mono<Void> deliver(List<OutboxEventDTO> events) {
+                return deliver.apply(events);
+            }
+        };
+    }
+}
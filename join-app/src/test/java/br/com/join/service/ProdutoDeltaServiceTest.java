@@ -0,0 +1,101 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.Categoria;
+import br.com.join.domain.Produto;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.dto.ProdutoDeltaDTO;
+import br.com.join.service.mapper.ProdutoMapperImpl;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link ProdutoDeltaService}.
+ */
+class ProdutoDeltaServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 12, 0, 0, 123_456_000);
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private ProdutoDeltaService deltaService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getProdutoDelta().setOverlap(Duration.ofSeconds(10));
+        properties.getProdutoDelta().setTombstoneRetention(Duration.ofDays(30));
+        deltaService = new ProdutoDeltaService(produtoRepository, new ProdutoMapperImpl(), properties);
+        when(produtoRepository.currentTimestamp()).thenReturn(Mono.just(NOW));
+    }
+
+    @Test
+    void shouldSendTheWholeCatalogWithoutToken() {
+        when(produtoRepository.findAll()).thenReturn(Flux.just(produto(1L), produto(2L)));
+
+        ProdutoDeltaDTO delta = deltaService.findChangesSince(null).block();
+
+        assertThat(delta.isReset()).isTrue();
+        assertThat(delta.getProdutos()).extracting(ProdutoDTO::getId).containsExactly(1L, 2L);
+        assertThat(delta.getDeletedIds()).isEmpty();
+        assertThat(ProdutoDeltaService.decodeToken(delta.getToken())).isEqualTo(NOW);
+        verify(produtoRepository, never()).findDeletedIdsAfter(any());
+    }
+
+    @Test
+    void shouldSendTheChangesSinceTheTokenWithAnOverlap() {
+        LocalDateTime since = NOW.minusHours(1);
+        when(produtoRepository.findAllModifiedAfter(since.minusSeconds(10))).thenReturn(Flux.just(produto(3L)));
+        when(produtoRepository.findDeletedIdsAfter(since.minusSeconds(10))).thenReturn(Flux.just(4L, 5L));
+
+        ProdutoDeltaDTO delta = deltaService.findChangesSince(ProdutoDeltaService.encodeToken(since)).block();
+
+        assertThat(delta.isReset()).isFalse();
+        assertThat(delta.getProdutos()).extracting(ProdutoDTO::getId).containsExactly(3L);
+        assertThat(delta.getProdutos().get(0).getCategoria().getNome()).isEqualTo("Grãos");
+        assertThat(delta.getDeletedIds()).containsExactly(4L, 5L);
+        assertThat(delta.getToken()).isEqualTo(ProdutoDeltaService.encodeToken(NOW));
+    }
+
+    @Test
+    void shouldResetOnATokenOlderThanTheTombstones() {
+        when(produtoRepository.findAll()).thenReturn(Flux.just(produto(1L)));
+
+        ProdutoDeltaDTO delta = deltaService.findChangesSince(ProdutoDeltaService.encodeToken(NOW.minusDays(31))).block();
+
+        assertThat(delta.isReset()).isTrue();
+        verify(produtoRepository, never()).findAllModifiedAfter(any());
+    }
+
+    @Test
+    void shouldRejectAnInvalidToken() {
+        assertThatThrownBy(() -> deltaService.findChangesSince("yesterday").block())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid delta token: yesterday");
+        assertThatThrownBy(() -> deltaService.findChangesSince("-1").block()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRoundTripTokensToTheMicrosecond() {
+        LocalDateTime timestamp = LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_000);
+
+        assertThat(ProdutoDeltaService.decodeToken(ProdutoDeltaService.encodeToken(timestamp))).isEqualTo(timestamp);
+    }
+
+    private static Produto produto(Long id) {
+        return new Produto().id(id).nome("Produto " + id).quantidade(1).categoria(new Categoria().id(1L).nome("Grãos"));
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.Produto;
+import br.com.join.domain.criteria.ProdutoCriteria;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoEstoqueBaixoEventDTO;
+import br.com.join.service.dto.ProdutoEstoqueBaixoEventDTO.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link ProdutoEstoqueBaixoWatchlist}.
+ */
+class ProdutoEstoqueBaixoWatchlistTest {
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProdutoEstoqueBaixoWatchlist watchlist;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getEstoque().setDefaultThreshold(10);
+        properties.getEstoque().getCategoriaThresholds().put(2L, 50);
+        properties.getEstoque().getProdutoThresholds().put(3L, 5);
+        watchlist = new ProdutoEstoqueBaixoWatchlist(produtoRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldResolveTheMostSpecificThreshold() {
+        assertThat(watchlist.threshold(1L, 1L)).isEqualTo(10);
+        assertThat(watchlist.threshold(1L, 2L)).isEqualTo(50);
+        assertThat(watchlist.threshold(3L, 2L)).isEqualTo(5);
+    }
+
+    @Test
+    void shouldStreamTheCurrentSetThenTheTransitions() {
+        watchlist.update(produto(1L, 1L, 4));
+        List<ProdutoEstoqueBaixoEventDTO> events = new ArrayList<>();
+        Disposable subscription = watchlist.stream().subscribe(events::add);
+
+        // Still low: no transition
+        watchlist.update(produto(1L, 1L, 3));
+        // Back to the threshold
+        watchlist.update(produto(1L, 1L, 10));
+        // Low for its categoria only
+        watchlist.update(produto(2L, 2L, 20));
+        watchlist.remove(2L);
+        watchlist.remove(4L);
+        subscription.dispose();
+        watchlist.update(produto(5L, 1L, 0));
+
+        assertThat(events)
+            .extracting(
+                ProdutoEstoqueBaixoEventDTO::getType,
+                ProdutoEstoqueBaixoEventDTO::getId,
+                ProdutoEstoqueBaixoEventDTO::getQuantidade
+            )
+            .containsExactly(
+                tuple(Type.ENTERED, 1L, 4),
+                tuple(Type.LEFT, 1L, 10),
+                tuple(Type.ENTERED, 2L, 20),
+                tuple(Type.LEFT, 2L, 20)
+            );
+        assertThat(meterRegistry.get("produto.estoque.baixo.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldOnlyFollowTheCommittedWrites() {
+        TransactionalOperator transactionalOperator = NoOpReactiveTransactionManager.transactionalOperator();
+        transactionalOperator.transactional(watchlist.updateOnCommit(produto(1L, 1L, 4))).block();
+        List<ProdutoEstoqueBaixoEventDTO> events = new ArrayList<>();
+        Disposable subscription = watchlist.stream().subscribe(events::add);
+
+        // Rolled back: neither the restock of 1 nor the shortage of 2 happened
+        transactionalOperator
+            .transactional(
+                watchlist
+                    .updateOnCommit(produto(1L, 1L, 100))
+                    .then(watchlist.updateOnCommit(produto(2L, 1L, 0)))
+                    .then(Mono.error(new IllegalStateException("Deadlock found")))
+            )
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+        transactionalOperator
+            .transactional(watchlist.removeOnCommit(1L).then(Mono.error(new IllegalStateException("Deadlock found"))))
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block();
+        assertThat(watchlist.size()).isEqualTo(1);
+
+        transactionalOperator.transactional(watchlist.removeOnCommit(1L)).block();
+        subscription.dispose();
+
+        assertThat(events)
+            .extracting(ProdutoEstoqueBaixoEventDTO::getType, ProdutoEstoqueBaixoEventDTO::getId)
+            .containsExactly(tuple(Type.ENTERED, 1L), tuple(Type.LEFT, 1L));
+        assertThat(watchlist.size()).isZero();
+    }
+
+    @Test
+    void shouldLoadBelowTheHighestThresholdKeepingConcurrentWrites() {
+        Sinks.Many<Produto> scan = Sinks.many().unicast().onBackpressureBuffer();
+        ArgumentCaptor<ProdutoCriteria> criteria = ArgumentCaptor.forClass(ProdutoCriteria.class);
+        when(produtoRepository.findByCriteria(criteria.capture(), isNull(), any())).thenReturn(scan.asFlux());
+
+        watchlist.load().subscribe();
+        scan.tryEmitNext(produto(1L, 1L, 5));
+        scan.tryEmitNext(produto(2L, 2L, 40));
+        scan.tryEmitNext(produto(3L, 1L, 30));
+        // Restocked while loading
+        watchlist.update(produto(1L, 1L, 100));
+        scan.tryEmitComplete();
+
+        assertThat(criteria.getValue().getQuantidade().getLessThan()).isEqualTo(50);
+        assertThat(watchlist.stream().take(1).collectList().block())
+            .extracting(ProdutoEstoqueBaixoEventDTO::getId, ProdutoEstoqueBaixoEventDTO::getEstoqueMinimo)
+            .containsExactly(tuple(2L, 50));
+        assertThat(watchlist.size()).isEqualTo(1);
+    }
+
+    private static Produto produto(Long id, Long categoriaId, int quantidade) {
+        Produto produto = new Produto().id(id).nome("Produto " + id).quantidade(quantidade);
+        produto.setCategoriaId(categoriaId);
+        return produto;
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.ProdutoExportRow;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoExportReportDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link ProdutoExportService}.
+ */
+class ProdutoExportServiceTest {
+
+    private static final LocalDateTime FIRST_RUN = LocalDateTime.of(2026, 10, 19, 2, 0);
+
+    private static final LocalDateTime SECOND_RUN = LocalDateTime.of(2026, 10, 19, 3, 0);
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    private ProdutoExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getProdutoExport().setDirectory(directory.toString());
+        properties.getProdutoExport().setSettleTime(Duration.ofMinutes(1));
+        properties.getProdutoExport().setChunkSize(2);
+        exportService = new ProdutoExportService(produtoRepository, properties, meterRegistry);
+    }
+
+    @Test
+    void shouldExportAllThenTheModifiedProdutos() throws IOException {
+        LocalDateTime firstUntil = FIRST_RUN.minusMinutes(1);
+        LocalDateTime secondUntil = SECOND_RUN.minusMinutes(1);
+        when(produtoRepository.currentTimestamp()).thenReturn(Mono.just(FIRST_RUN), Mono.just(SECOND_RUN));
+        when(produtoRepository.findAllForExport(isNull(), isNull()))
+            .thenReturn(
+                Flux.just(
+                    new ProdutoExportRow(1L, "Arroz", 10, 1L, "Grãos", firstUntil.minusDays(1)),
+                    new ProdutoExportRow(2L, "Feijão; \"carioca\"", 5, 1L, "Grãos", firstUntil.minusDays(1)),
+                    new ProdutoExportRow(3L, "Sabão", 0, null, null, firstUntil.minusHours(1))
+                )
+            );
+        when(produtoRepository.findAllForExport(eq(firstUntil), eq(secondUntil)))
+            .thenReturn(Flux.just(new ProdutoExportRow(3L, "Sabão", 4, 2L, "Limpeza", secondUntil.minusMinutes(5))));
+
+        ProdutoExportReportDTO full = exportService.export(ProdutoExportReportDTO.Type.FULL).block();
+
+        assertThat(full.getRows()).isEqualTo(3);
+        assertThat(full.getSince()).isNull();
+        assertThat(full.getUntil()).isEqualTo(firstUntil);
+        assertThat(full.getBytes()).isEqualTo(Files.size(Path.of(full.getFile())));
+        assertThat(Path.of(full.getFile()).getFileName()).hasToString("produtos-full-20261019T015900.csv.gz");
+        assertThat(gunzip(full.getFile()))
+            .containsExactly(
+                "id;nome;quantidade;categoria_id;categoria;last_modified_date",
+                "1;Arroz;10;1;Grãos;2026-10-18T01:59",
+                "2;\"Feijão; \"\"carioca\"\"\";5;1;Grãos;2026-10-18T01:59",
+                "3;Sabão;0;;;2026-10-19T00:59"
+            );
+
+        ProdutoExportReportDTO incremental = exportService.export(ProdutoExportReportDTO.Type.INCREMENTAL).block();
+
+        assertThat(incremental.getSince()).isEqualTo(firstUntil);
+        assertThat(incremental.getRows()).isEqualTo(1);
+        assertThat(gunzip(incremental.getFile())).containsExactly(
+            "id;nome;quantidade;categoria_id;categoria;last_modified_date",
+            "3;Sabão;4;2;Limpeza;2026-10-19T02:54"
+        );
+        assertThat(Files.readString(directory.resolve(ProdutoExportService.HIGH_WATER_MARK_FILE))).isEqualTo(secondUntil.toString());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                .containsExactlyInAnyOrder(
+                    "produtos-full-20261019T015900.csv.gz",
+                    "produtos-incremental-20261019T025900.csv.gz",
+                    ProdutoExportService.HIGH_WATER_MARK_FILE
+                );
+        }
+        assertThat(meterRegistry.get("produto.export.rows").tag("type", "full").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("produto.export.rows").tag("type", "incremental").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("produto.export.bytes").tag("type", "full").counter().count()).isEqualTo(full.getBytes());
+        assertThat(meterRegistry.get("produto.export").tag("type", "incremental").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExportTheProdutosModifiedWithinTheSettleTimeInTheFullSnapshot() throws IOException {
+        LocalDateTime until = FIRST_RUN.minusMinutes(1);
+        when(produtoRepository.currentTimestamp()).thenReturn(Mono.just(FIRST_RUN), Mono.just(SECOND_RUN));
+        ProdutoExportRow settling = new ProdutoExportRow(1L, "Arroz", 10, 1L, "Grãos", FIRST_RUN.minusSeconds(30));
+        when(produtoRepository.findAllForExport(isNull(), isNull())).thenReturn(Flux.just(settling));
+        when(produtoRepository.findAllForExport(eq(until), eq(SECOND_RUN.minusMinutes(1)))).thenReturn(Flux.just(settling));
+
+        ProdutoExportReportDTO full = exportService.export(ProdutoExportReportDTO.Type.FULL).block();
+        ProdutoExportReportDTO incremental = exportService.export(ProdutoExportReportDTO.Type.INCREMENTAL).block();
+
+        assertThat(full.getUntil()).isEqualTo(until);
+        assertThat(gunzip(full.getFile())).contains("1;Arroz;10;1;Grãos;2026-10-19T01:59:30");
+        // Exported again once settled, as modified after the high-water mark
+        assertThat(incremental.getSince()).isEqualTo(until);
+        assertThat(gunzip(incremental.getFile())).contains("1;Arroz;10;1;Grãos;2026-10-19T01:59:30");
+    }
+
+    @Test
+    void shouldNotKeepTheHighWaterMarkOrThePartialFileOfAFailedExport() {
+        when(produtoRepository.currentTimestamp()).thenReturn(Mono.just(FIRST_RUN));
+        when(produtoRepository.findAllForExport(any(), any()))
+            .thenReturn(
+                Flux
+                    .just(new ProdutoExportRow(1L, "Arroz", 10, 1L, "Grãos", FIRST_RUN))
+                    .concatWith(Flux.error(new IllegalStateException("Connection reset")))
+            );
+
+        assertThatThrownBy(() -> exportService.export(ProdutoExportReportDTO.Type.INCREMENTAL).block())
+            .hasMessageContaining("Connection reset");
+
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    private static List<String> gunzip(String file) throws IOException {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(Path.of(file)))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        }
+    }
+}
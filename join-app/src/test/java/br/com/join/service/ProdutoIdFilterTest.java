@@ -0,0 +1,90 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.repository.ProdutoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/**
+ * Test class for the {@link ProdutoIdFilter}.
+ */
+class ProdutoIdFilterTest {
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProdutoIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ProdutoIdFilter(produtoRepository, new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void shouldLetEveryIdThroughUntilBuilt() {
+        assertThat(filter.mightExist(42L)).isTrue();
+        assertThat(meterRegistry.get("produto.id.filter.lookups").tag("result", "unchecked").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRuleOutTheMissingIdsOfThePreviousScan() {
+        // Even ids up to 2000 exist
+        when(produtoRepository.findAllIds())
+            .thenAnswer(invocation -> Flux.fromStream(LongStream.rangeClosed(1, 1000).mapToObj(i -> i * 2)));
+        filter.rebuild().block();
+        filter.rebuild().block();
+
+        assertThat(LongStream.rangeClosed(1, 1000).map(i -> i * 2).allMatch(filter::mightExist)).isTrue();
+        long passedOddIds = LongStream.rangeClosed(0, 999).map(i -> i * 2 + 1).filter(filter::mightExist).count();
+        assertThat(passedOddIds).isLessThan(50);
+        double rejected = meterRegistry.get("produto.id.filter.lookups").tag("result", "rejected").counter().count();
+        assertThat(rejected).isEqualTo(1000 - passedOddIds);
+        assertThat(meterRegistry.get("produto.id.filter.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void shouldOnlyCoverTheIdsOfThePreviousScan() {
+        when(produtoRepository.findAllIds()).thenReturn(Flux.just(1L, 2L)).thenReturn(Flux.just(1L, 2L, 4L));
+        filter.rebuild().block();
+        filter.rebuild().block();
+
+        // Created by another instance, possibly before the scan, but committed after it
+        assertThat(filter.mightExist(3L)).isTrue();
+        filter.recordMiss(3L);
+        assertThat(meterRegistry.get("produto.id.filter.false.positives").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldKeepTheCreatedIdsAcrossRebuilds() {
+        // Created while the second scan runs, once the scan has read past its id
+        when(produtoRepository.findAllIds())
+            .thenReturn(Flux.just(1L, 2L, 4L))
+            .thenReturn(Flux.just(1L, 2L, 4L).doOnComplete(() -> filter.addOnCommit(3L).block()));
+        filter.rebuild().block();
+        filter.rebuild().block();
+
+        assertThat(filter.mightExist(3L)).isTrue();
+    }
+
+    @Test
+    void shouldGrowBeyondItsCapacity() {
+        ProdutoIdFilter.Filter bloom = new ProdutoIdFilter.Filter(0, 0.01, 100_000);
+        LongStream.rangeClosed(1, 20_000).forEach(bloom::add);
+
+        // Ids taken for false positives are not counted
+        assertThat(bloom.size).isBetween(19_500, 20_000);
+        assertThat(LongStream.rangeClosed(1, 20_000).allMatch(bloom::mightContain)).isTrue();
+        long falsePositives = LongStream.rangeClosed(20_001, 40_000).filter(bloom::mightContain).count();
+        assertThat(falsePositives).isLessThan(400);
+        assertThat(bloom.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+}
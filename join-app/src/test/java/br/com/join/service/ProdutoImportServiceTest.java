@@ -0,0 +1,205 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.Categoria;
+import br.com.join.repository.CategoriaRepository;
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.dto.ProdutoImportErrorDTO;
+import br.com.join.service.dto.ProdutoImportJobDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link ProdutoImportService}.
+ */
+class ProdutoImportServiceTest {
+
+    private static final List<Categoria> CATEGORIAS = List.of(
+        new Categoria().id(1L).nome("Grãos"),
+        new Categoria().id(2L).nome("Limpeza"),
+        new Categoria().id(3L).nome("Bebidas")
+    );
+
+    private final ProdutoService produtoService = mock(ProdutoService.class);
+
+    private final CategoriaRepository categoriaRepository = mock(CategoriaRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<List<ProdutoDTO>> upserted = new ArrayList<>();
+
+    private ProdutoImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong sequence = new AtomicLong(100);
+        when(produtoService.upsertAll(anyList()))
+            .thenAnswer(invocation -> {
+                List<ProdutoDTO> chunk = invocation.getArgument(0);
+                upserted.add(chunk);
+                chunk
+                    .stream()
+                    .filter(produtoDTO -> produtoDTO.getId() == null)
+                    .forEach(produtoDTO -> produtoDTO.setId(sequence.incrementAndGet()));
+                return Flux.fromIterable(chunk);
+            });
+        when(categoriaRepository.findByNomeIn(any()))
+            .thenAnswer(invocation -> {
+                Collection<String> nomes = invocation.getArgument(0);
+                return Flux.fromIterable(CATEGORIAS).filter(categoria -> nomes.stream().anyMatch(categoria.getNome()::equalsIgnoreCase));
+            });
+        when(categoriaRepository.findAllById(any(Iterable.class)))
+            .thenAnswer(invocation -> {
+                Collection<Long> ids = invocation.getArgument(0);
+                return Flux.fromIterable(CATEGORIAS).filter(categoria -> ids.contains(categoria.getId()));
+            });
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getProdutoImport().setChunkSize(2);
+        importService = new ProdutoImportService(produtoService, categoriaRepository, new ObjectMapper(), properties, meterRegistry);
+    }
+
+    @Test
+    void shouldImportACsvFileSplitAcrossBuffers() {
+        String csv =
+            "\uFEFFid;nome;quantidade;categoria;categoria_id\r\n" +
+            ";Arroz;10;grãos;\r\n" +
+            "7;\"Feijão \"\"carioca\"\"; 1kg\";5;;3\r\n" +
+            "\r\n" +
+            ";Açúcar;dez;Grãos;\n" +
+            ";Sabão;3;Limpeza;\n" +
+            ";Vinho;1;Adegas;\n" +
+            ";Água;2;;99";
+
+        ProdutoImportJobDTO report = importService.importProdutos(buffers(csv, 7), ProdutoImportService.Format.CSV).block();
+
+        assertThat(report.getStatus()).isEqualTo(ProdutoImportJobDTO.Status.COMPLETED);
+        assertThat(report.getRowsRead()).isEqualTo(6);
+        assertThat(report.getRowsImported()).isEqualTo(3);
+        assertThat(report.getRowsRejected()).isEqualTo(3);
+        assertThat(report.getErrors())
+            .extracting(ProdutoImportErrorDTO::getLine, ProdutoImportErrorDTO::getMessage)
+            .containsExactly(
+                tuple(5L, "quantidade is not an integer: dez"),
+                tuple(7L, "Unknown categoria: Adegas"),
+                tuple(8L, "Unknown categoria: 99")
+            );
+        assertThat(upserted)
+            .extracting(chunk -> chunk.stream().map(ProdutoDTO::getNome).toArray())
+            .containsExactly(new Object[] { "Arroz", "Feijão \"carioca\"; 1kg" }, new Object[] { "Sabão" });
+        assertThat(upserted.get(0))
+            .extracting(ProdutoDTO::getId, ProdutoDTO::getQuantidade, produtoDTO -> produtoDTO.getCategoria().getId())
+            .containsExactly(tuple(101L, 10, 1L), tuple(7L, 5, 3L));
+        // The categorias already resolved are not looked up again
+        verify(categoriaRepository, times(2)).findByNomeIn(any());
+        assertThat(meterRegistry.get("produto.import.rows").tag("result", "imported").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("produto.import.rows").tag("result", "rejected").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("produto.import").timer().count()).isEqualTo(1);
+        assertThat(importService.getJob(report.getId())).hasValueSatisfying(job -> assertThat(job.getRowsImported()).isEqualTo(3));
+    }
+
+    @Test
+    void shouldImportANdjsonFile() {
+        String ndjson =
+            "{\"nome\":\"Arroz\",\"quantidade\":10,\"categoria\":{\"id\":3,\"nome\":\"Bebidas\"}}\n" +
+            "{\"nome\":\"Sabão\",\"quantidade\":3,\"categoria\":\"limpeza\"}\n" +
+            "{\"nome\":\"Feijão\",\"quantidade\":1.5,\"categoria\":\"Grãos\"}\n" +
+            "{\"nome\":\"Sal\"\n" +
+            "{\"quantidade\":1,\"categoriaId\":3}\n";
+
+        ProdutoImportJobDTO report = importService.importProdutos(buffers(ndjson, 16), ProdutoImportService.Format.NDJSON).block();
+
+        assertThat(report.getStatus()).isEqualTo(ProdutoImportJobDTO.Status.COMPLETED);
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProdutoImportErrorDTO::getLine).containsExactly(3L, 4L, 5L);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("quantidade is not an integer: 1.5");
+        assertThat(report.getErrors().get(1).getMessage()).startsWith("Invalid JSON");
+        assertThat(report.getErrors().get(2).getMessage()).isEqualTo("nome is required");
+        assertThat(upserted.get(0)).extracting(produtoDTO -> produtoDTO.getCategoria().getId()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shouldFailOnAnUnknownCsvColumn() {
+        Mono<ProdutoImportJobDTO> report = importService.importProdutos(
+            buffers("nome;quantidade;preco\nArroz;1;2.5\n", 64),
+            ProdutoImportService.Format.CSV
+        );
+
+        assertThatThrownBy(report::block)
+            .isInstanceOf(ProdutoImportService.InvalidFileException.class)
+            .hasMessage("Unknown column in the CSV header: preco");
+        assertThat(importService.getJobs())
+            .extracting(ProdutoImportJobDTO::getStatus, ProdutoImportJobDTO::getFailure)
+            .containsExactly(tuple(ProdutoImportJobDTO.Status.FAILED, "Unknown column in the CSV header: preco"));
+        verify(produtoService, never()).upsertAll(anyList());
+    }
+
+    @Test
+    void shouldFailOnACsvHeaderWithoutCategoria() {
+        Mono<ProdutoImportJobDTO> report = importService.importProdutos(
+            buffers("nome;quantidade\nArroz;1\nSabão;2\n", 64),
+            ProdutoImportService.Format.CSV
+        );
+
+        assertThatThrownBy(report::block)
+            .isInstanceOf(ProdutoImportService.InvalidFileException.class)
+            .hasMessage("The CSV header must name the categoria or categoria_id column");
+        assertThat(meterRegistry.get("produto.import.rows").tag("result", "rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldRejectTheRowsOfAChunkWhichCouldNotBeSaved() {
+        when(produtoService.upsertAll(anyList())).thenReturn(Flux.error(new IllegalStateException("Deadlock")));
+
+        ProdutoImportJobDTO report = importService
+            .importProdutos(buffers("nome;quantidade;categoria\nArroz;1;Grãos\nSabão;2;Limpeza\n", 64), ProdutoImportService.Format.CSV)
+            .block();
+
+        assertThat(report.getStatus()).isEqualTo(ProdutoImportJobDTO.Status.COMPLETED);
+        assertThat(report.getRowsRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProdutoImportErrorDTO::getMessage).containsOnly("Not saved: Deadlock");
+    }
+
+    @Test
+    void shouldDetectTheFormat() {
+        assertThat(ProdutoImportService.Format.of(MediaType.parseMediaType("text/csv;charset=UTF-8"), null))
+            .contains(ProdutoImportService.Format.CSV);
+        assertThat(ProdutoImportService.Format.of(MediaType.APPLICATION_OCTET_STREAM, "produtos.JSONL"))
+            .contains(ProdutoImportService.Format.NDJSON);
+        assertThat(ProdutoImportService.Format.of(null, "produtos.xlsx")).isEmpty();
+    }
+
+    private static Flux<DataBuffer> buffers(String content, int size) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += size) {
+            byte[] slice = Arrays.copyOfRange(bytes, start, Math.min(bytes.length, start + size));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
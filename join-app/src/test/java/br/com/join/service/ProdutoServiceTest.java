@@ -0,0 +1,116 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.domain.Produto;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.CategoriaDTO;
+import br.com.join.service.dto.CategoriaEstoqueDTO;
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.dto.ProdutoSuggestionDTO;
+import br.com.join.service.mapper.ProdutoMapperImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the in-memory side effects of the {@link ProdutoService} writes.
+ */
+class ProdutoServiceTest {
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TransactionalOperator transactionalOperator = NoOpReactiveTransactionManager.transactionalOperator();
+
+    private CategoriaEstoqueAggregate categoriaEstoqueAggregate;
+
+    private ProdutoEstoqueBaixoWatchlist produtoEstoqueBaixoWatchlist;
+
+    private ProdutoSuggestionIndex produtoSuggestionIndex;
+
+    private EntityChangeFeed entityChangeFeed;
+
+    private ProdutoService produtoService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getEstoque().setDefaultThreshold(10);
+        categoriaEstoqueAggregate = new CategoriaEstoqueAggregate(produtoRepository, meterRegistry, properties);
+        produtoEstoqueBaixoWatchlist = new ProdutoEstoqueBaixoWatchlist(produtoRepository, properties, meterRegistry);
+        produtoSuggestionIndex = new ProdutoSuggestionIndex(produtoRepository, meterRegistry);
+        entityChangeFeed = new EntityChangeFeed(properties, meterRegistry);
+        produtoService =
+            new ProdutoService(
+                produtoRepository,
+                new ProdutoMapperImpl(),
+                produtoSuggestionIndex,
+                categoriaEstoqueAggregate,
+                produtoEstoqueBaixoWatchlist,
+                entityChangeFeed,
+                outboxService,
+                new QueryResultCache(new ObjectMapper(), properties, meterRegistry),
+                new ProdutoIdFilter(produtoRepository, properties, meterRegistry),
+                properties,
+                meterRegistry
+            );
+        when(produtoRepository.findAllById(anyList())).thenReturn(Flux.empty());
+        when(outboxService.append(anyString(), any(), anyLong(), any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void shouldLeaveNoTraceOfAFailedUpsertChunk() {
+        // The first chunk commits, the second one fails on its second row and rolls back
+        when(produtoRepository.upsertAll(anyList()))
+            .thenReturn(Flux.just(produto(1L, "Arroz", 5)))
+            .thenReturn(Flux.concat(Flux.just(produto(2L, "Azeite", 3)), Flux.error(new DataIntegrityViolationException("Duplicate"))));
+
+        transactionalOperator.transactional(produtoService.upsertAll(List.of(produtoDTO("Arroz", 5)))).blockLast();
+        Flux<ProdutoDTO> failed = transactionalOperator.transactional(
+            produtoService.upsertAll(List.of(produtoDTO("Azeite", 3), produtoDTO("Azeite", 4)))
+        );
+        assertThatThrownBy(failed::blockLast).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(categoriaEstoqueAggregate.getAll())
+            .usingRecursiveFieldByFieldElementComparator()
+            .containsExactly(new CategoriaEstoqueDTO(10L, 1, 5));
+        assertThat(produtoEstoqueBaixoWatchlist.size()).isEqualTo(1);
+        assertThat(produtoSuggestionIndex.suggest("a", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(1L);
+        assertThat(entityChangeFeed.lastSequence()).isEqualTo(1);
+    }
+
+    private static Produto produto(Long id, String nome, int quantidade) {
+        Produto produto = new Produto().id(id).nome(nome).quantidade(quantidade);
+        produto.setCategoriaId(10L);
+        return produto;
+    }
+
+    private static ProdutoDTO produtoDTO(String nome, int quantidade) {
+        CategoriaDTO categoria = new CategoriaDTO();
+        categoria.setId(10L);
+        ProdutoDTO produtoDTO = new ProdutoDTO();
+        produtoDTO.setNome(nome);
+        produtoDTO.setQuantidade(quantidade);
+        produtoDTO.setCategoria(categoria);
+        return produtoDTO;
+    }
+}
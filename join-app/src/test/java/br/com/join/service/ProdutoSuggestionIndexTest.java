@@ -0,0 +1,129 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import br.com.join.domain.Produto;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoSuggestionDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link ProdutoSuggestionIndex}.
+ */
+class ProdutoSuggestionIndexTest {
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProdutoSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProdutoSuggestionIndex(produtoRepository, meterRegistry);
+        index.put(1L, "Café torrado");
+        index.put(2L, "Caneta azul");
+        index.put(3L, "Açúcar cristal");
+        index.put(4L, "Cafeteira elétrica");
+    }
+
+    @Test
+    void shouldSuggestByWordPrefixIgnoringCaseAndAccents() {
+        assertThat(index.suggest("caf", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(1L, 4L);
+        assertThat(index.suggest("ACUC", 10)).extracting(ProdutoSuggestionDTO::getNome).containsExactly("Açúcar cristal");
+        assertThat(index.suggest("azu", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(2L);
+        assertThat(index.suggest("ca", 2)).hasSize(2);
+        assertThat(index.suggest("xyz", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRequireEveryWordOfThePrefix() {
+        assertThat(index.suggest("caf ele", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(4L);
+        assertThat(index.suggest("torrado ca", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void shouldFollowUpdatesAndRemovals() {
+        index.put(1L, "Chá verde");
+        index.remove(2L);
+
+        assertThat(index.suggest("caf", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(4L);
+        assertThat(index.suggest("cha", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(1L);
+        assertThat(index.suggest("can", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRebuildFromTheDatabaseAndReplayConcurrentWrites() {
+        Sinks.Many<Produto> scan = Sinks.many().unicast().onBackpressureBuffer();
+        when(produtoRepository.findAllNomes()).thenReturn(scan.asFlux());
+
+        index.rebuild().subscribe();
+        scan.tryEmitNext(new Produto().id(10L).nome("Caderno"));
+        scan.tryEmitNext(new Produto().id(11L).nome("Borracha"));
+        index.put(12L, "Cadeira");
+        index.remove(11L);
+        // Still served by the previous index while scanning
+        assertThat(index.suggest("caf", 10)).hasSize(2);
+        scan.tryEmitComplete();
+
+        assertThat(index.suggest("cad", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactlyInAnyOrder(10L, 12L);
+        assertThat(index.suggest("caf", 10)).isEmpty();
+        assertThat(index.suggest("bor", 10)).isEmpty();
+        assertThat(meterRegistry.get("produto.suggest.index.rebuild").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("produto.suggest.index.size").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("produto.suggest.index.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void shouldKeepTheMemoryEstimateAsTheIndexIsWritten() {
+        double empty = meterRegistry.get("produto.suggest.index.memory").gauge().value();
+        index.put(50L, "Caderno universitário");
+        double one = meterRegistry.get("produto.suggest.index.memory").gauge().value();
+        index.put(51L, "Caneta azul");
+        double two = meterRegistry.get("produto.suggest.index.memory").gauge().value();
+        index.remove(51L);
+
+        assertThat(one).isGreaterThan(empty);
+        assertThat(two).isGreaterThan(one);
+        assertThat(meterRegistry.get("produto.suggest.index.memory").gauge().value()).isLessThan(two);
+    }
+
+    @Test
+    void shouldOnlyApplyTheCommittedWrites() {
+        TransactionalOperator transactionalOperator = NoOpReactiveTransactionManager.transactionalOperator();
+        index.put(40L, "Xícara branca");
+
+        Mono<Void> rolledBack = index
+            .putOnCommit(41L, "Xarope")
+            .then(index.removeOnCommit(40L))
+            .then(Mono.error(new IllegalStateException("Deadlock found")));
+        assertThatThrownBy(() -> transactionalOperator.transactional(rolledBack).block()).hasMessage("Deadlock found");
+
+        assertThat(index.suggest("x", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(40L);
+
+        transactionalOperator.transactional(index.putOnCommit(41L, "Xarope").then(index.removeOnCommit(40L))).block();
+
+        assertThat(index.suggest("x", 10)).extracting(ProdutoSuggestionDTO::getId).containsExactly(41L);
+    }
+
+    @Test
+    void shouldIgnoreBlankNamesWhenLoading() {
+        when(produtoRepository.findAllNomes()).thenReturn(Flux.just(new Produto().id(20L).nome("--")));
+
+        index.rebuild().block();
+
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.IntegrationTest;
+import br.com.join.domain.Categoria;
+import br.com.join.domain.Produto;
+import br.com.join.repository.CategoriaRepository;
+import br.com.join.repository.EntityManager;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.mapper.ProdutoMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the {@link QueryResultCache} behind the {@link ProdutoService} lists, which the test profile
+ * disables otherwise.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.result-cache.time-to-live=1m")
+class QueryResultCacheIT {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoMapper produtoMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    private Produto produto;
+
+    @AfterEach
+    public void cleanup() {
+        deleteEntities();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        deleteEntities();
+        Categoria categoria = categoriaRepository.save(new Categoria().nome("Grãos")).block();
+        produto = new Produto().nome("Arroz").quantidade(10);
+        produto.setCategoria(categoria);
+        produto = produtoRepository.save(produto).block();
+    }
+
+    @Test
+    void shouldServeTheCachedPageUntilAWriteThroughTheService() {
+        assertThat(produtoService.findAll(FIRST_PAGE).collectList().block()).extracting(ProdutoDTO::getNome).containsExactly("Arroz");
+
+        // Written through the repository, which the cache does not see
+        produtoRepository.save(produto.nome("Arroz integral")).block();
+        assertThat(produtoService.findAll(FIRST_PAGE).collectList().block()).extracting(ProdutoDTO::getNome).containsExactly("Arroz");
+
+        ProdutoDTO produtoDTO = produtoMapper.toDto(produto);
+        produtoDTO.setNome("Arroz parboilizado");
+        produtoService.update(produtoDTO).block();
+        assertThat(produtoService.findAll(FIRST_PAGE).collectList().block())
+            .extracting(ProdutoDTO::getNome)
+            .containsExactly("Arroz parboilizado");
+    }
+
+    private void deleteEntities() {
+        em.deleteAll(Produto.class).block();
+        em.deleteAll(Categoria.class).block();
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link QueryResultCache}.
+ */
+class QueryResultCacheTest {
+
+    private static final List<String> ENTITIES = List.of("produto", "categoria");
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Mono<List<String>> loader = Mono.fromSupplier(() -> List.of("Arroz", "Feijão #" + loads.incrementAndGet()));
+
+    @Test
+    void shouldLoadOnceUntilAnEntityIsWritten() {
+        QueryResultCache cache = newCache();
+
+        assertThat(cache.get(ENTITIES, List.of("page", 0), loader).block()).containsExactly("Arroz", "Feijão #1");
+        assertThat(cache.get(ENTITIES, List.of("page", 0), loader).block()).containsExactly("Arroz", "Feijão #1");
+        assertThat(cache.get(ENTITIES, List.of("page", 1), loader).block()).containsExactly("Arroz", "Feijão #2");
+
+        cache.invalidateOnCommit("categoria").block();
+
+        assertThat(cache.get(ENTITIES, List.of("page", 0), loader).block()).containsExactly("Arroz", "Feijão #3");
+        assertThat(cache.get(List.of("outro"), List.of("page", 0), loader).block()).containsExactly("Arroz", "Feijão #4");
+    }
+
+    @Test
+    void shouldNotCacheAResultLoadedWhileAWriteCommitted() {
+        QueryResultCache cache = newCache();
+        Mono<List<String>> racingLoader = loader.flatMap(result -> cache.invalidateOnCommit("produto").thenReturn(result));
+
+        cache.get(ENTITIES, List.of("page", 0), racingLoader).block();
+
+        assertThat(cache.get(ENTITIES, List.of("page", 0), loader).block()).containsExactly("Arroz", "Feijão #2");
+    }
+
+    @Test
+    void shouldAlwaysLoadWithoutTimeToLive() {
+        applicationProperties.getResultCache().setTimeToLive(Duration.ZERO);
+        QueryResultCache cache = newCache();
+
+        cache.get(ENTITIES, List.of("page", 0), loader).block();
+        cache.get(ENTITIES, List.of("page", 0), loader).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private QueryResultCache newCache() {
+        return new QueryResultCache(new ObjectMapper(), applicationProperties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.join.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.dto.EntityChangeDTO.Operation;
+import br.com.join.service.dto.OutboxEventDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Test class for the {@link WebhookOutboxSink}, against a local stand-in of the webhook.
+ */
+class WebhookOutboxSinkTest {
+
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+
+    private DisposableServer webhook;
+
+    private WebhookOutboxSink sink;
+
+    @BeforeEach
+    void setUp() {
+        webhook =
+            HttpServer
+                .create()
+                .port(0)
+                .route(routes ->
+                    routes
+                        .post(
+                            "/events",
+                            (request, response) ->
+                                request.receive().aggregate().asString().doOnNext(received::add).then(response.status(204).send())
+                        )
+                        .post("/unavailable", (request, response) -> response.status(503).send())
+                )
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhook.disposeNow();
+    }
+
+    @Test
+    void shouldPostTheBatchAsAJsonArray() {
+        sink = sink("/events");
+
+        sink.deliver(List.of(event(1L, "{\"id\":10,\"nome\":\"Arroz\"}"), event(2L, null))).block();
+
+        assertThat(received).hasSize(1);
+        assertThat(received.peek())
+            .startsWith("[{\"id\":1,")
+            .contains("\"eventType\":\"CREATED\"")
+            .contains("\"payload\":{\"id\":10,\"nome\":\"Arroz\"}")
+            .contains("\"payload\":null");
+    }
+
+    @Test
+    void shouldFailWhenTheWebhookRejectsTheBatch() {
+        sink = sink("/unavailable");
+
+        Mono<Void> delivery = sink.deliver(List.of(event(1L, null)));
+
+        assertThatThrownBy(delivery::block).isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+    }
+
+    private WebhookOutboxSink sink(String path) {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getOutbox().setWebhookUrl("http://localhost:" + webhook.port() + path);
+        return new WebhookOutboxSink(WebClient.builder(), properties);
+    }
+
+    private static OutboxEventDTO event(Long id, String payload) {
+        OutboxEventDTO event = new OutboxEventDTO();
+        event.setId(id);
+        event.setAggregateType("produto");
+        event.setAggregateId(10L);
+        event.setEventType(Operation.CREATED);
+        event.setPayload(payload);
+        event.setCreatedDate(Instant.now());
+        return event;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.join.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class ProdutoSuggestionDTOTest {
+
+    @Test
+    void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(ProdutoSuggestionDTO.class);
+        ProdutoSuggestionDTO produtoSuggestionDTO1 = new ProdutoSuggestionDTO();
+        produtoSuggestionDTO1.setId(1L);
+        ProdutoSuggestionDTO produtoSuggestionDTO2 = new ProdutoSuggestionDTO();
+        assertThat(produtoSuggestionDTO1).isNotEqualTo(produtoSuggestionDTO2);
+        produtoSuggestionDTO2.setId(produtoSuggestionDTO1.getId());
+        assertThat(produtoSuggestionDTO1).isEqualTo(produtoSuggestionDTO2);
+        produtoSuggestionDTO2.setId(2L);
+        assertThat(produtoSuggestionDTO1).isNotEqualTo(produtoSuggestionDTO2);
+        produtoSuggestionDTO1.setId(null);
+        assertThat(produtoSuggestionDTO1).isNotEqualTo(produtoSuggestionDTO2);
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.join.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+/**
+ * Test class for the {@link AcceptEncoding}.
+ */
+class AcceptEncodingTest {
+
+    @Test
+    void shouldTellWhetherACodingIsAccepted() {
+        assertThat(accepts("gzip, deflate, br", "gzip")).isTrue();
+        assertThat(accepts("br;q=1.0, GZIP;q=0.5", "gzip")).isTrue();
+        assertThat(accepts("gzip;q=0", "gzip")).isFalse();
+        assertThat(accepts("gzip; q=0.000", "gzip")).isFalse();
+        assertThat(accepts("identity", "gzip")).isFalse();
+        assertThat(accepts("x-gzip", "gzip")).isFalse();
+        assertThat(accepts("br;q=0, gzip", "br")).isFalse();
+    }
+
+    @Test
+    void shouldReadEveryAcceptEncodingHeader() {
+        MockServerHttpRequest request = MockServerHttpRequest
+            .get("/")
+            .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+            .header(HttpHeaders.ACCEPT_ENCODING, "br")
+            .build();
+
+        assertThat(AcceptEncoding.accepts(request, "br")).isTrue();
+        assertThat(AcceptEncoding.accepts(MockServerHttpRequest.get("/").build(), "br")).isFalse();
+    }
+
+    private static boolean accepts(String acceptEncoding, String coding) {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding).build();
+        return AcceptEncoding.accepts(request, coding);
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.join.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.config.ApplicationProperties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link MappedStaticResourceWebFilter}.
+ */
+class MappedStaticResourceWebFilterTest {
+
+    private final MappedStaticResourceWebFilter filter = new MappedStaticResourceWebFilter(
+        new ApplicationProperties.StaticResources(),
+        "static-fixture"
+    );
+
+    private final AtomicBoolean chainCalled = new AtomicBoolean();
+
+    private final WebFilterChain chain = exchange -> {
+        chainCalled.set(true);
+        return Mono.empty();
+    };
+
+    @Test
+    void shouldServeMappedResource() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/en.json"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(chainCalled).isFalse();
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNotNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).contains("Join App");
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() {
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/en.json"));
+        filter.filter(first, chain).block();
+
+        MockServerWebExchange second = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/i18n/en.json").header(HttpHeaders.IF_NONE_MATCH, first.getResponse().getHeaders().getETag())
+        );
+        filter.filter(second, chain).block();
+
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void shouldFallThroughForMissingOrUnmappedResources() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/fr.json")), chain).block();
+        assertThat(chainCalled).isTrue();
+
+        chainCalled.set(false);
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/content/main.css")), chain).block();
+        assertThat(chainCalled).isTrue();
+
+        chainCalled.set(false);
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/../config/application.yml")), chain).block();
+        assertThat(chainCalled).isTrue();
+    }
+
+    @Test
+    void shouldNotCacheTheMissingResources() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/en.json")), chain).block();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/fr.json")), chain).block();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/i18n/de.json")), chain).block();
+
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeTheCodingsAccepted() {
+        assertThat(contentEncoding("gzip, deflate")).isEqualTo("gzip");
+        assertThat(contentEncoding("br, gzip;q=0")).isNull();
+        assertThat(contentEncoding("x-gzip")).isNull();
+        assertThat(contentEncoding(null)).isNull();
+    }
+
+    private String contentEncoding(String acceptEncoding) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/i18n/en.json");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    }
+}
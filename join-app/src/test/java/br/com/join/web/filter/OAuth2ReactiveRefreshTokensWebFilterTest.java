@@ -0,0 +1,132 @@
+package br.com.join.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import br.com.join.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.web.server.ServerOAuth2AuthorizedClientRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link OAuth2ReactiveRefreshTokensWebFilter}.
+ */
+class OAuth2ReactiveRefreshTokensWebFilterTest {
+
+    private static final Instant NOW = Instant.parse("2024-07-16T00:00:00Z");
+
+    private final ClientRegistration registration = ClientRegistration
+        .withRegistrationId("oidc")
+        .clientId("client")
+        .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+        .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+        .authorizationUri("https://idp/authorize")
+        .tokenUri("https://idp/token")
+        .build();
+
+    private final OAuth2AuthenticationToken authentication = new OAuth2AuthenticationToken(
+        new DefaultOAuth2User(AuthorityUtils.createAuthorityList("ROLE_USER"), Map.of("sub", "user"), "sub"),
+        AuthorityUtils.createAuthorityList("ROLE_USER"),
+        "oidc"
+    );
+
+    private final WebFilterChain chain = exchange -> Mono.empty();
+
+    private ReactiveOAuth2AuthorizedClientManager clientManager;
+    private ServerOAuth2AuthorizedClientRepository authorizedClientRepository;
+    private MeterRegistry meterRegistry;
+    private OAuth2ReactiveRefreshTokensWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        clientManager = mock(ReactiveOAuth2AuthorizedClientManager.class);
+        authorizedClientRepository = mock(ServerOAuth2AuthorizedClientRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter =
+            new OAuth2ReactiveRefreshTokensWebFilter(clientManager, authorizedClientRepository, new ApplicationProperties(), meterRegistry);
+        filter.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldSkipExcludedPaths() {
+        filter.filter(exchange("/management/health"), chain).block();
+        filter.filter(exchange("/app/main.js"), chain).block();
+
+        verifyNoInteractions(authorizedClientRepository, clientManager);
+    }
+
+    @Test
+    void shouldNotRefreshFreshToken() {
+        when(authorizedClientRepository.loadAuthorizedClient(eq("oidc"), any(), any()))
+            .thenReturn(Mono.just(client("a", Duration.ofHours(1))));
+
+        filter.filter(exchange("/api/produtos"), chain).block();
+
+        verify(clientManager, never()).authorize(any());
+        assertThat(meterRegistry.counter("oauth2.token.refreshes").count()).isZero();
+    }
+
+    @Test
+    void shouldShareConcurrentRefreshes() {
+        when(authorizedClientRepository.loadAuthorizedClient(eq("oidc"), any(), any()))
+            .thenReturn(Mono.just(client("a", Duration.ofSeconds(30))));
+        Sinks.One<OAuth2AuthorizedClient> refreshed = Sinks.one();
+        when(clientManager.authorize(any())).thenReturn(refreshed.asMono());
+
+        Mono<Void> first = filter.filter(exchange("/api/produtos"), chain).cache();
+        Mono<Void> second = filter.filter(exchange("/api/categorias"), chain).cache();
+        first.subscribe();
+        second.subscribe();
+        refreshed.tryEmitValue(client("b", Duration.ofMinutes(5)));
+        first.block();
+        second.block();
+
+        verify(clientManager, times(1)).authorize(any());
+        assertThat(meterRegistry.counter("oauth2.token.refreshes").count()).isEqualTo(1);
+    }
+
+    private ServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)).mutate().principal(Mono.just(authentication)).build();
+    }
+
+    private OAuth2AuthorizedClient client(String tokenValue, Duration expiresIn) {
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(
+            OAuth2AccessToken.TokenType.BEARER,
+            tokenValue,
+            NOW.minus(Duration.ofMinutes(5)),
+            NOW.plus(expiresIn),
+            Collections.emptySet()
+        );
+        return new OAuth2AuthorizedClient(registration, "user", accessToken, new OAuth2RefreshToken("refresh", NOW));
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.join.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Test class for the {@link RequestCoalescingWebFilter}.
+ */
+class RequestCoalescingWebFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestCoalescingWebFilter filter = new RequestCoalescingWebFilter(new ApplicationProperties.Coalescing(), meterRegistry);
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    private final WebFilterChain chain = exchange -> {
+        chainCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        return release
+            .asMono()
+            .then(
+                Mono.defer(() -> {
+                    response.getHeaders().set("X-Total-Count", "1");
+                    response.getHeaders().add(HttpHeaders.SET_COOKIE, "XSRF-TOKEN=secret");
+                    return response.writeWith(Mono.just(response.bufferFactory().wrap("[1]".getBytes(StandardCharsets.UTF_8))));
+                })
+            );
+    };
+
+    @Test
+    void shouldShareTheResponseOfAnIdenticalRequestInFlight() {
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/produtos?page=0&size=20"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/produtos?size=20&page=0"));
+
+        Mono<Void> firstResponse = filter.filter(first, chain).cache();
+        firstResponse.subscribe();
+        Mono<Void> secondResponse = filter.filter(second, chain).cache();
+        secondResponse.subscribe();
+        release.tryEmitEmpty();
+        firstResponse.block();
+        secondResponse.block();
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("[1]");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Total-Count")).isEqualTo("1");
+        assertThat(second.getResponse().getHeaders().containsKey(HttpHeaders.SET_COOKIE)).isFalse();
+        assertThat(meterRegistry.get("http.server.requests.coalesced").tag("uri", "/api/produtos").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunTheChainOfEachRequestOutOfTheAllowlist() {
+        Mono<Void> firstResponse = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/users")), chain).cache();
+        firstResponse.subscribe();
+        Mono<Void> secondResponse = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/users")), chain).cache();
+        secondResponse.subscribe();
+        release.tryEmitEmpty();
+        firstResponse.block();
+        secondResponse.block();
+
+        assertThat(chainCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldRunTheChainWhenTheRequestInFlightFails() {
+        Sinks.Empty<Void> failure = Sinks.empty();
+        WebFilterChain failingChain = exchange -> {
+            chainCalls.incrementAndGet();
+            return failure.asMono();
+        };
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categorias"));
+
+        Mono<Void> firstResponse = filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/categorias")), failingChain);
+        firstResponse.subscribe(null, e -> {});
+        Mono<Void> secondResponse = filter.filter(second, chain).cache();
+        secondResponse.subscribe();
+        failure.tryEmitError(new IllegalStateException("Connection reset"));
+        release.tryEmitEmpty();
+        secondResponse.block();
+
+        assertThat(chainCalls).hasValue(2);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("[1]");
+    }
+
+    @Test
+    void shouldKeyOnTheParametersTheHeadersAndTheAuthorities() {
+        String key = key(MockServerHttpRequest.get("/api/produtos?sort=id,asc&page=0&sort=nome"), "");
+
+        assertThat(key(MockServerHttpRequest.get("/api/produtos?page=0&sort=id,asc&sort=nome"), "")).isEqualTo(key);
+        assertThat(key(MockServerHttpRequest.get("/api/produtos?page=0&sort=nome&sort=id,asc"), "")).isNotEqualTo(key);
+        MockServerHttpRequest.BaseBuilder<?> cbor = MockServerHttpRequest
+            .get("/api/produtos?sort=id,asc&page=0&sort=nome")
+            .header(HttpHeaders.ACCEPT, "application/cbor");
+        assertThat(key(cbor, "")).isNotEqualTo(key);
+        MockServerHttpRequest.BaseBuilder<?> cors = MockServerHttpRequest
+            .get("/api/produtos?sort=id,asc&page=0&sort=nome")
+            .header(HttpHeaders.ORIGIN, "https://admin.example.com");
+        assertThat(key(cors, "")).isNotEqualTo(key);
+        assertThat(key(MockServerHttpRequest.get("/api/produtos?sort=id,asc&page=0&sort=nome"), "ROLE_ADMIN")).isNotEqualTo(key);
+    }
+
+    private static String key(MockServerHttpRequest.BaseBuilder<?> request, String authorities) {
+        return RequestCoalescingWebFilter.key(request.build(), authorities);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.join.web.filter;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+import br.com.join.IntegrationTest;
+import br.com.join.domain.Categoria;
+import br.com.join.domain.Produto;
+import br.com.join.repository.CategoriaRepository;
+import br.com.join.repository.EntityManager;
+import br.com.join.service.CategoriaService;
+import br.com.join.service.dto.CategoriaDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ResponseCacheWebFilter}, which the test profile disables otherwise.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@TestPropertySource(properties = "application.response-cache.time-to-live=1m")
+@WithMockUser
+class ResponseCacheWebFilterIT {
+
+    private static final String ENTITY_API_URL = "/api/categorias?sort=id,asc";
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Categoria categoria;
+
+    @AfterEach
+    public void cleanup() {
+        deleteEntities();
+    }
+
+    @BeforeEach
+    public void initTest() {
+        deleteEntities();
+        categoria = categoriaRepository.save(new Categoria().nome("Grãos")).block();
+    }
+
+    @Test
+    void shouldServeTheCachedListUntilAWriteThroughTheService() {
+        getCategorias().jsonPath("$.[*].nome").value(hasItem("Grãos"));
+
+        // Written through the repository, which the cache does not see
+        categoriaRepository.save(categoria.nome("Cereais")).block();
+        getCategorias().jsonPath("$.[*].nome").value(hasItem("Grãos"));
+
+        CategoriaDTO bebidas = new CategoriaDTO();
+        bebidas.setNome("Bebidas");
+        categoriaService.save(bebidas).block();
+        getCategorias()
+            .jsonPath("$.[*].nome")
+            .value(hasItem("Cereais"))
+            .jsonPath("$.[*].nome")
+            .value(hasItem("Bebidas"))
+            .jsonPath("$.[*].nome")
+            .value(not(hasItem("Grãos")));
+    }
+
+    private void deleteEntities() {
+        em.deleteAll(Produto.class).block();
+        em.deleteAll(Categoria.class).block();
+    }
+
+    private WebTestClient.BodyContentSpec getCategorias() {
+        return webTestClient.get().uri(ENTITY_API_URL).exchange().expectStatus().isOk().expectBody();
+    }
+}
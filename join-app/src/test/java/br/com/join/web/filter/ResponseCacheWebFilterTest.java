@@ -0,0 +1,147 @@
+package br.com.join.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.config.ApplicationProperties;
+import br.com.join.service.QueryResultCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link ResponseCacheWebFilter}.
+ */
+class ResponseCacheWebFilterTest {
+
+    private static final String BODY = "[" + "{\"id\":1,\"nome\":\"Arroz\"},".repeat(100) + "{}]";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final QueryResultCache queryResultCache = new QueryResultCache(
+        new ObjectMapper(),
+        new ApplicationProperties(),
+        meterRegistry
+    );
+
+    private final ResponseCacheWebFilter filter = new ResponseCacheWebFilter(
+        new ApplicationProperties.ResponseCache(),
+        queryResultCache,
+        meterRegistry
+    );
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    private HttpStatus status = HttpStatus.OK;
+
+    private final WebFilterChain chain = exchange -> {
+        chainCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set("X-Total-Count", "101");
+        response.getHeaders().set(HttpHeaders.LINK, "</api/produtos?page=1&size=20>; rel=\"next\"");
+        response.getHeaders().setVary(List.of(HttpHeaders.ORIGIN, HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+    };
+
+    @AfterEach
+    void tearDown() {
+        filter.close();
+    }
+
+    @Test
+    void shouldServeTheCachedBodyAndHeaders() {
+        get("/api/produtos?page=0&size=20", null);
+        MockServerWebExchange cached = get("/api/produtos?size=20&page=0", null);
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(cached.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(cached.getResponse().getHeaders().getFirst("X-Total-Count")).isEqualTo("101");
+        assertThat(cached.getResponse().getHeaders().getFirst(HttpHeaders.LINK)).contains("rel=\"next\"");
+        assertThat(meterRegistry.get("http.server.response.cache.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void shouldServeTheGzippedBodyWhenAccepted() throws IOException {
+        get("/api/produtos", null);
+        MockServerWebExchange cached = get("/api/produtos", "deflate, gzip;q=0.8");
+
+        HttpHeaders headers = cached.getResponse().getHeaders();
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(headers.getVary())
+            .containsExactly(HttpHeaders.ORIGIN, HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ACCEPT_ENCODING);
+        byte[] gzipped = DataBufferUtils
+            .join(cached.getResponse().getBody())
+            .map(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                return bytes;
+            })
+            .block();
+        assertThat(headers.getContentLength()).isEqualTo(gzipped.length).isLessThan(BODY.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    void shouldKeepTheVaryOfTheResponseServed() {
+        get("/api/produtos", null);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/produtos"));
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS));
+        filter.filter(exchange, chain).block();
+
+        assertThat(chainCalls).hasValue(1);
+        assertThat(exchange.getResponse().getHeaders().getVary())
+            .containsExactlyInAnyOrder(
+                HttpHeaders.ORIGIN,
+                HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
+                HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS,
+                HttpHeaders.ACCEPT_ENCODING
+            );
+    }
+
+    @Test
+    void shouldRunTheChainOnceAnEntityIsWritten() {
+        get("/api/categorias", null);
+        queryResultCache.invalidateOnCommit("categoria").block();
+        get("/api/categorias", null);
+        get("/api/categorias", null);
+
+        assertThat(chainCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheTheErrors() {
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+        get("/api/produtos", null);
+        get("/api/produtos", null);
+
+        assertThat(chainCalls).hasValue(2);
+    }
+
+    private MockServerWebExchange get(String uri, String acceptEncoding) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(uri);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+}
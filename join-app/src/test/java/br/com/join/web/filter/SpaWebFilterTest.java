@@ -0,0 +1,86 @@
+package br.com.join.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.join.config.ApplicationProperties;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link SpaWebFilter}.
+ */
+class SpaWebFilterTest {
+
+    private static final String INDEX_HTML = "<html><body>jhi</body></html>";
+
+    private final SpaWebFilter filter = new SpaWebFilter(
+        new ApplicationProperties.Spa(),
+        new ByteArrayResource(INDEX_HTML.getBytes(StandardCharsets.UTF_8))
+    );
+
+    @Test
+    void shouldRecognizeClientRoutes() {
+        assertThat(filter.isClientRoute("/")).isTrue();
+        assertThat(filter.isClientRoute("/produto/1/view")).isTrue();
+        assertThat(filter.isClientRoute("/ap")).isTrue();
+
+        assertThat(filter.isClientRoute("/api")).isFalse();
+        assertThat(filter.isClientRoute("/api/produtos")).isFalse();
+        assertThat(filter.isClientRoute("/management/health")).isFalse();
+        assertThat(filter.isClientRoute("/v3/api-docs")).isFalse();
+        assertThat(filter.isClientRoute("/main.js")).isFalse();
+        assertThat(filter.isClientRoute("/produto\\1")).isFalse();
+    }
+
+    @Test
+    void shouldServeCachedIndexHtml() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/produto"));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange, forwardTo(forwarded)).block();
+
+        assertThat(forwarded.get()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(INDEX_HTML);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNotNull();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() {
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+        filter.filter(first, forwardTo(new AtomicReference<>())).block();
+        String eTag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/").header(HttpHeaders.IF_NONE_MATCH, eTag));
+        filter.filter(second, forwardTo(new AtomicReference<>())).block();
+
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void shouldForwardWhenIndexHtmlIsNotCached() {
+        ApplicationProperties.Spa properties = new ApplicationProperties.Spa();
+        properties.setCacheIndexHtml(false);
+        SpaWebFilter uncached = new SpaWebFilter(properties, new ByteArrayResource(new byte[0]));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        uncached.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/produto")), forwardTo(forwarded)).block();
+
+        assertThat(forwarded.get().getRequest().getPath().value()).isEqualTo("/index.html");
+    }
+
+    private static WebFilterChain forwardTo(AtomicReference<ServerWebExchange> forwarded) {
+        return exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+}
@@ -7,8 +7,11 @@ import static org.springframework.security.test.web.reactive.server.SecurityMock
 
 import br.com.join.IntegrationTest;
 import br.com.join.domain.Categoria;
+import br.com.join.domain.Produto;
 import br.com.join.repository.CategoriaRepository;
 import br.com.join.repository.EntityManager;
+import br.com.join.repository.ProdutoRepository;
+import br.com.join.service.CategoriaEstoqueAggregate;
 import br.com.join.service.dto.CategoriaDTO;
 import br.com.join.service.mapper.CategoriaMapper;
 import java.time.Duration;
@@ -50,6 +53,12 @@ class CategoriaResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaEstoqueAggregate categoriaEstoqueAggregate;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -189,6 +198,25 @@ class CategoriaResourceIT {
             .value(hasItem(DEFAULT_NOME));
     }
 
+    @Test
+    void multiGetCategorias() {
+        // Initialize the database
+        categoriaRepository.save(categoria).block();
+        Categoria other = categoriaRepository.save(createUpdatedEntity(em)).block();
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(List.of(other.getId(), Long.MAX_VALUE, categoria.getId(), other.getId()))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(List.of(other.getId().intValue(), categoria.getId().intValue()));
+    }
+
     @Test
     void getCategoria() {
         // Initialize the database
@@ -211,6 +239,152 @@ class CategoriaResourceIT {
             .value(is(DEFAULT_NOME));
     }
 
+    @Test
+    void getCategoriaEstoque() {
+        // Initialize the database, behind the back of the aggregate
+        categoriaRepository.save(categoria).block();
+        Produto produto1 = produtoRepository.save(new Produto().nome("AAAAAAAAAA").quantidade(3).categoria(categoria)).block();
+        Produto produto2 = produtoRepository.save(new Produto().nome("BBBBBBBBBB").quantidade(4).categoria(categoria)).block();
+        categoriaEstoqueAggregate.reconcile().block();
+
+        try {
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL_ID + "/estoque", categoria.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.categoriaId")
+                .value(is(categoria.getId().intValue()))
+                .jsonPath("$.produtos")
+                .value(is(2))
+                .jsonPath("$.quantidade")
+                .value(is(7));
+
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "/estoque")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.[*].categoriaId")
+                .value(hasItem(categoria.getId().intValue()));
+        } finally {
+            produtoRepository.deleteById(produto1.getId()).block();
+            produtoRepository.deleteById(produto2.getId()).block();
+        }
+    }
+
+    @Test
+    void getCategoriasByIdFiltering() {
+        // Initialize the database
+        categoriaRepository.save(categoria).block();
+
+        Long id = categoria.getId();
+
+        defaultCategoriaShouldBeFound("id.equals=" + id);
+        defaultCategoriaShouldNotBeFound("id.notEquals=" + id);
+
+        defaultCategoriaShouldBeFound("id.in=" + id);
+        defaultCategoriaShouldNotBeFound("id.notIn=" + id);
+    }
+
+    @Test
+    void getAllCategoriasByNomeContainsSomething() {
+        // Initialize the database
+        categoriaRepository.save(categoria).block();
+
+        // Get all the categoriaList where nome contains DEFAULT_NOME
+        defaultCategoriaShouldBeFound("nome.contains=" + DEFAULT_NOME);
+
+        // Get all the categoriaList where nome contains UPDATED_NOME
+        defaultCategoriaShouldNotBeFound("nome.contains=" + UPDATED_NOME);
+    }
+
+    @Test
+    void getAllCategoriasByNomeIsNullOrNotNull() {
+        // Initialize the database
+        categoriaRepository.save(categoria).block();
+
+        // Get all the categoriaList where nome is not null
+        defaultCategoriaShouldBeFound("nome.specified=true");
+
+        // Get all the categoriaList where nome is null
+        defaultCategoriaShouldNotBeFound("nome.specified=false");
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCategoriaShouldBeFound(String filter) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(categoria.getId().intValue()))
+            .jsonPath("$.[*].nome")
+            .value(hasItem(DEFAULT_NOME));
+
+        // Check, that the count call also returns 1
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/count?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .value(is(1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCategoriaShouldNotBeFound(String filter) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .isArray()
+            .jsonPath("$")
+            .isEmpty();
+
+        // Check, that the count call also returns 0
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/count?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .value(is(0));
+    }
+
     @Test
     void getNonExistingCategoria() {
         // Get the categoria
@@ -13,8 +13,11 @@ import br.com.join.repository.EntityManager;
 import br.com.join.repository.ProdutoRepository;
 import br.com.join.service.ProdutoService;
 import br.com.join.service.dto.ProdutoDTO;
+import br.com.join.service.dto.ProdutoDeltaDTO;
 import br.com.join.service.mapper.ProdutoMapper;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -30,8 +33,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -220,6 +225,112 @@ class ProdutoResourceIT {
         assertThat(produtoList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    void importProdutos() throws Exception {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+        int databaseSizeBeforeImport = produtoRepository.findAll().collectList().block().size();
+        String categoria = produto.getCategoria().getNome();
+        String csv =
+            "id;nome;quantidade;categoria\n" +
+            produto.getId() + ";" + UPDATED_NOME + ";" + UPDATED_QUANTIDADE + ";" + categoria + "\n" +
+            ";Imported;5;" + categoria + "\n" +
+            ";Rejected;five;" + categoria + "\n" +
+            ";Orphan;5;No such categoria\n";
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", csv.getBytes(StandardCharsets.UTF_8)).filename("produtos.csv");
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody()
+            .jsonPath("$.status")
+            .isEqualTo("COMPLETED")
+            .jsonPath("$.rowsRead")
+            .isEqualTo(4)
+            .jsonPath("$.rowsImported")
+            .isEqualTo(2)
+            .jsonPath("$.errors[*].line")
+            .isEqualTo(List.of(4, 5));
+
+        List<Produto> produtoList = produtoRepository.findAll().collectList().block();
+        assertThat(produtoList).hasSize(databaseSizeBeforeImport + 1);
+        Produto testProduto = produtoRepository.findById(produto.getId()).block();
+        assertThat(testProduto.getNome()).isEqualTo(UPDATED_NOME);
+        assertThat(testProduto.getQuantidade()).isEqualTo(UPDATED_QUANTIDADE);
+    }
+
+    @Test
+    void importProdutosWithUnsupportedFormat() {
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("file", new byte[0]).filename("produtos.xlsx");
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void importProdutosWithInvalidHeader() {
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .bodyValue("nome;quantidade\nImported;5\n")
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getProdutosDelta() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        ProdutoDeltaDTO catalog = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/delta")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ProdutoDeltaDTO.class)
+            .returnResult()
+            .getResponseBody();
+        assertThat(catalog.isReset()).isTrue();
+        assertThat(catalog.getProdutos()).extracting(ProdutoDTO::getId).contains(produto.getId());
+
+        webTestClient.delete().uri(ENTITY_API_URL_ID, produto.getId()).exchange().expectStatus().isNoContent();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/delta?since={token}", catalog.getToken())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.reset")
+            .isEqualTo(false)
+            .jsonPath("$.deletedIds")
+            .value(hasItem(produto.getId().intValue()));
+    }
+
+    @Test
+    void getProdutosDeltaWithInvalidToken() {
+        webTestClient.get().uri(ENTITY_API_URL + "/delta?since=yesterday").exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void getAllProdutos() {
         // Initialize the database
@@ -244,6 +355,93 @@ class ProdutoResourceIT {
             .value(hasItem(DEFAULT_QUANTIDADE));
     }
 
+    @Test
+    void getAllProdutosWithFields() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Get only the nome of the produtoList, sorted on a field which is not returned
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?fields=nome&sort=quantidade,desc&size=2000")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].nome")
+            .value(hasItem(DEFAULT_NOME))
+            .jsonPath("$.[*].id")
+            .doesNotExist()
+            .jsonPath("$.[*].quantidade")
+            .doesNotExist()
+            .jsonPath("$.[*].categoria")
+            .doesNotExist();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?fields=id,categoria&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(produto.getId().intValue()))
+            .jsonPath("$.[*].nome")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllProdutosWithUnknownField() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?fields=id,preco")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void searchProdutos() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Search the produtoList by a prefix of the name, within the quantidade range
+        webTestClient
+            .get()
+            .uri(
+                ENTITY_API_URL + "/_search?q={q}&minQtd={min}&maxQtd={max}",
+                DEFAULT_NOME.substring(0, 5),
+                DEFAULT_QUANTIDADE,
+                DEFAULT_QUANTIDADE
+            )
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(produto.getId().intValue()))
+            .jsonPath("$.[*].nome")
+            .value(hasItem(DEFAULT_NOME));
+
+        // Out of the quantidade range
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/_search?q=" + DEFAULT_NOME + "&minQtd=" + UPDATED_QUANTIDADE)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[?(@.id == " + produto.getId() + ")]")
+            .doesNotExist();
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllProdutosWithEagerRelationshipsIsEnabled() {
         when(produtoServiceMock.findAllWithEagerRelationships(any())).thenReturn(Flux.empty());
@@ -261,6 +459,44 @@ class ProdutoResourceIT {
         verify(produtoRepositoryMock, times(1)).findAllWithEagerRelationships(any());
     }
 
+    @Test
+    void getProdutosById() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?ids={ids}", produto.getId() + "," + Long.MAX_VALUE)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$.[0].id")
+            .isEqualTo(produto.getId().intValue())
+            .jsonPath("$.[0].categoria.nome")
+            .isEqualTo(produto.getCategoria().getNome());
+    }
+
+    @Test
+    void multiGetProdutosWithTooManyIds() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++) {
+            ids.add(id);
+        }
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(ids)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getProduto() {
         // Initialize the database
@@ -285,6 +521,171 @@ class ProdutoResourceIT {
             .value(is(DEFAULT_QUANTIDADE));
     }
 
+    @Test
+    void getProdutosByIdFiltering() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        Long id = produto.getId();
+
+        defaultProdutoShouldBeFound("id.equals=" + id);
+        defaultProdutoShouldNotBeFound("id.notEquals=" + id);
+
+        defaultProdutoShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultProdutoShouldNotBeFound("id.greaterThan=" + id);
+
+        defaultProdutoShouldBeFound("id.lessThanOrEqual=" + id);
+        defaultProdutoShouldNotBeFound("id.lessThan=" + id);
+    }
+
+    @Test
+    void getAllProdutosByNomeIsInShouldWork() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Get all the produtoList where nome in DEFAULT_NOME or UPDATED_NOME
+        defaultProdutoShouldBeFound("nome.in=" + DEFAULT_NOME + "," + UPDATED_NOME);
+
+        // Get all the produtoList where nome equals to UPDATED_NOME
+        defaultProdutoShouldNotBeFound("nome.in=" + UPDATED_NOME);
+    }
+
+    @Test
+    void getAllProdutosByNomeContainsSomething() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Get all the produtoList where nome contains DEFAULT_NOME
+        defaultProdutoShouldBeFound("nome.contains=" + DEFAULT_NOME);
+
+        // Get all the produtoList where nome contains UPDATED_NOME
+        defaultProdutoShouldNotBeFound("nome.contains=" + UPDATED_NOME);
+    }
+
+    @Test
+    void getAllProdutosByNomeNotContainsSomething() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Get all the produtoList where nome does not contain DEFAULT_NOME
+        defaultProdutoShouldNotBeFound("nome.doesNotContain=" + DEFAULT_NOME);
+
+        // Get all the produtoList where nome does not contain UPDATED_NOME
+        defaultProdutoShouldBeFound("nome.doesNotContain=" + UPDATED_NOME);
+    }
+
+    @Test
+    void getAllProdutosByQuantidadeIsGreaterThanSomething() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Get all the produtoList where quantidade is greater than DEFAULT_QUANTIDADE
+        defaultProdutoShouldNotBeFound("quantidade.greaterThan=" + DEFAULT_QUANTIDADE);
+
+        // Get all the produtoList where quantidade is greater than SMALLER_QUANTIDADE
+        defaultProdutoShouldBeFound("quantidade.greaterThan=" + (DEFAULT_QUANTIDADE - 1));
+    }
+
+    @Test
+    void getAllProdutosByQuantidadeIsLessThanSomething() {
+        // Initialize the database
+        produtoRepository.save(produto).block();
+
+        // Get all the produtoList where quantidade is less than DEFAULT_QUANTIDADE
+        defaultProdutoShouldNotBeFound("quantidade.lessThan=" + DEFAULT_QUANTIDADE);
+
+        // Get all the produtoList where quantidade is less than UPDATED_QUANTIDADE
+        defaultProdutoShouldBeFound("quantidade.lessThan=" + UPDATED_QUANTIDADE);
+    }
+
+    @Test
+    void getAllProdutosByCategoriaIsEqualToSomething() {
+        Categoria categoria = CategoriaResourceIT.createEntity(em);
+        em.insert(categoria).block();
+        produto.setCategoriaId(categoria.getId());
+        produtoRepository.save(produto).block();
+        Long categoriaId = categoria.getId();
+
+        // Get all the produtoList where categoria equals to categoriaId
+        defaultProdutoShouldBeFound("categoriaId.in=" + categoriaId);
+
+        // Get all the produtoList where categoria equals to (categoriaId + 1)
+        defaultProdutoShouldNotBeFound("categoriaId.equals=" + (categoriaId + 1));
+
+        // Get all the produtoList where categoria is not set
+        defaultProdutoShouldNotBeFound("categoriaId.specified=false");
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultProdutoShouldBeFound(String filter) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(produto.getId().intValue()))
+            .jsonPath("$.[*].nome")
+            .value(hasItem(DEFAULT_NOME))
+            .jsonPath("$.[*].quantidade")
+            .value(hasItem(DEFAULT_QUANTIDADE));
+
+        // Check, that the count call also returns 1
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/count?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .value(is(1));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultProdutoShouldNotBeFound(String filter) {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .isArray()
+            .jsonPath("$")
+            .isEmpty();
+
+        // Check, that the count call also returns 0
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/count?sort=id,desc&" + filter)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$")
+            .value(is(0));
+    }
+
     @Test
     void getNonExistingProduto() {
         // Get the produto
@@ -1,6 +1,8 @@
 const webpack = require('webpack');
 const { merge } = require('webpack-merge');
 const path = require('path');
+const zlib = require('zlib');
+const { promisify } = require('util');
 const { hashElement } = require('folder-hash');
 const MergeJsonWebpackPlugin = require('merge-jsons-webpack-plugin');
 const BrowserSyncPlugin = require('browser-sync-webpack-plugin');
@@ -12,6 +14,56 @@ const ESLintPlugin = require('eslint-webpack-plugin');
 const environment = require('./environment');
 const proxyConfig = require('./proxy.conf');
 
+const gzip = promisify(zlib.gzip);
+const brotliCompress = promisify(zlib.brotliCompress);
+
+/**
+ * Emits `.br` and `.gz` siblings of the text assets, served by the backend's EncodedResourceResolver
+ * so that they are not compressed again on every request.
+ */
+class PrecompressWebpackPlugin {
+  constructor({ test = /\.(js|css|json|svg|txt|webapp)$/, threshold = 1024 } = {}) {
+    this.test = test;
+    // Same as server.compression.min-response-size
+    this.threshold = threshold;
+  }
+
+  apply(compiler) {
+    const { Compilation, sources } = compiler.webpack;
+    compiler.hooks.thisCompilation.tap('PrecompressWebpackPlugin', compilation => {
+      compilation.hooks.processAssets.tapPromise(
+        { name: 'PrecompressWebpackPlugin', stage: Compilation.PROCESS_ASSETS_STAGE_TRANSFER, additionalAssets: true },
+        async assets => {
+          const names = Object.keys(assets).filter(name => this.test.test(name));
+          await Promise.all(
+            names.map(async name => {
+              const content = compilation.getAsset(name).source.buffer();
+              if (content.length < this.threshold) {
+                return;
+              }
+              const [gzipped, brotlied] = await Promise.all([
+                gzip(content, { level: zlib.constants.Z_BEST_COMPRESSION }),
+                brotliCompress(content, {
+                  params: {
+                    [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                    [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+                  },
+                }),
+              ]);
+              if (gzipped.length < content.length) {
+                compilation.emitAsset(`${name}.gz`, new sources.RawSource(gzipped));
+              }
+              if (brotlied.length < content.length) {
+                compilation.emitAsset(`${name}.br`, new sources.RawSource(brotlied));
+              }
+            })
+          );
+        }
+      );
+    });
+  }
+}
+
 module.exports = async (config, options, targetOptions) => {
   const languagesHash = await hashElement(path.resolve(__dirname, '../src/main/webapp/i18n'), {
     algo: 'md5',
@@ -84,7 +136,8 @@ module.exports = async (config, options, targetOptions) => {
         openAnalyzer: false,
         // Webpack statistics in target folder
         reportFilename: '../stats.html',
-      })
+      }),
+      new PrecompressWebpackPlugin()
     );
   }
 